@@ -0,0 +1,26 @@
+package com.ai.pat.backend.config;
+
+/**
+ * Hibernate second-level and query cache region names. Each region is sized in
+ * {@code application.conf} (Caffeine JCache); regions not listed there get its {@code default} settings.
+ */
+public final class CacheRegions {
+
+    public static final String PROJECT = "project";
+    public static final String PROJECT_USERS = "project-users";
+    public static final String KEQ = "keq";
+    public static final String USER_PROJECTS = "user-projects";
+    public static final String USER_MANAGED_PROJECTS = "user-managed-projects";
+
+    public static final String QUERY_KEQS = "query-keqs";
+    public static final String QUERY_PROJECTS_BY_ID = "query-projects-by-id";
+    public static final String QUERY_MANAGERS_BY_PROJECT = "query-managers-by-project";
+
+    public static final String[] ALL = {
+            PROJECT, PROJECT_USERS, KEQ, USER_PROJECTS, USER_MANAGED_PROJECTS,
+            QUERY_KEQS, QUERY_PROJECTS_BY_ID, QUERY_MANAGERS_BY_PROJECT
+    };
+
+    private CacheRegions() {
+    }
+}
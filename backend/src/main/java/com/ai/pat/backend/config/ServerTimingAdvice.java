@@ -0,0 +1,41 @@
+package com.ai.pat.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the {@code Server-Timing: db} header of {@link SqlStatsFilter} just before a response
+ * body is written, while headers can still be set.
+ */
+@RestControllerAdvice
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    private final boolean enabled;
+
+    public ServerTimingAdvice(@Value("${app.sql-stats.enabled:true}") boolean sqlStats,
+                              @Value("${app.sql-stats.server-timing:false}") boolean serverTiming) {
+        this.enabled = sqlStats && serverTiming;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return enabled;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                  Class<? extends HttpMessageConverter<?>> converterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlStats.Scope scope = SqlStats.current();
+        if (scope != null && !response.getHeaders().containsKey(SqlStatsFilter.SERVER_TIMING)) {
+            response.getHeaders().set(SqlStatsFilter.SERVER_TIMING, SqlStatsFilter.serverTiming(scope));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,264 @@
+package com.ai.pat.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Per-request (or per background job) JDBC statistics: statements executed, rows read and time
+ * spent in the driver, counted on the calling thread by the DataSource wrapper of
+ * {@link SqlStatsDataSourcePostProcessor} while a {@link Scope} is open. When a scope closes its
+ * totals go to Micrometer and to the aggregates served by {@link SqlStatsEndpoint}, and any
+ * statement shape (SQL with literals and IN lists folded) executed {@code repeat-threshold} times
+ * or more is reported as a likely N+1.
+ */
+@Component
+@ConditionalOnProperty(name = "app.sql-stats.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStats {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStats.class);
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private static final int MAX_SHAPES_PER_SCOPE = 512;
+    private static final int MAX_CACHED_SHAPES = 4096;
+    private static final int RECENT_REPEATS = 50;
+    private static final String OTHER_SHAPES = "(other statements)";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Map<String, String> SHAPES = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+    private final int repeatThreshold;
+    private final Map<String, Aggregate> requests = new ConcurrentHashMap<>();
+    private final Map<String, Aggregate> methods = new ConcurrentHashMap<>();
+    private final Deque<RepeatedStatement> recentRepeats = new ArrayDeque<>();
+
+    public SqlStats(MeterRegistry meterRegistry,
+                    @Value("${app.sql-stats.repeat-threshold:10}") int repeatThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.repeatThreshold = Math.max(2, repeatThreshold);
+    }
+
+    /** Scope of the current thread, or {@code null} when statements are not being counted. */
+    public static Scope current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Starts counting on this thread. Returns {@code null} if a scope is already open: the
+     * outermost caller owns it and closes it.
+     */
+    public Scope open(String name) {
+        if (CURRENT.get() != null) return null;
+        Scope scope = new Scope(name);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Stops counting, records request totals, and reports repeated statement shapes;
+     * {@code kind} ("request" or "job") and {@code name} label the metrics.
+     */
+    public void close(Scope scope, String kind, String name) {
+        if (scope == null) return;
+        CURRENT.remove();
+        // Method totals are recorded by the caller (SqlStatsAspect); a scope adds request totals only
+        if ("request".equals(kind)) {
+            requests.computeIfAbsent(name, k -> new Aggregate()).add(scope.statements, scope.rows, scope.nanos);
+            DistributionSummary.builder("sql.request.statements")
+                    .description("JDBC statements per HTTP request")
+                    .tag("uri", name)
+                    .register(meterRegistry)
+                    .record(scope.statements);
+            DistributionSummary.builder("sql.request.rows")
+                    .description("Rows read per HTTP request")
+                    .tag("uri", name)
+                    .register(meterRegistry)
+                    .record(scope.rows);
+            Timer.builder("sql.request.time")
+                    .description("Time in JDBC calls per HTTP request")
+                    .tag("uri", name)
+                    .register(meterRegistry)
+                    .record(scope.nanos, TimeUnit.NANOSECONDS);
+        }
+        for (Map.Entry<String, int[]> e : scope.shapes.entrySet()) {
+            int executions = e.getValue()[0];
+            if (executions < repeatThreshold || OTHER_SHAPES.equals(e.getKey())) continue;
+            Counter.builder("sql.repeated.statements")
+                    .description("Scopes that ran one statement shape at least repeat-threshold times (likely N+1)")
+                    .tag("kind", kind)
+                    .tag("name", name)
+                    .register(meterRegistry)
+                    .increment();
+            RepeatedStatement repeat = new RepeatedStatement(kind, name, e.getKey(), executions, scope.statements, Instant.now());
+            synchronized (recentRepeats) {
+                if (recentRepeats.size() == RECENT_REPEATS) recentRepeats.removeFirst();
+                recentRepeats.addLast(repeat);
+            }
+            log.warn("Likely N+1 in {} {}: {} executions of: {}", kind, name, executions, e.getKey());
+        }
+    }
+
+    /** Records the statements a service method ran (including in nested calls). */
+    public void recordMethod(String method, long statements, long rows, long nanos) {
+        methods.computeIfAbsent(method, k -> new Aggregate()).add(statements, rows, nanos);
+        DistributionSummary.builder("sql.method.statements")
+                .description("JDBC statements per service method call")
+                .tag("method", method)
+                .register(meterRegistry)
+                .record(statements);
+        Timer.builder("sql.method.time")
+                .description("Time in JDBC calls per service method call")
+                .tag("method", method)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public Map<String, Map<String, Object>> requestTotals() {
+        return snapshot(requests);
+    }
+
+    public Map<String, Map<String, Object>> methodTotals() {
+        return snapshot(methods);
+    }
+
+    public List<RepeatedStatement> recentRepeats() {
+        synchronized (recentRepeats) {
+            return new ArrayList<>(recentRepeats);
+        }
+    }
+
+    private static Map<String, Map<String, Object>> snapshot(Map<String, Aggregate> aggregates) {
+        Map<String, Map<String, Object>> out = new TreeMap<>();
+        aggregates.forEach((name, a) -> out.put(name, a.toMap()));
+        return out;
+    }
+
+    /**
+     * Statement text with string and numeric literals replaced by {@code ?}, IN lists of any
+     * length folded to one, and whitespace collapsed, so executions that differ only in
+     * arguments share a shape.
+     */
+    public static String shape(String sql) {
+        if (sql == null) return "";
+        String cached = SHAPES.get(sql);
+        if (cached != null) return cached;
+        String s = STRING_LITERAL.matcher(sql).replaceAll("?");
+        s = NUMBER.matcher(s).replaceAll("?");
+        s = IN_LIST.matcher(s).replaceAll("in (?...)");
+        s = WHITESPACE.matcher(s).replaceAll(" ").trim();
+        if (SHAPES.size() >= MAX_CACHED_SHAPES) SHAPES.clear();
+        SHAPES.put(sql, s);
+        return s;
+    }
+
+    /** Counters of one thread's unit of work. Only touched by that thread. */
+    public static final class Scope {
+
+        private final String name;
+        private final Map<String, int[]> shapes = new HashMap<>();
+        private long statements;
+        private long rows;
+        private long nanos;
+
+        Scope(String name) {
+            this.name = name;
+        }
+
+        void statement(String shape, long elapsedNanos) {
+            statements++;
+            nanos += elapsedNanos;
+            int[] count = shapes.get(shape);
+            if (count == null) {
+                if (shapes.size() >= MAX_SHAPES_PER_SCOPE) shape = OTHER_SHAPES;
+                count = shapes.computeIfAbsent(shape, k -> new int[1]);
+            }
+            count[0]++;
+        }
+
+        void row() {
+            rows++;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public long statements() {
+            return statements;
+        }
+
+        public long rows() {
+            return rows;
+        }
+
+        public long nanos() {
+            return nanos;
+        }
+
+        /** Highest number of executions of a single statement shape so far. */
+        public int maxRepeats() {
+            int max = 0;
+            for (int[] c : shapes.values()) max = Math.max(max, c[0]);
+            return max;
+        }
+    }
+
+    public record RepeatedStatement(String kind, String name, String shape, int executions,
+                                    long scopeStatements, Instant at) {}
+
+    private static final class Aggregate {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final AtomicLong maxStatements = new AtomicLong();
+
+        void add(long statements, long rows, long nanos) {
+            count.increment();
+            this.statements.add(statements);
+            this.rows.add(rows);
+            this.nanos.add(nanos);
+            maxStatements.accumulateAndGet(statements, Math::max);
+        }
+
+        Map<String, Object> toMap() {
+            long n = Math.max(1, count.sum());
+            Map<String, Object> out = new LinkedHashMap<>();
+            out.put("count", count.sum());
+            out.put("statements", statements.sum());
+            out.put("avgStatements", (double) statements.sum() / n);
+            out.put("maxStatements", maxStatements.get());
+            out.put("rows", rows.sum());
+            out.put("dbTimeMs", nanos.sum() / 1_000_000.0);
+            return out;
+        }
+    }
+}
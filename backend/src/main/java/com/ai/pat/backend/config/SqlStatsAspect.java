@@ -0,0 +1,41 @@
+package com.ai.pat.backend.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Attributes JDBC statements to public {@code @Service} methods. Inside a request the method's
+ * share of the request scope is recorded; outside one (scheduled jobs, worker threads) the
+ * outermost service call opens its own scope so repeated statements are still reported.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "app.sql-stats.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatsAspect {
+
+    private final SqlStats sqlStats;
+
+    public SqlStatsAspect(SqlStats sqlStats) {
+        this.sqlStats = sqlStats;
+    }
+
+    @Around("within(@org.springframework.stereotype.Service *) && execution(public * *(..))")
+    public Object count(ProceedingJoinPoint pjp) throws Throwable {
+        String method = pjp.getSignature().getDeclaringType().getSimpleName() + "." + pjp.getSignature().getName();
+        SqlStats.Scope job = sqlStats.open(method);
+        SqlStats.Scope scope = job != null ? job : SqlStats.current();
+        long statements = scope.statements();
+        long rows = scope.rows();
+        long nanos = scope.nanos();
+        try {
+            return pjp.proceed();
+        } finally {
+            long ran = scope.statements() - statements;
+            if (ran > 0) sqlStats.recordMethod(method, ran, scope.rows() - rows, scope.nanos() - nanos);
+            sqlStats.close(job, "job", method);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.ai.pat.backend.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Wraps the application DataSource so connections, statements and result sets report to the
+ * {@link SqlStats.Scope} open on the calling thread. With no scope open a call costs one
+ * thread-local read. {@code unwrap} still reaches the pool and driver classes.
+ */
+@Component
+@ConditionalOnProperty(name = "app.sql-stats.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatsDataSourcePostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !Proxy.isProxyClass(bean.getClass())) {
+            return wrap(DataSource.class, dataSource, new Handler(dataSource) {
+                @Override
+                Object call(Object proxy, Method method, Object[] args) throws Throwable {
+                    Object result = invoke(method, args);
+                    return result instanceof Connection c ? wrap(Connection.class, c, new ConnectionHandler(c)) : result;
+                }
+            });
+        }
+        return bean;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T wrap(Class<T> type, T target, Handler handler) {
+        return (T) Proxy.newProxyInstance(SqlStatsDataSourcePostProcessor.class.getClassLoader(),
+                new Class<?>[] {type}, handler);
+    }
+
+    /** Forwards to the target; subclasses intercept what they need in {@link #call}. */
+    abstract static class Handler implements InvocationHandler {
+
+        final Object target;
+
+        Handler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public final Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) return proxy;
+                    break;
+                case "isWrapperFor":
+                    if (((Class<?>) args[0]).isInstance(proxy)) return true;
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return call(proxy, method, args);
+            }
+            return invoke(method, args);
+        }
+
+        abstract Object call(Object proxy, Method method, Object[] args) throws Throwable;
+
+        final Object invoke(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+    }
+
+    static final class ConnectionHandler extends Handler {
+
+        ConnectionHandler(Connection target) {
+            super(target);
+        }
+
+        @Override
+        Object call(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = invoke(method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> wrap(PreparedStatement.class, (PreparedStatement) result,
+                        new StatementHandler(result, (Connection) proxy, (String) args[0]));
+                case "prepareCall" -> wrap(CallableStatement.class, (CallableStatement) result,
+                        new StatementHandler(result, (Connection) proxy, (String) args[0]));
+                case "createStatement" -> wrap(Statement.class, (Statement) result,
+                        new StatementHandler(result, (Connection) proxy, null));
+                default -> result;
+            };
+        }
+    }
+
+    static final class StatementHandler extends Handler {
+
+        private final Connection connection;
+        // Prepared statement text; plain statements pass theirs to execute
+        private final String sql;
+
+        StatementHandler(Object target, Connection connection, String sql) {
+            super(target);
+            this.connection = connection;
+            this.sql = sql;
+        }
+
+        @Override
+        Object call(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("getConnection".equals(name)) return connection;
+            SqlStats.Scope scope = SqlStats.current();
+            if (scope == null) return invoke(method, args);
+
+            switch (name) {
+                case "executeQuery", "execute", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch" -> {
+                    String text = sql != null ? sql : args != null && args.length > 0 && args[0] instanceof String s ? s : name;
+                    long started = System.nanoTime();
+                    try {
+                        Object result = invoke(method, args);
+                        return result instanceof ResultSet rs ? wrapResultSet(rs, (Statement) proxy, scope) : result;
+                    } finally {
+                        scope.statement(SqlStats.shape(text), System.nanoTime() - started);
+                    }
+                }
+                case "getResultSet" -> {
+                    Object result = invoke(method, args);
+                    return result instanceof ResultSet rs ? wrapResultSet(rs, (Statement) proxy, scope) : result;
+                }
+                default -> {
+                    return invoke(method, args);
+                }
+            }
+        }
+
+        private static ResultSet wrapResultSet(ResultSet rs, Statement statement, SqlStats.Scope scope) {
+            return wrap(ResultSet.class, rs, new Handler(rs) {
+                @Override
+                Object call(Object proxy, Method method, Object[] args) throws Throwable {
+                    if ("getStatement".equals(method.getName())) return statement;
+                    Object result = invoke(method, args);
+                    if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) scope.row();
+                    return result;
+                }
+            });
+        }
+    }
+}
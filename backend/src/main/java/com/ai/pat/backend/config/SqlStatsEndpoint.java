@@ -0,0 +1,34 @@
+package com.ai.pat.backend.config;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/sqlstats}: JDBC totals per endpoint and per service method since startup,
+ * and the most recent likely N+1 findings.
+ */
+@Component
+@Endpoint(id = "sqlstats")
+@ConditionalOnProperty(name = "app.sql-stats.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatsEndpoint {
+
+    private final SqlStats sqlStats;
+
+    public SqlStatsEndpoint(SqlStats sqlStats) {
+        this.sqlStats = sqlStats;
+    }
+
+    @ReadOperation
+    public Map<String, Object> sqlStats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("requests", sqlStats.requestTotals());
+        out.put("methods", sqlStats.methodTotals());
+        out.put("repeatedStatements", sqlStats.recentRepeats());
+        return out;
+    }
+}
@@ -0,0 +1,63 @@
+package com.ai.pat.backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Opens the {@link SqlStats} scope of an HTTP request, ahead of security so its lookups count
+ * too. With {@code app.sql-stats.server-timing} the totals are also sent as a
+ * {@code Server-Timing: db} header, set by {@link ServerTimingAdvice} before a body is written
+ * or here for responses without one.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "app.sql-stats.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatsFilter extends OncePerRequestFilter {
+
+    static final String SERVER_TIMING = "Server-Timing";
+
+    private final SqlStats sqlStats;
+    private final boolean serverTiming;
+
+    public SqlStatsFilter(SqlStats sqlStats, @Value("${app.sql-stats.server-timing:false}") boolean serverTiming) {
+        this.sqlStats = sqlStats;
+        this.serverTiming = serverTiming;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStats.Scope scope = sqlStats.open(request.getRequestURI());
+        if (scope == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+            if (serverTiming && !response.isCommitted() && !response.containsHeader(SERVER_TIMING)) {
+                response.setHeader(SERVER_TIMING, serverTiming(scope));
+            }
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNMAPPED";
+            sqlStats.close(scope, "request", request.getMethod().toUpperCase(Locale.ROOT) + " " + uri);
+        }
+    }
+
+    static String serverTiming(SqlStats.Scope scope) {
+        return String.format(Locale.ROOT, "db;dur=%.1f;desc=\"%d statements, %d rows\"",
+                scope.nanos() / 1_000_000.0, scope.statements(), scope.rows());
+    }
+}
@@ -2,8 +2,14 @@ package com.ai.pat.backend.controller;
 
 import com.ai.pat.backend.model.User;
 import com.ai.pat.backend.repository.UserRepository;
+import com.ai.pat.backend.security.PrincipalCache;
+import com.ai.pat.backend.service.CompetencyDictionary;
+import com.ai.pat.backend.service.KeqService;
+import com.ai.pat.backend.service.PerformanceCubeService;
+import com.ai.pat.backend.service.ReferenceDataCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,6 +24,87 @@ public class AdminController {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+    private final CompetencyDictionary competencyDictionary;
+    private final ReferenceDataCache referenceDataCache;
+    private final KeqService keqService;
+    private final PerformanceCubeService performanceCubeService;
+
+    // Applies edits to the competencies/competency_aliases tables without waiting for the periodic reload
+    @PostMapping("/competencies/reload")
+    public ResponseEntity<Map<String, Object>> reloadCompetencies() {
+        boolean changed = competencyDictionary.reload();
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "changed", changed,
+            "competencies", competencyDictionary.size()
+        ));
+    }
+
+    // Drops cached reference data after it was changed outside the application (e.g. SQL console)
+    @PostMapping("/cache/evict")
+    public ResponseEntity<Map<String, Object>> evictReferenceCache(
+            @RequestParam(value = "scope", defaultValue = "all") String scope) {
+        switch (scope.toLowerCase()) {
+            case "projects" -> referenceDataCache.evictProjects();
+            case "keqs" -> {
+                referenceDataCache.evictKeqs();
+                keqService.rebuild();
+            }
+            case "managers" -> referenceDataCache.evictManagerAssignments();
+            case "all" -> {
+                referenceDataCache.evictAll();
+                keqService.rebuild();
+            }
+            default -> {
+                return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", "scope must be one of projects, keqs, managers, all"
+                ));
+            }
+        }
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "scope", scope.toLowerCase()
+        ));
+    }
+
+    // Roll-up / drill-down of ratings, e.g. ?groupBy=department,period&granularity=quarter&fromYear=2025;
+    // filter on a group's values (department, projectId, competency) and add a dimension to drill down
+    @GetMapping("/performance-cube")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> performanceCube(
+            @RequestParam(value = "groupBy", required = false) String groupBy,
+            @RequestParam(value = "granularity", required = false) String granularity,
+            @RequestParam(value = "department", required = false) String department,
+            @RequestParam(value = "projectId", required = false) Long projectId,
+            @RequestParam(value = "fromYear", required = false) Integer fromYear,
+            @RequestParam(value = "toYear", required = false) Integer toYear,
+            @RequestParam(value = "competency", required = false) String competency) {
+        PerformanceCubeService.CubeQuery query = new PerformanceCubeService.CubeQuery(
+            PerformanceCubeService.parseDimensions(groupBy),
+            PerformanceCubeService.parseGranularity(granularity),
+            department, projectId, fromYear, toYear, competency);
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "groupBy", query.groupBy().stream().map(d -> d.name().toLowerCase()).toList(),
+            "granularity", query.granularity().name().toLowerCase(),
+            "rows", performanceCubeService.query(query)
+        ));
+    }
+
+    // Recomputes the whole cube, e.g. after employees changed department
+    @PostMapping("/performance-cube/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuildPerformanceCube() {
+        PerformanceCubeService.RefreshResult result = performanceCubeService.rebuild();
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "evaluations", result.evaluations(),
+            "cells", result.cells(),
+            "refreshedAt", result.refreshedAt()
+        ));
+    }
 
     @GetMapping("/managers")
     public ResponseEntity<List<Map<String, Object>>> listManagers() {
@@ -131,6 +218,7 @@ public class AdminController {
         String newPassword = generateRandomPassword();
         manager.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(manager);
+        principalCache.evict(managerId);
         
         return ResponseEntity.ok(Map.of(
             "success", true,
@@ -154,6 +242,7 @@ public class AdminController {
         }
         try {
             userRepository.delete(user);
+            principalCache.evict(managerId);
             return ResponseEntity.ok(Map.of(
                 "success", true,
                 "message", "Manager deleted successfully"
@@ -9,12 +9,27 @@ import com.ai.pat.backend.controller.dto.ai.SummarizeResponse;
 import com.ai.pat.backend.controller.dto.ai.RecommendationsRequest;
 import com.ai.pat.backend.controller.dto.ai.RecommendationsResponse;
 import com.ai.pat.backend.controller.dto.ai.EvaluateRequest;
+import com.ai.pat.backend.controller.dto.ai.EvaluateBatchRequest;
+import com.ai.pat.backend.entity.AiJob;
+import com.ai.pat.backend.security.PrincipalCache;
+import com.ai.pat.backend.service.AiBatchService;
+import com.ai.pat.backend.service.AiJobService;
 import com.ai.pat.backend.service.AiService;
+import com.ai.pat.backend.service.AiStreamService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.util.HashMap;
 import java.util.Map;
 
 @RestController
@@ -22,9 +37,20 @@ import java.util.Map;
 public class AiController {
 
     private final AiService aiService;
+    private final AiBatchService aiBatchService;
+    private final AiJobService aiJobService;
+    private final AiStreamService aiStreamService;
+    private final PrincipalCache principalCache;
+    private final ObjectMapper objectMapper;
 
-    public AiController(AiService aiService) {
+    public AiController(AiService aiService, AiBatchService aiBatchService, AiJobService aiJobService,
+                        AiStreamService aiStreamService, PrincipalCache principalCache, ObjectMapper objectMapper) {
         this.aiService = aiService;
+        this.aiBatchService = aiBatchService;
+        this.aiJobService = aiJobService;
+        this.aiStreamService = aiStreamService;
+        this.principalCache = principalCache;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/draft-evaluation")
@@ -33,6 +59,13 @@ public class AiController {
         return ResponseEntity.ok(aiService.draftEvaluation(req));
     }
 
+    // SSE: "token" events as the provider generates, then "done" with the full text (or "error")
+    @PostMapping(value = "/draft-evaluation/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('EMPLOYEE') or hasRole('MANAGER')")
+    public SseEmitter draftStream(@Valid @RequestBody DraftEvaluationRequest req) {
+        return aiStreamService.streamDraft(req);
+    }
+
     @PostMapping("/analyze-text")
     @PreAuthorize("hasRole('EMPLOYEE') or hasRole('MANAGER')")
     public ResponseEntity<AnalyzeTextResponse> analyzeText(@Valid @RequestBody AnalyzeTextRequest req) {
@@ -45,6 +78,12 @@ public class AiController {
         return ResponseEntity.ok(aiService.summarize(req));
     }
 
+    @PostMapping(value = "/summarize/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('EMPLOYEE') or hasRole('MANAGER')")
+    public SseEmitter summarizeStream(@Valid @RequestBody SummarizeRequest req) {
+        return aiStreamService.streamSummary(req);
+    }
+
     @PostMapping("/recommendations")
     @PreAuthorize("hasRole('EMPLOYEE') or hasRole('MANAGER')")
     public ResponseEntity<RecommendationsResponse> recommendations(@Valid @RequestBody RecommendationsRequest req) {
@@ -56,4 +95,95 @@ public class AiController {
     public ResponseEntity<Map<String, Object>> evaluate(@Valid @RequestBody EvaluateRequest req) {
         return ResponseEntity.ok(aiService.evaluate(req));
     }
+
+    // Evaluates many employees in parallel; one NDJSON line per employee, in completion order
+    @PostMapping(value = "/evaluate:batch", produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('MANAGER')")
+    public ResponseEntity<?> evaluateBatch(@Valid @RequestBody EvaluateBatchRequest req) {
+        if (req.getRequests().size() > aiBatchService.getMaxItems()) {
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of(
+                            "success", false,
+                            "message", "A batch may contain at most " + aiBatchService.getMaxItems() + " requests"
+                    ));
+        }
+        StreamingResponseBody body = out -> aiBatchService.evaluateBatch(req.getRequests(), item -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(item));
+                out.write('\n');
+                out.flush();
+            } catch (java.io.IOException ex) {
+                throw new java.io.UncheckedIOException(ex);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    // Queues the draft and returns at once; poll GET /v1/ai/jobs/{id} for the result
+    @PostMapping("/jobs/draft-evaluation")
+    @PreAuthorize("hasRole('EMPLOYEE') or hasRole('MANAGER')")
+    public ResponseEntity<Map<String, Object>> submitDraftJob(@Valid @RequestBody DraftEvaluationRequest req,
+                                                              @RequestHeader(value = "X-User", required = false) String xUser) {
+        AiJob job = aiJobService.submitDraftEvaluation(req, resolveCallerId(xUser));
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/v1/ai/jobs/" + job.getId()))
+                .body(jobBody(job));
+    }
+
+    @GetMapping("/jobs/{id}")
+    @PreAuthorize("hasRole('EMPLOYEE') or hasRole('MANAGER') or hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getJob(@PathVariable Long id,
+                                                      @RequestHeader(value = "X-User", required = false) String xUser) {
+        AiJob job = aiJobService.findJob(id).orElse(null);
+        // Jobs are private to their submitter; don't reveal that someone else's id exists
+        if (job == null || (job.getCreatedBy() != null && !job.getCreatedBy().equals(resolveCallerId(xUser)) && !isAdmin())) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                    "success", false,
+                    "message", "AI job not found"
+            ));
+        }
+        return ResponseEntity.ok(jobBody(job));
+    }
+
+    private Map<String, Object> jobBody(AiJob job) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("success", true);
+        body.put("id", job.getId());
+        body.put("type", job.getJobType());
+        body.put("status", job.getStatus().name());
+        body.put("attempts", job.getAttempts());
+        body.put("createdAt", job.getCreatedAt());
+        body.put("completedAt", job.getCompletedAt());
+        if (job.getStatus() == AiJob.Status.PENDING && job.getAttempts() > 0) {
+            body.put("nextAttemptAt", job.getRunAfter());
+        }
+        if (job.getStatus() == AiJob.Status.SUCCEEDED) {
+            body.put("result", aiJobService.readDraftResult(job));
+            body.put("fallback", job.isFallback());
+        }
+        if (job.getLastError() != null && job.isFinished()) {
+            body.put("error", job.getLastError());
+        }
+        return body;
+    }
+
+    private Long resolveCallerId(String xUser) {
+        String key = xUser;
+        if (key == null || key.isBlank()) {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            if (auth != null && auth.isAuthenticated() && auth.getName() != null && !auth.getName().isBlank()) {
+                key = auth.getName();
+            }
+        }
+        if (key == null || key.isBlank()) return null;
+        return principalCache.resolveUserId(key).orElse(null);
+    }
+
+    private static boolean isAdmin() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+    }
 }
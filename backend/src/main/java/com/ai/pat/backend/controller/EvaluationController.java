@@ -1,17 +1,26 @@
 package com.ai.pat.backend.controller;
 
+import com.ai.pat.backend.controller.dto.ManagerGradeBatchRequest;
+import com.ai.pat.backend.dto.CursorPage;
 import com.ai.pat.backend.dto.EvaluationDTO;
 import com.ai.pat.backend.exception.ResourceNotFoundException;
 import com.ai.pat.backend.model.Evaluation;
+import com.ai.pat.backend.security.PrincipalCache;
+import com.ai.pat.backend.service.EvaluationCycleService;
 import com.ai.pat.backend.service.EvaluationService;
+import com.ai.pat.backend.service.ManagerAnalyticsService;
 import com.ai.pat.backend.repository.EvaluationRepository;
 import com.ai.pat.backend.service.UserService;
 import com.ai.pat.backend.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -25,6 +34,10 @@ public class EvaluationController {
     private final UserRepository userRepository;
     private final EvaluationRepository evaluationRepository;
     private final UserService userService;
+    private final ManagerAnalyticsService managerAnalyticsService;
+    private final EvaluationCycleService evaluationCycleService;
+    private final ObjectMapper objectMapper;
+    private final PrincipalCache principalCache;
 
     @PostMapping
     public ResponseEntity<Map<String, Object>> submitEvaluation(
@@ -81,10 +94,7 @@ public class EvaluationController {
                 }
                 if (key != null && !key.isBlank()) {
                     final String finalKey = key;
-                    employeeId = userRepository.findByUsername(finalKey)
-                            .or(() -> userRepository.findByEmail(finalKey))
-                            .map(com.ai.pat.backend.model.User::getId)
-                            .orElse(null);
+                    employeeId = principalCache.resolveUserId(finalKey).orElse(null);
                 }
             } catch (Exception ignore) {}
             // If still null, create a minimal user using email/principal to avoid null employee_id
@@ -186,6 +196,9 @@ public class EvaluationController {
                     updated++;
                 } catch (Exception ignore) {}
             }
+            if (updated > 0) {
+                managerAnalyticsService.invalidateAll();
+            }
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "updated", updated
@@ -253,10 +266,7 @@ public class EvaluationController {
             }
             if (key != null && !key.isBlank()) {
                 final String finalKey2 = key;
-                employeeId = userRepository.findByUsername(finalKey2)
-                        .or(() -> userRepository.findByEmail(finalKey2))
-                        .map(com.ai.pat.backend.model.User::getId)
-                        .orElse(null);
+                employeeId = principalCache.resolveUserId(finalKey2).orElse(null);
             }
         } catch (Exception ignore) {}
         // If still null, create a minimal user using principal to avoid null employee_id
@@ -298,40 +308,15 @@ public class EvaluationController {
             }
         } catch (Exception ignore) {}
 
-        // Duplicate guard: if an evaluation already exists for (employee, project, quarter), return 409 with a friendly message and the existing evaluation
-        Integer yy = evaluationDTO.getEvaluationYear();
-        Integer mm = evaluationDTO.getEvaluationMonth();
-        if (employeeId != null && projectId != null && yy != null && mm != null) {
-            boolean exists = evaluationRepository.existsByEmployeeIdAndProjectIdAndEvaluationYearAndEvaluationMonth(
-                    employeeId, projectId, yy, mm
-            );
-            if (exists) {
-                var existing = evaluationRepository
-                        .findFirstByEmployeeIdAndProjectIdAndEvaluationYearAndEvaluationMonthOrderByCreatedAtDesc(employeeId, projectId, yy, mm)
-                        .map(EvaluationDTO::fromEntity)
-                        .orElse(null);
-                // Wrap as 409 with body via ResponseEntity.status
-                org.springframework.http.ResponseEntity.BodyBuilder bb = org.springframework.http.ResponseEntity.status(409);
-                if (existing != null) {
-                    // Use a header to convey message (UI can also read body if needed)
-                    return bb.body(existing);
-                }
-                return bb.body(null);
-            }
-        }
-
         try {
-            EvaluationDTO createdEvaluation = evaluationService.createEvaluation(evaluationDTO, employeeId, reviewerId, projectId);
-            if (createdEvaluation != null) return ResponseEntity.ok(createdEvaluation);
-            // Fallback: service returned null in idempotent path; try to resolve existing and return it
-            if (employeeId != null && projectId != null && yy != null && mm != null) {
-                var existing = evaluationRepository
-                        .findFirstByEmployeeIdAndProjectIdAndEvaluationYearAndEvaluationMonthOrderByCreatedAtDesc(employeeId, projectId, yy, mm)
-                        .map(EvaluationDTO::fromEntity)
-                        .orElse(null);
-                if (existing != null) return ResponseEntity.ok(existing);
+            // One insert-or-fetch against the (employee, project, period) unique index; a duplicate
+            // answers 409 with the evaluation already on file so the UI can show it
+            EvaluationService.Submission submission =
+                    evaluationService.submitEvaluation(evaluationDTO, employeeId, reviewerId, projectId);
+            if (!submission.created()) {
+                return ResponseEntity.status(409).body(submission.evaluation());
             }
-            return ResponseEntity.ok(createdEvaluation); // will be null but shouldn't happen
+            return ResponseEntity.ok(submission.evaluation());
         } catch (IllegalArgumentException iae) {
             return ResponseEntity.badRequest().body(null);
         }
@@ -356,10 +341,7 @@ public class EvaluationController {
             }
             if (key != null && !key.isBlank()) {
                 final String finalKey = key;
-                employeeId = userRepository.findByUsername(finalKey)
-                        .or(() -> userRepository.findByEmail(finalKey))
-                        .map(com.ai.pat.backend.model.User::getId)
-                        .orElse(null);
+                employeeId = principalCache.resolveUserId(finalKey).orElse(null);
             }
             if (employeeId == null || projectId == null || evaluationYear == null || evaluationQuarter == null) {
                 return ResponseEntity.badRequest().body(java.util.Map.of(
@@ -376,7 +358,7 @@ public class EvaluationController {
             if (exists) {
                 var existing = evaluationRepository
                         .findFirstByEmployeeIdAndProjectIdAndEvaluationYearAndEvaluationMonthOrderByCreatedAtDesc(employeeId, projectId, evaluationYear, month)
-                        .map(EvaluationDTO::fromEntity)
+                        .map(EvaluationDTO::summaryOf)
                         .orElse(null);
                 if (existing != null) {
                     resp.put("evaluationId", existing.getId());
@@ -409,10 +391,7 @@ public class EvaluationController {
 
                 if (isManager && !isAdmin) {
                     String principal = auth.getName();
-                    Long managerId = userRepository.findByUsername(principal)
-                            .or(() -> userRepository.findByEmail(principal))
-                            .map(com.ai.pat.backend.model.User::getId)
-                            .orElse(null);
+                    Long managerId = principalCache.resolveUserId(principal).orElse(null);
                     if (managerId != null) {
                         return ResponseEntity.ok(evaluationService.getManagerVisibleEvaluations(managerId));
                     }
@@ -428,6 +407,45 @@ public class EvaluationController {
         }
     }
 
+    // Keyset-paginated listing of summaries (no free text; GET /{id} has it): pass the returned
+    // nextCursor as ?after= to continue
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<CursorPage<EvaluationDTO>> getEvaluationPage(
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "size", defaultValue = "50") int size,
+            @RequestParam(value = "status", required = false) Evaluation.EvaluationStatus status,
+            @RequestParam(value = "department", required = false) String department) {
+        return ResponseEntity.ok(evaluationService.getEvaluationPage(after, size, status, department));
+    }
+
+    // Export as newline-delimited JSON, one evaluation per line, written while the cursor is read
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamEvaluations(
+            @RequestParam(value = "status", required = false) Evaluation.EvaluationStatus status,
+            @RequestParam(value = "department", required = false) String department) {
+        StreamingResponseBody body = out -> {
+            int[] pending = {0};
+            evaluationService.streamEvaluations(status, department, dto -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(dto));
+                    out.write('\n');
+                    if (++pending[0] >= 200) {
+                        out.flush();
+                        pending[0] = 0;
+                    }
+                } catch (java.io.IOException ex) {
+                    throw new java.io.UncheckedIOException(ex);
+                }
+            });
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     @GetMapping("/employee/{employeeId}")
     // @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MANAGER') or #employeeId == authentication.principal.id")
     public ResponseEntity<List<EvaluationDTO>> getEmployeeEvaluations(
@@ -470,6 +488,35 @@ public class EvaluationController {
         return ResponseEntity.ok(evaluations);
     }
 
+    // Full evaluation with achievements, challenges and feedback; the lists above return summaries
+    @GetMapping("/{evaluationId}")
+    public ResponseEntity<?> getEvaluation(@PathVariable("evaluationId") Long evaluationId) {
+        org.springframework.security.core.Authentication auth =
+                org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || auth.getName() == null || auth.getName().isBlank()) {
+            return ResponseEntity.status(401).body(Map.of(
+                "success", false,
+                "message", "Unauthorized"
+            ));
+        }
+        boolean isAdmin = auth.getAuthorities().stream()
+                .anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+        Long requesterId = principalCache.resolveUserId(auth.getName()).orElse(null);
+        try {
+            return ResponseEntity.ok(evaluationService.getEvaluation(evaluationId, requesterId, isAdmin));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(404).body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        } catch (AccessDeniedException ade) {
+            return ResponseEntity.status(403).body(Map.of(
+                "success", false,
+                "message", ade.getMessage()
+            ));
+        }
+    }
+
     @PutMapping("/{evaluationId}/status")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
     public ResponseEntity<EvaluationDTO> updateEvaluationStatus(
@@ -511,13 +558,19 @@ public class EvaluationController {
             @RequestParam Integer month,
             @RequestParam Integer year) {
         try {
-            int createdCount = evaluationService.createMonthlyEvaluations(month, year);
+            EvaluationCycleService.CycleResult result = evaluationCycleService.openCycle(month, year);
             return ResponseEntity.ok(Map.of(
                 "success", true,
                 "message", "Monthly evaluations created successfully",
                 "month", month,
                 "year", year,
-                "createdCount", createdCount
+                "createdCount", result.created(),
+                "chunks", result.chunks()
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", e.getMessage()
             ));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of(
@@ -561,10 +614,7 @@ public class EvaluationController {
                 ));
             }
             String principal = auth.getName();
-            Long reviewerId = userRepository.findByUsername(principal)
-                    .or(() -> userRepository.findByEmail(principal))
-                    .map(com.ai.pat.backend.model.User::getId)
-                    .orElse(null);
+            Long reviewerId = principalCache.resolveUserId(principal).orElse(null);
             if (reviewerId == null) {
                 return ResponseEntity.status(401).body(Map.of(
                     "success", false,
@@ -628,10 +678,7 @@ public class EvaluationController {
                 ));
             }
             String principal = auth.getName();
-            Long managerId = userRepository.findByUsername(principal)
-                    .or(() -> userRepository.findByEmail(principal))
-                    .map(com.ai.pat.backend.model.User::getId)
-                    .orElse(null);
+            Long managerId = principalCache.resolveUserId(principal).orElse(null);
             if (managerId == null) {
                 return ResponseEntity.status(401).body(Map.of(
                     "success", false,
@@ -667,5 +714,38 @@ public class EvaluationController {
         }
     }
 
+    /**
+     * Applies a manager's scores to many evaluations in one transaction. Every evaluation gets a
+     * result (UPDATED, INVALID, NOT_FOUND or FORBIDDEN); failed items do not roll back the others.
+     */
+    @PostMapping("/manager-scores/batch")
+    @PreAuthorize("hasRole('MANAGER')")
+    public ResponseEntity<Map<String, Object>> submitManagerScores(@Valid @RequestBody ManagerGradeBatchRequest request) {
+        if (request.grades().size() > EvaluationService.MAX_BATCH_GRADES) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", "At most " + EvaluationService.MAX_BATCH_GRADES + " evaluations per batch"
+            ));
+        }
+        org.springframework.security.core.Authentication auth = org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
+        Long managerId = auth == null || auth.getName() == null ? null
+                : principalCache.resolveUserId(auth.getName()).orElse(null);
+        if (managerId == null) {
+            return ResponseEntity.status(401).body(Map.of(
+                "success", false,
+                "message", "Authenticated user not found"
+            ));
+        }
 
+        List<EvaluationService.GradeResult> results = evaluationService.gradeBatch(managerId, request.grades().stream()
+                .map(item -> new EvaluationService.GradeItem(item.evaluationId(), item.scores()))
+                .toList());
+        long updated = results.stream().filter(r -> EvaluationService.GradeResult.UPDATED.equals(r.status())).count();
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "updated", updated,
+            "failed", results.size() - updated,
+            "results", results
+        ));
+    }
 }
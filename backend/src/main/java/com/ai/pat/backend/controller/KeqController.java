@@ -1,9 +1,11 @@
 package com.ai.pat.backend.controller;
 
 import com.ai.pat.backend.model.Keq;
-import com.ai.pat.backend.repository.EvaluationRepository;
 import com.ai.pat.backend.service.KeqService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -18,14 +20,27 @@ import java.util.Map;
 public class KeqController {
 
     private final KeqService keqService;
-    private final EvaluationRepository evaluationRepository;
 
+    /**
+     * All KEQs, or with {@code year} and {@code quarter} the ones active in that period. Served
+     * from the catalog snapshot; a matching {@code If-None-Match} gets a 304 without a body.
+     */
     @GetMapping
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN','ADMIN','ROLE_MANAGER','MANAGER','ROLE_EMPLOYEE','EMPLOYEE')")
-    public ResponseEntity<List<Keq>> list() {
-        // Bootstrap from evaluations if empty
-        try { keqService.bootstrapFromEvaluationsIfEmpty(evaluationRepository); } catch (Exception ignore) {}
-        return ResponseEntity.ok(keqService.findAll());
+    public ResponseEntity<List<Keq>> list(
+            @RequestParam(value = "year", required = false) Integer year,
+            @RequestParam(value = "quarter", required = false) Integer quarter,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if ((year == null) != (quarter == null) || (quarter != null && (quarter < 1 || quarter > 4))) {
+            return ResponseEntity.badRequest().build();
+        }
+        KeqService.Catalog catalog = keqService.catalog();
+        String etag = year == null ? catalog.etag() : catalog.etag(year, quarter);
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
+        List<Keq> body = year == null ? catalog.all() : catalog.active(year, quarter);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(body);
     }
 
     @PostMapping
@@ -49,4 +64,14 @@ public class KeqController {
         body.put("id", id);
         return ResponseEntity.ok(body);
     }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals("*") || tag.equals(etag)) return true;
+        }
+        return false;
+    }
 }
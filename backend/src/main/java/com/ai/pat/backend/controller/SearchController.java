@@ -0,0 +1,80 @@
+package com.ai.pat.backend.controller;
+
+import com.ai.pat.backend.security.PrincipalCache;
+import com.ai.pat.backend.service.SearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Ranked, paginated search. Pass {@code page} (0-based) and {@code size} (at most 50); results
+ * only include people and evaluations visible to the caller.
+ */
+@RestController
+@RequestMapping({"/v1/search", "/search"})
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final SearchService searchService;
+    private final PrincipalCache principalCache;
+
+    // Email or name fragment, e.g. ?q=dana or ?q=corp.com
+    @GetMapping("/people")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<String, Object>> searchPeople(
+            @RequestParam("q") String query,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        Long callerId = currentUserId();
+        if (callerId == null) return unauthorized();
+        return ResponseEntity.ok(body(searchService.searchPeople(callerId, isAdmin(), query, page, size)));
+    }
+
+    // Web search syntax over evaluation narratives, e.g. ?q="code review" -onboarding
+    @GetMapping("/evaluations")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<String, Object>> searchEvaluations(
+            @RequestParam("q") String query,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        Long callerId = currentUserId();
+        if (callerId == null) return unauthorized();
+        return ResponseEntity.ok(body(searchService.searchEvaluations(callerId, isAdmin(), query, page, size)));
+    }
+
+    private Long currentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || auth.getName() == null || auth.getName().isBlank()) return null;
+        return principalCache.resolveUserId(auth.getName()).orElse(null);
+    }
+
+    private static boolean isAdmin() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+    }
+
+    private static Map<String, Object> body(SearchService.Page<?> page) {
+        return Map.of(
+            "success", true,
+            "items", page.items(),
+            "page", page.page(),
+            "size", page.size(),
+            "hasMore", page.hasMore()
+        );
+    }
+
+    private static ResponseEntity<Map<String, Object>> unauthorized() {
+        return ResponseEntity.status(401).body(Map.of(
+            "success", false,
+            "message", "Authenticated user not found"
+        ));
+    }
+}
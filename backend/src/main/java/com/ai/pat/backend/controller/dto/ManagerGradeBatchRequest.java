@@ -0,0 +1,17 @@
+package com.ai.pat.backend.controller.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Competency scores for many evaluations. A score under the key {@code "overall"} sets the
+ * manager rating directly, like the single-score endpoint.
+ */
+public record ManagerGradeBatchRequest(@NotEmpty @Valid List<Item> grades) {
+
+    public record Item(@NotNull Long evaluationId, @NotEmpty Map<String, Integer> scores) {}
+}
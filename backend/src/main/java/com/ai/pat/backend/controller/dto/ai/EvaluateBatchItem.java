@@ -0,0 +1,17 @@
+package com.ai.pat.backend.controller.dto.ai;
+
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EvaluateBatchItem {
+  private int index; // position in the submitted batch; results arrive in completion order
+  private String employeeName;
+  private boolean fallback; // true when the full evaluation failed and a heuristic summary was used
+  private Map<String, Object> result;
+  private String error;
+}
@@ -0,0 +1,13 @@
+package com.ai.pat.backend.controller.dto.ai;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class EvaluateBatchRequest {
+  @NotEmpty
+  @Valid
+  private List<EvaluateRequest> requests;
+}
@@ -0,0 +1,25 @@
+package com.ai.pat.backend.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. Pass {@code nextCursor} back as {@code after}
+ * to fetch the following page; it is null once the last page has been returned.
+ */
+public class CursorPage<T> {
+    private final List<T> items;
+    private final Long nextCursor;
+    private final boolean hasMore;
+
+    public CursorPage(List<T> items, Long nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    // Getters
+    public List<T> getItems() { return items; }
+    public Long getNextCursor() { return nextCursor; }
+    public boolean isHasMore() { return hasMore; }
+    public int getSize() { return items.size(); }
+}
@@ -103,7 +103,27 @@ public class EvaluationDTO {
     public void setEvaluationYear(Integer evaluationYear) { this.evaluationYear = evaluationYear; }
     public void setEvaluationMonth(Integer evaluationMonth) { this.evaluationMonth = evaluationMonth; }
 
+    /** Full view, including the free-text fields (loaded from the evaluation's content row). */
     public static EvaluationDTO fromEntity(Evaluation evaluation) {
+        EvaluationDTO dto = summaryOf(evaluation);
+        dto.setAchievements(evaluation.getAchievements());
+        dto.setChallenges(evaluation.getChallenges());
+        dto.setLearnings(evaluation.getLearnings());
+        dto.setNextPeriodGoals(evaluation.getNextPeriodGoals());
+        dto.setAdditionalFeedback(evaluation.getAdditionalFeedback());
+        dto.setManagerFeedbackRequest(evaluation.getManagerFeedbackRequest());
+        dto.setManagerFeedback(evaluation.getManagerFeedback());
+        dto.setRecommendations(evaluation.getRecommendations());
+        // Legacy support
+        dto.setFeedback(evaluation.getAdditionalFeedback());
+        return dto;
+    }
+
+    /**
+     * Ratings, status and people only; the free-text fields are left null so the evaluation's
+     * content row is never loaded.
+     */
+    public static EvaluationDTO summaryOf(Evaluation evaluation) {
         EvaluationDTO dto = new EvaluationDTO();
         dto.setId(evaluation.getId());
         
@@ -161,23 +181,14 @@ public class EvaluationDTO {
         
         dto.setOverallRating(evaluation.getOverallRating());
         dto.setCompetencyRatings(evaluation.getCompetencyRatings());
-        dto.setAchievements(evaluation.getAchievements());
-        dto.setChallenges(evaluation.getChallenges());
-        dto.setLearnings(evaluation.getLearnings());
-        dto.setNextPeriodGoals(evaluation.getNextPeriodGoals());
-        dto.setAdditionalFeedback(evaluation.getAdditionalFeedback());
-        dto.setManagerFeedbackRequest(evaluation.getManagerFeedbackRequest());
         
         // Manager review fields
         dto.setManagerRating(evaluation.getManagerRating());
-        dto.setManagerFeedback(evaluation.getManagerFeedback());
-        dto.setRecommendations(evaluation.getRecommendations());
         dto.setManagerCompetencyRatings(evaluation.getManagerCompetencyRatings());
         dto.setReviewedAt(evaluation.getReviewedAt());
         
         // Legacy support
         dto.setRatings(evaluation.getCompetencyRatings());
-        dto.setFeedback(evaluation.getAdditionalFeedback());
         
         dto.setStatus(evaluation.getStatus());
         dto.setSubmittedAt(evaluation.getSubmittedAt());
@@ -0,0 +1,12 @@
+package com.ai.pat.backend.exception;
+
+/**
+ * Thrown when a call to the AI provider is not attempted because the circuit breaker is open
+ * or too many calls are already in flight. Callers fall back to the heuristic implementations.
+ */
+public class AiProviderUnavailableException extends RuntimeException {
+
+    public AiProviderUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -1,7 +1,10 @@
 package com.ai.pat.backend.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
@@ -31,30 +34,16 @@ public class Evaluation {
     @Column(nullable = false)
     private Integer overallRating;
     
-    @ElementCollection
-    @CollectionTable(name = "evaluation_ratings", 
-        joinColumns = @JoinColumn(name = "evaluation_id"))
-    @MapKeyColumn(name = "competency")
-    @Column(name = "rating")
+    // Competency -> score maps are JSONB columns on the row (GIN-indexed, see V18): loading an
+    // evaluation needs no extra query, and a score change rewrites one row
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "competency_ratings", columnDefinition = "jsonb", nullable = false)
     private Map<String, Integer> competencyRatings = new HashMap<>();
     
-    @Column(columnDefinition = "TEXT")
-    private String achievements;
-    
-    @Column(columnDefinition = "TEXT")
-    private String challenges;
-    
-    @Column(columnDefinition = "TEXT")
-    private String learnings;
-    
-    @Column(columnDefinition = "TEXT")
-    private String nextPeriodGoals;
-    
-    @Column(columnDefinition = "TEXT")
-    private String additionalFeedback;
-    
-    @Column(columnDefinition = "TEXT")
-    private String managerFeedbackRequest;
+    // Free text lives in evaluation_contents; list and analytics paths never touch it
+    @OneToOne(mappedBy = "evaluation", fetch = FetchType.LAZY, optional = false, cascade = CascadeType.ALL)
+    @JsonIgnore
+    private EvaluationContent content;
     
     @Column
     private String employeeName;
@@ -73,21 +62,8 @@ public class Evaluation {
     @Column
     private Integer managerRating;
     
-    @Column(columnDefinition = "TEXT")
-    private String managerFeedback;
-    
-    @Column(columnDefinition = "TEXT")
-    private String recommendations;
-    
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(
-        name = "evaluation_manager_competency_ratings",
-        joinColumns = @JoinColumn(name = "evaluation_id"),
-        foreignKey = @ForeignKey(name = "fk_evaluation_manager_ratings"),
-        uniqueConstraints = @UniqueConstraint(columnNames = {"evaluation_id", "competency"})
-    )
-    @MapKeyColumn(name = "competency", length = 100)
-    @Column(name = "rating", nullable = false)
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "manager_competency_ratings", columnDefinition = "jsonb", nullable = false)
     private Map<String, Integer> managerCompetencyRatings = new HashMap<>();
     
     @Column
@@ -110,6 +86,7 @@ public class Evaluation {
     public Evaluation() {
         this.competencyRatings = new HashMap<>();
         this.managerCompetencyRatings = new HashMap<>();
+        this.content = new EvaluationContent(this);
         this.status = EvaluationStatus.DRAFT;
         this.createdAt = LocalDateTime.now();
     }
@@ -131,25 +108,25 @@ public class Evaluation {
     public void setOverallRating(Integer overallRating) { this.overallRating = overallRating; }
     
     public Map<String, Integer> getCompetencyRatings() { return competencyRatings; }
-    public void setCompetencyRatings(Map<String, Integer> competencyRatings) { this.competencyRatings = competencyRatings; }
+    public void setCompetencyRatings(Map<String, Integer> competencyRatings) { this.competencyRatings = competencyRatings != null ? competencyRatings : new HashMap<>(); }
     
-    public String getAchievements() { return achievements; }
-    public void setAchievements(String achievements) { this.achievements = achievements; }
+    public String getAchievements() { return content != null ? content.getAchievements() : null; }
+    public void setAchievements(String achievements) { content().setAchievements(achievements); }
     
-    public String getChallenges() { return challenges; }
-    public void setChallenges(String challenges) { this.challenges = challenges; }
+    public String getChallenges() { return content != null ? content.getChallenges() : null; }
+    public void setChallenges(String challenges) { content().setChallenges(challenges); }
     
-    public String getLearnings() { return learnings; }
-    public void setLearnings(String learnings) { this.learnings = learnings; }
+    public String getLearnings() { return content != null ? content.getLearnings() : null; }
+    public void setLearnings(String learnings) { content().setLearnings(learnings); }
     
-    public String getNextPeriodGoals() { return nextPeriodGoals; }
-    public void setNextPeriodGoals(String nextPeriodGoals) { this.nextPeriodGoals = nextPeriodGoals; }
+    public String getNextPeriodGoals() { return content != null ? content.getNextPeriodGoals() : null; }
+    public void setNextPeriodGoals(String nextPeriodGoals) { content().setNextPeriodGoals(nextPeriodGoals); }
     
-    public String getAdditionalFeedback() { return additionalFeedback; }
-    public void setAdditionalFeedback(String additionalFeedback) { this.additionalFeedback = additionalFeedback; }
+    public String getAdditionalFeedback() { return content != null ? content.getAdditionalFeedback() : null; }
+    public void setAdditionalFeedback(String additionalFeedback) { content().setAdditionalFeedback(additionalFeedback); }
     
-    public String getManagerFeedbackRequest() { return managerFeedbackRequest; }
-    public void setManagerFeedbackRequest(String managerFeedbackRequest) { this.managerFeedbackRequest = managerFeedbackRequest; }
+    public String getManagerFeedbackRequest() { return content != null ? content.getManagerFeedbackRequest() : null; }
+    public void setManagerFeedbackRequest(String managerFeedbackRequest) { content().setManagerFeedbackRequest(managerFeedbackRequest); }
     
     public String getEmployeeName() { return employeeName; }
     public void setEmployeeName(String employeeName) { this.employeeName = employeeName; }
@@ -160,14 +137,14 @@ public class Evaluation {
     public Integer getManagerRating() { return managerRating; }
     public void setManagerRating(Integer managerRating) { this.managerRating = managerRating; }
     
-    public String getManagerFeedback() { return managerFeedback; }
-    public void setManagerFeedback(String managerFeedback) { this.managerFeedback = managerFeedback; }
+    public String getManagerFeedback() { return content != null ? content.getManagerFeedback() : null; }
+    public void setManagerFeedback(String managerFeedback) { content().setManagerFeedback(managerFeedback); }
     
-    public String getRecommendations() { return recommendations; }
-    public void setRecommendations(String recommendations) { this.recommendations = recommendations; }
+    public String getRecommendations() { return content != null ? content.getRecommendations() : null; }
+    public void setRecommendations(String recommendations) { content().setRecommendations(recommendations); }
     
     public Map<String, Integer> getManagerCompetencyRatings() { return managerCompetencyRatings; }
-    public void setManagerCompetencyRatings(Map<String, Integer> managerCompetencyRatings) { this.managerCompetencyRatings = managerCompetencyRatings; }
+    public void setManagerCompetencyRatings(Map<String, Integer> managerCompetencyRatings) { this.managerCompetencyRatings = managerCompetencyRatings != null ? managerCompetencyRatings : new HashMap<>(); }
     
     public LocalDateTime getReviewedAt() { return reviewedAt; }
     public void setReviewedAt(LocalDateTime reviewedAt) { this.reviewedAt = reviewedAt; }
@@ -189,6 +166,14 @@ public class Evaluation {
     public Integer getEvaluationYear() { return evaluationYear; }
     public void setEvaluationYear(Integer evaluationYear) { this.evaluationYear = evaluationYear; }
     
+    public EvaluationContent getContent() { return content; }
+    public void setContent(EvaluationContent content) { this.content = content; }
+
+    private EvaluationContent content() {
+        if (content == null) content = new EvaluationContent(this);
+        return content;
+    }
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
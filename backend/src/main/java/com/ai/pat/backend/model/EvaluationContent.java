@@ -0,0 +1,85 @@
+package com.ai.pat.backend.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+
+/**
+ * Free-text part of an {@link Evaluation}, kept out of the {@code evaluations} row so list,
+ * analytics and lookup queries only read the narrow numeric columns. Shares the evaluation's id
+ * and is loaded lazily, up to 100 evaluations per query when a list renders full DTOs.
+ */
+@Entity
+@Table(name = "evaluation_contents")
+@BatchSize(size = 100)
+public class EvaluationContent {
+
+    @Id
+    @Column(name = "evaluation_id")
+    private Long evaluationId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "evaluation_id", foreignKey = @ForeignKey(name = "fk_evaluation_contents_evaluation"))
+    @JsonIgnore
+    private Evaluation evaluation;
+
+    @Column(columnDefinition = "TEXT")
+    private String achievements;
+
+    @Column(columnDefinition = "TEXT")
+    private String challenges;
+
+    @Column(columnDefinition = "TEXT")
+    private String learnings;
+
+    @Column(columnDefinition = "TEXT")
+    private String nextPeriodGoals;
+
+    @Column(columnDefinition = "TEXT")
+    private String additionalFeedback;
+
+    @Column(columnDefinition = "TEXT")
+    private String managerFeedbackRequest;
+
+    @Column(columnDefinition = "TEXT")
+    private String managerFeedback;
+
+    @Column(columnDefinition = "TEXT")
+    private String recommendations;
+
+    public EvaluationContent() {}
+
+    public EvaluationContent(Evaluation evaluation) {
+        this.evaluation = evaluation;
+    }
+
+    public Long getEvaluationId() { return evaluationId; }
+
+    public Evaluation getEvaluation() { return evaluation; }
+    public void setEvaluation(Evaluation evaluation) { this.evaluation = evaluation; }
+
+    public String getAchievements() { return achievements; }
+    public void setAchievements(String achievements) { this.achievements = achievements; }
+
+    public String getChallenges() { return challenges; }
+    public void setChallenges(String challenges) { this.challenges = challenges; }
+
+    public String getLearnings() { return learnings; }
+    public void setLearnings(String learnings) { this.learnings = learnings; }
+
+    public String getNextPeriodGoals() { return nextPeriodGoals; }
+    public void setNextPeriodGoals(String nextPeriodGoals) { this.nextPeriodGoals = nextPeriodGoals; }
+
+    public String getAdditionalFeedback() { return additionalFeedback; }
+    public void setAdditionalFeedback(String additionalFeedback) { this.additionalFeedback = additionalFeedback; }
+
+    public String getManagerFeedbackRequest() { return managerFeedbackRequest; }
+    public void setManagerFeedbackRequest(String managerFeedbackRequest) { this.managerFeedbackRequest = managerFeedbackRequest; }
+
+    public String getManagerFeedback() { return managerFeedback; }
+    public void setManagerFeedback(String managerFeedback) { this.managerFeedback = managerFeedback; }
+
+    public String getRecommendations() { return recommendations; }
+    public void setRecommendations(String recommendations) { this.recommendations = recommendations; }
+}
@@ -1,6 +1,9 @@
 package com.ai.pat.backend.model;
 
+import com.ai.pat.backend.config.CacheRegions;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -8,6 +11,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "keqs")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.KEQ)
 public class Keq {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,8 +1,11 @@
 package com.ai.pat.backend.model;
 
+import com.ai.pat.backend.config.CacheRegions;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -13,6 +16,8 @@ import java.util.Set;
     @UniqueConstraint(columnNames = {"name"})
 })
 @NoArgsConstructor
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PROJECT)
 public class Project {
 
     @Id
@@ -34,6 +39,7 @@ public class Project {
         joinColumns = @JoinColumn(name = "project_id"),
         inverseJoinColumns = @JoinColumn(name = "user_id")
     )
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PROJECT_USERS)
     @JsonIgnore
     private Set<User> users = new HashSet<>();
 
@@ -1,8 +1,11 @@
 package com.ai.pat.backend.model;
 
+import com.ai.pat.backend.config.CacheRegions;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,6 +20,8 @@ import java.util.stream.Collectors;
 @Table(name = "users")
 @NoArgsConstructor
 @AllArgsConstructor
+// The entity itself stays out of the second-level cache so password hashes are never held there;
+// only the project assignment collections below (project ids) are cached
 public class User implements UserDetails {
     
     @Id
@@ -59,7 +64,9 @@ public class User implements UserDetails {
     @JsonManagedReference
     private Set<Evaluation> reviews = new HashSet<>();
 
+    // Inverse side: not updated by Hibernate when Project.users changes, see ReferenceDataCache
     @ManyToMany(mappedBy = "users", fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USER_PROJECTS)
     @JsonIgnore
     private Set<Project> projects = new HashSet<>();
 
@@ -70,6 +77,7 @@ public class User implements UserDetails {
         joinColumns = @JoinColumn(name = "manager_id"),
         inverseJoinColumns = @JoinColumn(name = "project_id")
     )
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USER_MANAGED_PROJECTS)
     @JsonIgnore
     private Set<Project> managedProjects = new HashSet<>();
     
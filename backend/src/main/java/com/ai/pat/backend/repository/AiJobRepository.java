@@ -0,0 +1,23 @@
+package com.ai.pat.backend.repository;
+
+import com.ai.pat.backend.entity.AiJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AiJobRepository extends JpaRepository<AiJob, Long> {
+
+    // The queued or running job for an identical request, if any (backed by a partial unique index)
+    default Optional<AiJob> findActive(String jobType, String requestHash) {
+        return findByStatuses(jobType, requestHash, List.of(AiJob.Status.PENDING, AiJob.Status.RUNNING));
+    }
+
+    @Query("SELECT j FROM AiJob j WHERE j.jobType = :jobType AND j.requestHash = :requestHash AND j.status IN :statuses")
+    Optional<AiJob> findByStatuses(@Param("jobType") String jobType, @Param("requestHash") String requestHash,
+                                   @Param("statuses") List<AiJob.Status> statuses);
+}
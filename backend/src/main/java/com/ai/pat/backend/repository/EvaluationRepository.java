@@ -3,22 +3,47 @@ package com.ai.pat.backend.repository;
 import com.ai.pat.backend.model.Evaluation;
 import com.ai.pat.backend.model.Project;
 import com.ai.pat.backend.model.User;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface EvaluationRepository extends JpaRepository<Evaluation, Long> {
+
+    // List queries fetch the to-one associations read by EvaluationDTO.fromEntity in the same
+    // statement; the rating maps are columns of the row and the free-text content is loaded in
+    // batches (see @BatchSize on EvaluationContent). Rows archived as duplicates of a period are
+    // left out of the lists, pages and exports; they are only returned when asked for by status.
+    @EntityGraph(attributePaths = {"employee", "reviewer", "project"})
+    @Override
+    List<Evaluation> findAll();
+
+    @EntityGraph(attributePaths = {"employee", "reviewer", "project"})
+    List<Evaluation> findByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = {"employee", "reviewer", "project"})
+    List<Evaluation> findByStatusNot(Evaluation.EvaluationStatus status);
+
+    @EntityGraph(attributePaths = {"employee", "reviewer", "project"})
+    List<Evaluation> findByEmployeeIdAndStatusNot(Long employeeId, Evaluation.EvaluationStatus status);
     
-    List<Evaluation> findByEmployeeId(Long employeeId);
-    
-    List<Evaluation> findByReviewerId(Long reviewerId);
+    @EntityGraph(attributePaths = {"employee", "reviewer", "project"})
+    List<Evaluation> findByReviewerIdAndStatusNot(Long reviewerId, Evaluation.EvaluationStatus status);
     
+    @EntityGraph(attributePaths = {"employee", "reviewer", "project"})
     List<Evaluation> findByStatus(Evaluation.EvaluationStatus status);
     
     @Query("SELECT e FROM Evaluation e WHERE e.employee.id = :userId OR e.reviewer.id = :userId")
@@ -30,13 +55,15 @@ public interface EvaluationRepository extends JpaRepository<Evaluation, Long> {
         @Param("endDate") LocalDateTime endDate
     );
     
-    @Query("SELECT e FROM Evaluation e WHERE e.employee.department = :department")
+    @EntityGraph(attributePaths = {"employee", "reviewer", "project"})
+    @Query("SELECT e FROM Evaluation e WHERE e.employee.department = :department AND e.status <> com.ai.pat.backend.model.Evaluation$EvaluationStatus.ARCHIVED")
     List<Evaluation> findByDepartment(@Param("department") String department);
     
-    @Query("SELECT DISTINCT e FROM Evaluation e LEFT JOIN FETCH e.managerCompetencyRatings WHERE e.id = :id")
-    Optional<Evaluation> findByIdWithManagerCompetencyRatings(@Param("id") Long id);
-
-    @Query("SELECT DISTINCT e FROM Evaluation e JOIN e.employee emp LEFT JOIN emp.projects ep WHERE ep IN :projects OR e.project IN :projects")
+    @EntityGraph(attributePaths = {"employee", "reviewer", "project"})
+    @Query("""
+            SELECT DISTINCT e FROM Evaluation e JOIN e.employee emp LEFT JOIN emp.projects ep
+            WHERE (ep IN :projects OR e.project IN :projects) AND e.status <> com.ai.pat.backend.model.Evaluation$EvaluationStatus.ARCHIVED
+            """)
     List<Evaluation> findByEmployeeProjectsOrEvaluationProjectIn(@Param("projects") List<Project> projects);
 
     boolean existsByEmployeeIdAndProjectIdAndEvaluationYearAndEvaluationMonth(
@@ -53,5 +80,52 @@ public interface EvaluationRepository extends JpaRepository<Evaluation, Long> {
             Integer evaluationMonth
     );
 
+    @EntityGraph(attributePaths = {"employee", "reviewer", "project"})
     java.util.List<Evaluation> findByEmployeeEmail(String employeeEmail);
+
+    // Keyset pagination: pass the last id of the previous page (0 for the first page) and a
+    // Pageable that only carries the page size, so the database never has to skip rows.
+    @EntityGraph(attributePaths = {"employee", "reviewer", "project"})
+    @Query("SELECT e FROM Evaluation e WHERE e.id > :afterId AND e.status <> com.ai.pat.backend.model.Evaluation$EvaluationStatus.ARCHIVED ORDER BY e.id")
+    List<Evaluation> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"employee", "reviewer", "project"})
+    @Query("SELECT e FROM Evaluation e WHERE e.status = :status AND e.id > :afterId ORDER BY e.id")
+    List<Evaluation> findPageByStatusAfter(@Param("status") Evaluation.EvaluationStatus status,
+                                           @Param("afterId") Long afterId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"employee", "reviewer", "project"})
+    @Query("""
+            SELECT e FROM Evaluation e
+            WHERE e.employee.department = :department AND e.id > :afterId AND e.status <> com.ai.pat.backend.model.Evaluation$EvaluationStatus.ARCHIVED
+            ORDER BY e.id
+            """)
+    List<Evaluation> findPageByDepartmentAfter(@Param("department") String department,
+                                               @Param("afterId") Long afterId, Pageable pageable);
+
+    // Cursor-backed streams for exports; must be consumed inside a transaction and closed.
+    // The content row and the people/project named in each line are joined in: exports carry the
+    // free text and entities are detached one by one, so nothing may be left to load lazily.
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("""
+            SELECT e FROM Evaluation e JOIN FETCH e.content JOIN FETCH e.employee
+            LEFT JOIN FETCH e.reviewer LEFT JOIN FETCH e.project
+            WHERE e.status <> com.ai.pat.backend.model.Evaluation$EvaluationStatus.ARCHIVED ORDER BY e.id
+            """)
+    Stream<Evaluation> streamAll();
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("""
+            SELECT e FROM Evaluation e JOIN FETCH e.content JOIN FETCH e.employee
+            LEFT JOIN FETCH e.reviewer LEFT JOIN FETCH e.project WHERE e.status = :status ORDER BY e.id
+            """)
+    Stream<Evaluation> streamByStatus(@Param("status") Evaluation.EvaluationStatus status);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("""
+            SELECT e FROM Evaluation e JOIN FETCH e.content JOIN FETCH e.employee emp
+            LEFT JOIN FETCH e.reviewer LEFT JOIN FETCH e.project
+            WHERE emp.department = :department AND e.status <> com.ai.pat.backend.model.Evaluation$EvaluationStatus.ARCHIVED ORDER BY e.id
+            """)
+    Stream<Evaluation> streamByDepartment(@Param("department") String department);
 }
@@ -1,10 +1,23 @@
 package com.ai.pat.backend.repository;
 
+import com.ai.pat.backend.config.CacheRegions;
 import com.ai.pat.backend.model.Keq;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface KeqRepository extends JpaRepository<Keq, Long> {
     boolean existsByCategoryIgnoreCase(String category);
+
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.QUERY_KEQS)
+    })
+    List<Keq> findAll();
 }
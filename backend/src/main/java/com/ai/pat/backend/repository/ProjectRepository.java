@@ -1,13 +1,25 @@
 package com.ai.pat.backend.repository;
 
+import com.ai.pat.backend.config.CacheRegions;
 import com.ai.pat.backend.model.Project;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long> {
     Optional<Project> findByName(String name);
     boolean existsByName(String name);
+
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.QUERY_PROJECTS_BY_ID)
+    })
+    List<Project> findAllById(Iterable<Long> ids);
 }
@@ -1,9 +1,13 @@
 package com.ai.pat.backend.repository;
 
+import com.ai.pat.backend.config.CacheRegions;
 import com.ai.pat.backend.model.Project;
 import com.ai.pat.backend.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -38,8 +42,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT DISTINCT u FROM User u JOIN u.managedProjects mp WHERE mp IN :projects")
     List<User> findManagersByManagedProjects(@Param("projects") List<Project> projects);
 
-    @Query("SELECT DISTINCT u FROM User u JOIN u.managedProjects mp WHERE mp.id IN :projectIds")
-    List<User> findManagersByManagedProjectIds(@Param("projectIds") List<Long> projectIds);
+    // Ids only: a cached query would otherwise hold whole user rows, password hashes included
+    @Query("SELECT DISTINCT u.id FROM User u JOIN u.managedProjects mp WHERE mp.id IN :projectIds")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.QUERY_MANAGERS_BY_PROJECT)
+    })
+    List<Long> findManagerIdsByManagedProjectIds(@Param("projectIds") List<Long> projectIds);
 
     // Fallbacks to identify managers when roles are not persisted
     @Query("SELECT DISTINCT u FROM User u JOIN u.managedProjects mp")
@@ -1,7 +1,5 @@
 package com.ai.pat.backend.security;
 
-import com.ai.pat.backend.model.User;
-import com.ai.pat.backend.repository.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,17 +15,16 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 
 @Component
 @Order(10)
 public class ForcePasswordChangeFilter extends OncePerRequestFilter {
 
-    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
     private final AntPathMatcher pathMatcher = new AntPathMatcher();
 
-    public ForcePasswordChangeFilter(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public ForcePasswordChangeFilter(PrincipalCache principalCache) {
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -66,21 +63,17 @@ public class ForcePasswordChangeFilter extends OncePerRequestFilter {
             return;
         }
 
-        Optional<User> userOpt = Optional.empty();
+        Optional<PrincipalCache.CachedPrincipal> principalOpt = Optional.empty();
         try {
-            userOpt = userRepository.findByUsername(userKey);
-            if (userOpt.isEmpty()) {
-                userOpt = userRepository.findByEmail(userKey);
-            }
+            principalOpt = principalCache.resolve(userKey);
         } catch (Exception ignore) {}
 
-        if (userOpt.isEmpty()) {
+        if (principalOpt.isEmpty()) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        Set<String> roles = userOpt.get().getRoles();
-        if (roles != null && roles.contains("FORCE_PASSWORD_CHANGE")) {
+        if (principalOpt.get().forcePasswordChange()) {
             // Block everything except whitelisted paths
             response.setStatus(HttpServletResponse.SC_FORBIDDEN);
             response.setCharacterEncoding(StandardCharsets.UTF_8.name());
@@ -0,0 +1,113 @@
+package com.ai.pat.backend.security;
+
+import com.ai.pat.backend.model.User;
+import com.ai.pat.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Maps the caller key (X-User header or authentication name, i.e. username or email) to the
+ * user id, roles and force-password-change flag, so identifying the caller does not hit the
+ * database on every request. Bounded LRU with a per-entry TTL; unknown keys are not cached.
+ */
+@Component
+public class PrincipalCache {
+
+    private final UserRepository userRepository;
+    private final long ttlMillis;
+    private final int maxSize;
+    private final LinkedHashMap<String, Entry> entries;
+
+    public PrincipalCache(UserRepository userRepository,
+                          @Value("${app.principal-cache.ttl-seconds:300}") long ttlSeconds,
+                          @Value("${app.principal-cache.max-size:10000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.ttlMillis = ttlSeconds * 1000L;
+        this.maxSize = Math.max(1, maxSize);
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > PrincipalCache.this.maxSize;
+            }
+        };
+    }
+
+    public Optional<CachedPrincipal> resolve(String key) {
+        if (key == null || key.isBlank()) return Optional.empty();
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry e = entries.get(key);
+            if (e != null) {
+                if (e.expiresAt > now) return Optional.of(e.principal);
+                entries.remove(key);
+            }
+        }
+        Optional<CachedPrincipal> loaded = userRepository.findByUsername(key)
+                .or(() -> userRepository.findByEmail(key))
+                .map(CachedPrincipal::of);
+        loaded.ifPresent(p -> {
+            synchronized (entries) {
+                entries.put(key, new Entry(p, now + ttlMillis));
+            }
+        });
+        return loaded;
+    }
+
+    public Optional<Long> resolveUserId(String key) {
+        return resolve(key).map(CachedPrincipal::userId);
+    }
+
+    /**
+     * Drops every key that resolves to the given user. When called inside a transaction the
+     * entries are dropped again after commit, so a concurrent request cannot re-cache old values.
+     */
+    public void evict(Long userId) {
+        if (userId == null) return;
+        Runnable drop = () -> {
+            synchronized (entries) {
+                entries.values().removeIf(e -> userId.equals(e.principal.userId()));
+            }
+        };
+        drop.run();
+        afterCommit(drop);
+    }
+
+    public void evictAll() {
+        Runnable drop = () -> {
+            synchronized (entries) {
+                entries.clear();
+            }
+        };
+        drop.run();
+        afterCommit(drop);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private record Entry(CachedPrincipal principal, long expiresAt) {}
+
+    public record CachedPrincipal(Long userId, String username, String email, Set<String> roles,
+                                  boolean forcePasswordChange) {
+        static CachedPrincipal of(User user) {
+            Set<String> roles = user.getRoles() != null ? Set.copyOf(user.getRoles()) : Set.of();
+            return new CachedPrincipal(user.getId(), user.getUsername(), user.getEmail(), roles,
+                    roles.contains("FORCE_PASSWORD_CHANGE"));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.ai.pat.backend.service;
+
+import com.ai.pat.backend.controller.dto.ai.EvaluateBatchItem;
+import com.ai.pat.backend.controller.dto.ai.EvaluateRequest;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs many {@link AiService#evaluate} calls in parallel and hands each result to the caller as
+ * soon as it completes. A shared, fixed-size pool caps how many provider calls are in flight
+ * across all batches; a failing item is reported with a heuristic summary instead of failing
+ * the whole batch.
+ */
+@Service
+public class AiBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(AiBatchService.class);
+
+    private final AiService aiService;
+    private final ExecutorService executor;
+    private final int maxItems;
+
+    public AiBatchService(AiService aiService,
+                          @Value("${ai.batch.max-concurrency:8}") int maxConcurrency,
+                          @Value("${ai.batch.max-items:200}") int maxItems) {
+        this.aiService = aiService;
+        this.maxItems = maxItems;
+        int threads = Math.max(1, maxConcurrency);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "ai-batch-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    public int getMaxItems() {
+        return maxItems;
+    }
+
+    /**
+     * Evaluates every request and calls {@code onResult} on the calling thread, in completion
+     * order. If {@code onResult} throws (e.g. the client went away) the remaining items are cancelled.
+     */
+    public void evaluateBatch(List<EvaluateRequest> requests, Consumer<EvaluateBatchItem> onResult) {
+        if (requests == null || requests.isEmpty()) return;
+        if (requests.size() > maxItems) {
+            throw new IllegalArgumentException("A batch may contain at most " + maxItems + " requests");
+        }
+
+        CompletionService<EvaluateBatchItem> completion = new ExecutorCompletionService<>(executor);
+        List<Future<EvaluateBatchItem>> futures = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            final int index = i;
+            final EvaluateRequest req = requests.get(i);
+            futures.add(completion.submit(() -> evaluateOne(index, req)));
+        }
+
+        try {
+            for (int done = 0; done < futures.size(); done++) {
+                Future<EvaluateBatchItem> f = completion.take();
+                EvaluateBatchItem item;
+                try {
+                    item = f.get();
+                } catch (ExecutionException ex) {
+                    // evaluateOne catches everything; only reached on Errors
+                    log.warn("AI batch item failed unexpectedly: {}", ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage());
+                    continue;
+                }
+                onResult.accept(item);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            futures.forEach(f -> f.cancel(true));
+        } catch (RuntimeException ex) {
+            futures.forEach(f -> f.cancel(true));
+            throw ex;
+        }
+    }
+
+    private EvaluateBatchItem evaluateOne(int index, EvaluateRequest req) {
+        String name = req != null ? req.getEmployeeName() : null;
+        try {
+            return new EvaluateBatchItem(index, name, false, aiService.evaluate(req), null);
+        } catch (Exception ex) {
+            log.warn("AI evaluation for batch item {} failed, using heuristic summary: {}", index, ex.getMessage());
+            Map<String, Object> result = new HashMap<>();
+            result.put("summary", AiService.naiveSummarize(combinedText(req), 2, 60));
+            return new EvaluateBatchItem(index, name, true, result, ex.getMessage());
+        }
+    }
+
+    private static String combinedText(EvaluateRequest req) {
+        if (req == null) return "";
+        List<String> texts = new ArrayList<>();
+        if (req.getSelfText() != null) texts.add(req.getSelfText());
+        if (req.getManagerText() != null) texts.add(req.getManagerText());
+        if (req.getPeerTexts() != null) texts.addAll(req.getPeerTexts());
+        return String.join("\n\n", texts);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
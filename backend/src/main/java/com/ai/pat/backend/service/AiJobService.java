@@ -0,0 +1,296 @@
+package com.ai.pat.backend.service;
+
+import com.ai.pat.backend.controller.dto.ai.DraftEvaluationRequest;
+import com.ai.pat.backend.controller.dto.ai.DraftEvaluationResponse;
+import com.ai.pat.backend.entity.AiJob;
+import com.ai.pat.backend.repository.AiJobRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Postgres-backed queue for AI work that should not hold an HTTP request open. Callers submit a
+ * job and poll it by id; a bounded worker pool on every instance claims due jobs with
+ * {@code FOR UPDATE SKIP LOCKED} and holds them under a time-limited lease. A job whose lease
+ * expires (the instance died or restarted mid-call) is put back in the queue, failed attempts are
+ * retried with exponential backoff, and identical requests that are still queued or running share
+ * one job.
+ */
+@Service
+public class AiJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(AiJobService.class);
+
+    public static final String DRAFT_EVALUATION = "draft_evaluation";
+
+    // Marks up to ? due jobs as running for this worker; concurrent workers skip each other's rows
+    private static final String CLAIM_SQL = """
+            UPDATE ai_jobs
+            SET status = 'RUNNING', locked_by = ?, locked_until = ?, attempts = attempts + 1,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE id IN (SELECT id FROM ai_jobs
+                         WHERE status = 'PENDING' AND run_after <= CURRENT_TIMESTAMP
+                         ORDER BY run_after, id
+                         LIMIT ?
+                         FOR UPDATE SKIP LOCKED)
+            RETURNING id
+            """;
+
+    // A job that keeps outliving its lease (e.g. it crashes the instance) eventually fails
+    private static final String RECOVER_SQL = """
+            UPDATE ai_jobs
+            SET status = CASE WHEN attempts >= max_attempts THEN 'FAILED' ELSE 'PENDING' END,
+                completed_at = CASE WHEN attempts >= max_attempts THEN CURRENT_TIMESTAMP END,
+                locked_by = NULL, locked_until = NULL, run_after = CURRENT_TIMESTAMP,
+                last_error = 'Lease expired', updated_at = CURRENT_TIMESTAMP
+            WHERE status = 'RUNNING' AND locked_until < CURRENT_TIMESTAMP
+            """;
+
+    // All state transitions are guarded by the lease so a worker that lost it cannot overwrite
+    private static final String SUCCEED_SQL = """
+            UPDATE ai_jobs
+            SET status = 'SUCCEEDED', result = ?, fallback = ?, last_error = ?, locked_by = NULL,
+                locked_until = NULL, completed_at = CURRENT_TIMESTAMP, updated_at = CURRENT_TIMESTAMP
+            WHERE id = ? AND status = 'RUNNING' AND locked_by = ?
+            """;
+
+    private static final String RETRY_SQL = """
+            UPDATE ai_jobs
+            SET status = 'PENDING', last_error = ?, run_after = ?, locked_by = NULL, locked_until = NULL,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE id = ? AND status = 'RUNNING' AND locked_by = ?
+            """;
+
+    private static final String FAIL_SQL = """
+            UPDATE ai_jobs
+            SET status = 'FAILED', last_error = ?, locked_by = NULL, locked_until = NULL,
+                completed_at = CURRENT_TIMESTAMP, updated_at = CURRENT_TIMESTAMP
+            WHERE id = ? AND status = 'RUNNING' AND locked_by = ?
+            """;
+
+    private final AiJobRepository aiJobRepository;
+    private final AiService aiService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper canonicalMapper;
+    private final ExecutorService executor;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final String workerId;
+    private final int workers;
+
+    @Value("${ai.jobs.worker-enabled:true}")
+    private boolean workerEnabled;
+
+    @Value("${ai.jobs.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${ai.jobs.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${ai.jobs.backoff-initial-ms:2000}")
+    private long backoffInitialMs;
+
+    @Value("${ai.jobs.backoff-max-ms:300000}")
+    private long backoffMaxMs;
+
+    public AiJobService(AiJobRepository aiJobRepository,
+                        AiService aiService,
+                        JdbcTemplate jdbcTemplate,
+                        ObjectMapper objectMapper,
+                        @Value("${ai.jobs.workers:4}") int workers) {
+        this.aiJobRepository = aiJobRepository;
+        this.aiService = aiService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        // Stable key order so equal requests hash equally regardless of map iteration order
+        this.canonicalMapper = objectMapper.copy().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+        this.workers = Math.max(1, workers);
+        String host = hostName();
+        this.workerId = (host.length() > 80 ? host.substring(0, 80) : host) + "-" + UUID.randomUUID().toString().substring(0, 8);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(this.workers, this.workers, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "ai-job-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Unfinished jobs keep their lease and are picked up again once it expires
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues a draft evaluation, or returns the queued/running job for an identical request of
+     * the same user. Returns immediately; the draft is produced by the worker pool.
+     */
+    public AiJob submitDraftEvaluation(DraftEvaluationRequest req, Long userId) {
+        String payload;
+        String requestHash;
+        try {
+            payload = objectMapper.writeValueAsString(req);
+            requestHash = sha256(userId + "\n" + canonicalMapper.writeValueAsString(req));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Invalid draft evaluation request", ex);
+        }
+
+        Optional<AiJob> existing = aiJobRepository.findActive(DRAFT_EVALUATION, requestHash);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        AiJob job = new AiJob();
+        job.setJobType(DRAFT_EVALUATION);
+        job.setRequestHash(requestHash);
+        job.setPayload(payload);
+        job.setMaxAttempts(Math.max(1, maxAttempts));
+        job.setCreatedBy(userId);
+        try {
+            return aiJobRepository.saveAndFlush(job);
+        } catch (DataIntegrityViolationException ex) {
+            // Lost the race against an identical submission
+            return aiJobRepository.findActive(DRAFT_EVALUATION, requestHash).orElseThrow(() -> ex);
+        }
+    }
+
+    public Optional<AiJob> findJob(Long id) {
+        return aiJobRepository.findById(id);
+    }
+
+    public DraftEvaluationResponse readDraftResult(AiJob job) {
+        if (job.getResult() == null) return null;
+        try {
+            return objectMapper.readValue(job.getResult(), DraftEvaluationResponse.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored result of AI job " + job.getId() + " is not readable", ex);
+        }
+    }
+
+    // Jobs left running by an instance that stopped are queued again right away on startup
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOnStartup() {
+        if (workerEnabled) recoverExpiredLeases();
+    }
+
+    @Scheduled(fixedDelayString = "${ai.jobs.poll-interval-ms:1000}", initialDelayString = "${ai.jobs.poll-interval-ms:1000}")
+    public void poll() {
+        if (!workerEnabled) return;
+        try {
+            recoverExpiredLeases();
+            int free = workers - inFlight.get();
+            if (free <= 0) return;
+            LocalDateTime leaseUntil = LocalDateTime.now().plusSeconds(leaseSeconds);
+            List<Long> claimed = jdbcTemplate.queryForList(CLAIM_SQL, Long.class,
+                    workerId, Timestamp.valueOf(leaseUntil), free);
+            for (Long id : claimed) {
+                inFlight.incrementAndGet();
+                executor.execute(() -> {
+                    try {
+                        process(id);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+        } catch (Exception ex) {
+            log.warn("AI job poll failed: {}", ex.getMessage());
+        }
+    }
+
+    int recoverExpiredLeases() {
+        int recovered = jdbcTemplate.update(RECOVER_SQL);
+        if (recovered > 0) {
+            log.info("Re-queued {} AI job(s) with an expired lease", recovered);
+        }
+        return recovered;
+    }
+
+    private void process(Long id) {
+        AiJob job = aiJobRepository.findById(id).orElse(null);
+        if (job == null) return;
+        try {
+            DraftEvaluationRequest req = objectMapper.readValue(job.getPayload(), DraftEvaluationRequest.class);
+            try {
+                DraftEvaluationResponse result = aiService.requestDraft(req);
+                complete(job, result, false, null);
+            } catch (Exception ex) {
+                if (job.getAttempts() < job.getMaxAttempts()) {
+                    LocalDateTime runAfter = LocalDateTime.now().plusNanos(backoffMs(job.getAttempts()) * 1_000_000L);
+                    jdbcTemplate.update(RETRY_SQL, message(ex), Timestamp.valueOf(runAfter), id, workerId);
+                    log.debug("AI job {} attempt {} failed, retrying at {}: {}", id, job.getAttempts(), runAfter, message(ex));
+                } else {
+                    // Out of attempts: answer like the synchronous endpoint does when the provider is down
+                    log.warn("AI job {} failed after {} attempts, using heuristic draft: {}", id, job.getAttempts(), message(ex));
+                    complete(job, aiService.heuristicDraft(req), true, message(ex));
+                }
+            }
+        } catch (Exception ex) {
+            log.error("AI job {} failed permanently: {}", id, message(ex));
+            jdbcTemplate.update(FAIL_SQL, message(ex), id, workerId);
+        }
+    }
+
+    private void complete(AiJob job, DraftEvaluationResponse result, boolean fallback, String error) throws JsonProcessingException {
+        int updated = jdbcTemplate.update(SUCCEED_SQL, objectMapper.writeValueAsString(result), fallback, error,
+                job.getId(), workerId);
+        if (updated == 0) {
+            log.info("AI job {} finished after its lease was taken over; result discarded", job.getId());
+        }
+    }
+
+    // Exponential backoff with jitter: random in [cap/2, cap], cap = min(max, initial * 2^(attempt-1))
+    long backoffMs(int attempt) {
+        long cap = backoffInitialMs << Math.min(Math.max(attempt - 1, 0), 20);
+        cap = Math.min(Math.max(cap, 1), backoffMaxMs);
+        return ThreadLocalRandom.current().nextLong(cap / 2, cap + 1);
+    }
+
+    private static String message(Exception ex) {
+        return ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception ex) {
+            return "worker";
+        }
+    }
+}
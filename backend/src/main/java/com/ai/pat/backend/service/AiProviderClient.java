@@ -0,0 +1,473 @@
+package com.ai.pat.backend.service;
+
+import com.ai.pat.backend.exception.AiProviderUnavailableException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * HTTP client for the AI provider's {@code /v1/chat} endpoint. Uses one shared JDK HttpClient
+ * (keep-alive connection pool) with connect/read timeouts, caps concurrent calls with a
+ * semaphore and trips a circuit breaker after consecutive failures. While the breaker is open,
+ * or the bulkhead is full, calls fail fast with {@link AiProviderUnavailableException}.
+ * Latency is recorded in {@code ai.provider.latency} by task and outcome.
+ *
+ * {@link #chatStream} asks for a Server-Sent Events reply and hands each token to the caller as
+ * it arrives; it is subject to the same bulkhead and breaker, and the read timeout also applies
+ * between chunks of the body.
+ */
+@Component
+public class AiProviderClient {
+
+    private static final Logger log = LoggerFactory.getLogger(AiProviderClient.class);
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() {};
+
+    private final String apiUrl;
+    private final String apiKey;
+    private final RestTemplate restTemplate;
+    private final HttpClient httpClient;
+    private final Duration readTimeout;
+    private final Semaphore bulkhead;
+    private final long acquireTimeoutMillis;
+    private final CircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+    // Closes stream bodies that went quiet for longer than the read timeout
+    private final ScheduledThreadPoolExecutor idleWatchdog;
+
+    @Autowired
+    public AiProviderClient(MeterRegistry meterRegistry,
+                            @Value("${ai.windsurf.api-url:https://api.windsurf.ai}") String apiUrl,
+                            @Value("${ai.windsurf.api-key:}") String apiKey,
+                            @Value("${ai.provider.connect-timeout-ms:2000}") long connectTimeoutMillis,
+                            @Value("${ai.provider.read-timeout-ms:15000}") long readTimeoutMillis,
+                            @Value("${ai.provider.max-concurrent-calls:16}") int maxConcurrentCalls,
+                            @Value("${ai.provider.acquire-timeout-ms:250}") long acquireTimeoutMillis,
+                            @Value("${ai.provider.breaker.failure-threshold:5}") int failureThreshold,
+                            @Value("${ai.provider.breaker.open-ms:30000}") long openMillis) {
+        this.meterRegistry = meterRegistry;
+        this.apiUrl = apiUrl;
+        this.apiKey = apiKey;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.bulkhead = new Semaphore(Math.max(1, maxConcurrentCalls), true);
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openMillis);
+
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        this.readTimeout = Duration.ofMillis(readTimeoutMillis);
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        this.restTemplate = new RestTemplate(requestFactory);
+
+        this.idleWatchdog = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "ai-stream-idle-watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+        // Armed around every read: don't let the cancelled checks pile up in the queue
+        idleWatchdog.setRemoveOnCancelPolicy(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        idleWatchdog.shutdownNow();
+    }
+
+    public boolean isConfigured() {
+        return apiKey != null && !apiKey.isBlank();
+    }
+
+    public String getApiUrl() {
+        return apiUrl;
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.state();
+    }
+
+    /**
+     * POSTs {@code body} to the provider chat endpoint and returns the decoded JSON object.
+     *
+     * @throws AiProviderUnavailableException when the breaker is open or the bulkhead is full
+     * @throws RestClientException on HTTP/transport errors and timeouts
+     */
+    public Map<String, Object> chat(String task, Map<String, Object> body) {
+        acquire(task);
+
+        long start = System.nanoTime();
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setBearerAuth(apiKey);
+            ResponseEntity<Map<String, Object>> resp = restTemplate.exchange(
+                    apiUrl.replaceAll("/$", "") + "/v1/chat",
+                    HttpMethod.POST,
+                    new HttpEntity<>(body, headers),
+                    new ParameterizedTypeReference<Map<String, Object>>() {}
+            );
+            Map<String, Object> respBody = resp.getBody();
+            if (!resp.getStatusCode().is2xxSuccessful() || respBody == null) {
+                throw new RestClientException("Non-200 from AI API");
+            }
+            circuitBreaker.onSuccess();
+            record(task, "success", System.nanoTime() - start);
+            return respBody;
+        } catch (RuntimeException ex) {
+            circuitBreaker.onFailure();
+            record(task, "error", System.nanoTime() - start);
+            log.warn("AI provider call for {} failed: {}", task, ex.getMessage());
+            throw ex;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * Streaming variant of {@link #chat}: POSTs {@code body} with {@code stream=true}, calls
+     * {@code onToken} for every text delta of the provider's SSE reply and returns the whole text.
+     * Completing {@code cancel} (e.g. the browser went away) closes the provider connection; the
+     * call then returns what was received so far. A provider that answers with plain JSON instead
+     * of an event stream is handled as a single token. The read timeout bounds the wait for the
+     * response headers and then every gap between chunks: a provider that stalls mid-stream has
+     * its connection closed and the call fails like any other provider error.
+     *
+     * @throws AiProviderUnavailableException when the breaker is open or the bulkhead is full
+     * @throws RestClientException on HTTP/transport errors and timeouts
+     */
+    public String chatStream(String task, Map<String, Object> body, Consumer<String> onToken,
+                             CompletableFuture<Void> cancel) {
+        acquire(task);
+
+        long start = System.nanoTime();
+        StringBuilder text = new StringBuilder();
+        try {
+            Map<String, Object> streamBody = new HashMap<>(body);
+            streamBody.put("stream", true);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(apiUrl.replaceAll("/$", "") + "/v1/chat"))
+                    .timeout(readTimeout)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE + ", " + MediaType.APPLICATION_JSON_VALUE)
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(JSON.writeValueAsBytes(streamBody)))
+                    .build();
+            HttpResponse<InputStream> resp = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (IdleTimeout idle = new IdleTimeout(resp.body()); InputStream in = idle.body()) {
+                if (resp.statusCode() < 200 || resp.statusCode() >= 300) {
+                    throw new RestClientException("Non-200 from AI API: " + resp.statusCode());
+                }
+                // Closing the body from the cancelling thread unblocks the read below
+                cancel.whenComplete((v, ex) -> closeQuietly(in));
+                String contentType = resp.headers().firstValue(HttpHeaders.CONTENT_TYPE).orElse("");
+                if (contentType.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE)) {
+                    readEvents(in, text, onToken, cancel);
+                } else {
+                    String token = extractText(JSON.readValue(in, JSON_OBJECT));
+                    if (token != null && !cancel.isDone()) {
+                        text.append(token);
+                        onToken.accept(token);
+                    }
+                }
+            }
+            circuitBreaker.onSuccess();
+            record(task, "success", System.nanoTime() - start);
+            return text.toString();
+        } catch (StreamStalledException ex) {
+            circuitBreaker.onFailure();
+            record(task, "timeout", System.nanoTime() - start);
+            log.warn("AI provider stream for {} stalled: {}", task, ex.getMessage());
+            throw new RestClientException("AI provider stream stalled: " + ex.getMessage(), ex);
+        } catch (IOException ex) {
+            if (cancel.isDone()) {
+                // The connection was closed on purpose; not a provider failure
+                circuitBreaker.releasePermission();
+                record(task, "cancelled", System.nanoTime() - start);
+                return text.toString();
+            }
+            circuitBreaker.onFailure();
+            record(task, "error", System.nanoTime() - start);
+            log.warn("AI provider stream for {} failed: {}", task, ex.getMessage());
+            throw new RestClientException("AI provider stream failed: " + ex.getMessage(), ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            circuitBreaker.releasePermission();
+            record(task, "cancelled", System.nanoTime() - start);
+            return text.toString();
+        } catch (RuntimeException ex) {
+            circuitBreaker.onFailure();
+            record(task, "error", System.nanoTime() - start);
+            log.warn("AI provider stream for {} failed: {}", task, ex.getMessage());
+            throw ex;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private static void readEvents(InputStream in, StringBuilder text, Consumer<String> onToken,
+                                   CompletableFuture<Void> cancel) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        StringBuilder data = new StringBuilder();
+        String line;
+        while (!cancel.isDone() && (line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                // Blank line dispatches the event
+                if (data.length() == 0) continue;
+                String payload = data.toString();
+                data.setLength(0);
+                if ("[DONE]".equals(payload.strip())) return;
+                String token = parseEventData(payload);
+                if (token != null && !token.isEmpty()) {
+                    text.append(token);
+                    onToken.accept(token);
+                }
+            } else if (line.startsWith("data:")) {
+                if (data.length() > 0) data.append('\n');
+                data.append(line.startsWith("data: ") ? line.substring(6) : line.substring(5));
+            }
+            // event:, id:, retry: and comments carry nothing we use
+        }
+    }
+
+    private static String parseEventData(String payload) {
+        String trimmed = payload.strip();
+        if (!trimmed.startsWith("{")) return payload;
+        try {
+            return extractText(JSON.readValue(trimmed, JSON_OBJECT));
+        } catch (JsonProcessingException ex) {
+            return payload;
+        }
+    }
+
+    /**
+     * Text of a reply or stream chunk: {@code delta} / {@code reply}, or OpenAI-style
+     * {@code choices[0].delta.content} / {@code choices[0].message.content}.
+     */
+    static String extractText(Map<?, ?> obj) {
+        if (obj == null) return null;
+        if (obj.get("delta") instanceof String s) return s;
+        if (obj.get("reply") instanceof String s) return s;
+        if (obj.get("choices") instanceof List<?> list && !list.isEmpty() && list.get(0) instanceof Map<?, ?> choice) {
+            for (String key : new String[] {"delta", "message"}) {
+                if (choice.get(key) instanceof Map<?, ?> m && m.get("content") instanceof String content) {
+                    return content;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The response body, closed from the watchdog thread when a read waits longer than the read
+     * timeout for bytes. Only time spent blocked in a read counts, not time spent in the caller's
+     * token handler. A read failing after that close is reported as {@link StreamStalledException}
+     * rather than as a plain transport error.
+     */
+    private final class IdleTimeout implements AutoCloseable {
+
+        private final InputStream raw;
+        private final InputStream body;
+        private volatile boolean expired;
+        private ScheduledFuture<?> check;
+
+        IdleTimeout(InputStream raw) {
+            this.raw = raw;
+            this.body = new FilterInputStream(raw) {
+                @Override
+                public int read() throws IOException {
+                    return timed(super::read);
+                }
+
+                @Override
+                public int read(byte[] buf, int off, int len) throws IOException {
+                    return timed(() -> super.read(buf, off, len));
+                }
+            };
+        }
+
+        InputStream body() {
+            return body;
+        }
+
+        private int timed(IoRead read) throws IOException {
+            arm();
+            try {
+                return read.read();
+            } catch (IOException ex) {
+                if (expired) throw new StreamStalledException(readTimeout, ex);
+                throw ex;
+            } finally {
+                disarm();
+            }
+        }
+
+        private synchronized void arm() {
+            if (idleWatchdog.isShutdown()) return;
+            check = idleWatchdog.schedule(() -> {
+                expired = true;
+                closeQuietly(raw);
+            }, readTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        private synchronized void disarm() {
+            if (check != null) check.cancel(false);
+            check = null;
+        }
+
+        @Override
+        public void close() {
+            disarm();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IoRead {
+        int read() throws IOException;
+    }
+
+    private static final class StreamStalledException extends IOException {
+        StreamStalledException(Duration idle, IOException cause) {
+            super("no data for " + idle.toMillis() + " ms", cause);
+        }
+    }
+
+    private static void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException | UncheckedIOException ignore) {
+            // already closed
+        }
+    }
+
+    // Breaker permission plus a bulkhead slot; both are released by the caller's finally/catch
+    private void acquire(String task) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            record(task, "short_circuited", 0L);
+            throw new AiProviderUnavailableException("AI provider circuit is open");
+        }
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            circuitBreaker.releasePermission();
+            throw new AiProviderUnavailableException("Interrupted while waiting for an AI provider slot");
+        }
+        if (!acquired) {
+            circuitBreaker.releasePermission();
+            record(task, "rejected", 0L);
+            throw new AiProviderUnavailableException("Too many concurrent AI provider calls");
+        }
+    }
+
+    private void record(String task, String outcome, long nanos) {
+        Timer.builder("ai.provider.latency")
+                .description("AI provider call latency")
+                .tag("task", task)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Consecutive-failure circuit breaker. CLOSED lets calls through; after {@code failureThreshold}
+     * failures in a row it goes OPEN and rejects calls for {@code openMillis}; then HALF_OPEN lets a
+     * single trial call through, whose outcome closes or re-opens the circuit.
+     */
+    static final class CircuitBreaker {
+
+        enum State { CLOSED, OPEN, HALF_OPEN }
+
+        private final int failureThreshold;
+        private final long openMillis;
+        private State state = State.CLOSED;
+        private int consecutiveFailures;
+        private long openedAt;
+        private boolean trialInFlight;
+
+        CircuitBreaker(int failureThreshold, long openMillis) {
+            this.failureThreshold = Math.max(1, failureThreshold);
+            this.openMillis = openMillis;
+        }
+
+        synchronized State state() {
+            if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openMillis) {
+                state = State.HALF_OPEN;
+            }
+            return state;
+        }
+
+        synchronized boolean tryAcquirePermission() {
+            switch (state()) {
+                case CLOSED:
+                    return true;
+                case HALF_OPEN:
+                    if (trialInFlight) return false;
+                    trialInFlight = true;
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        // Called when a permitted call was never attempted
+        synchronized void releasePermission() {
+            trialInFlight = false;
+        }
+
+        synchronized void onSuccess() {
+            consecutiveFailures = 0;
+            trialInFlight = false;
+            state = State.CLOSED;
+        }
+
+        synchronized void onFailure() {
+            trialInFlight = false;
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+                state = State.OPEN;
+                openedAt = System.currentTimeMillis();
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.ai.pat.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Content-addressed cache for AI provider replies. Entries are keyed by a SHA-256 of the task,
+ * the whitespace-normalised input and the token limit, so identical prompts are answered
+ * locally. Memory tier is an LRU bounded by entry count and age; when {@code ai.cache.dir} is
+ * set, replies are also written there and survive restarts. Only provider replies are cached,
+ * never the heuristic fallbacks.
+ */
+@Component
+public class AiResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(AiResponseCache.class);
+
+    private final MeterRegistry meterRegistry;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Path diskDir;
+    private final LinkedHashMap<String, Entry> memory;
+
+    public AiResponseCache(MeterRegistry meterRegistry,
+                           @Value("${ai.cache.max-entries:1000}") int maxEntries,
+                           @Value("${ai.cache.ttl-minutes:1440}") long ttlMinutes,
+                           @Value("${ai.cache.dir:}") String dir) {
+        this.meterRegistry = meterRegistry;
+        this.maxEntries = Math.max(0, maxEntries);
+        this.ttlMillis = ttlMinutes * 60_000L;
+        this.diskDir = initDiskDir(dir);
+        this.memory = new LinkedHashMap<>(128, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > AiResponseCache.this.maxEntries;
+            }
+        };
+    }
+
+    private static Path initDiskDir(String dir) {
+        if (dir == null || dir.isBlank()) return null;
+        try {
+            return Files.createDirectories(Path.of(dir));
+        } catch (IOException ex) {
+            log.warn("AI cache directory {} is not usable, disk tier disabled: {}", dir, ex.getMessage());
+            return null;
+        }
+    }
+
+    public String key(String task, String input, Integer maxTokens) {
+        String normalized = input == null ? "" : input.strip().replaceAll("\\s+", " ");
+        String material = task + '\u0000' + normalized + '\u0000' + (maxTokens != null ? maxTokens : "");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(material.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    public Optional<String> get(String task, String key) {
+        long now = System.currentTimeMillis();
+        synchronized (memory) {
+            Entry e = memory.get(key);
+            if (e != null) {
+                if (now - e.storedAt < ttlMillis) {
+                    count(task, "hit", "memory");
+                    return Optional.of(e.value);
+                }
+                memory.remove(key);
+            }
+        }
+        Optional<String> fromDisk = readDisk(key, now);
+        if (fromDisk.isPresent()) {
+            synchronized (memory) {
+                memory.put(key, new Entry(fromDisk.get(), now));
+            }
+            count(task, "hit", "disk");
+            return fromDisk;
+        }
+        count(task, "miss", "none");
+        return Optional.empty();
+    }
+
+    public void put(String key, String value) {
+        if (value == null) return;
+        long now = System.currentTimeMillis();
+        if (maxEntries > 0) {
+            synchronized (memory) {
+                memory.put(key, new Entry(value, now));
+            }
+        }
+        writeDisk(key, value);
+    }
+
+    public void clear() {
+        synchronized (memory) {
+            memory.clear();
+        }
+    }
+
+    private Optional<String> readDisk(String key, long now) {
+        if (diskDir == null) return Optional.empty();
+        Path file = diskDir.resolve(key);
+        try {
+            if (!Files.isRegularFile(file)) return Optional.empty();
+            if (now - Files.getLastModifiedTime(file).toMillis() >= ttlMillis) {
+                Files.deleteIfExists(file);
+                return Optional.empty();
+            }
+            return Optional.of(Files.readString(file, StandardCharsets.UTF_8));
+        } catch (IOException ex) {
+            log.debug("AI cache read failed for {}: {}", key, ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void writeDisk(String key, String value) {
+        if (diskDir == null) return;
+        try {
+            // Write then move so a concurrent reader never sees a partial file
+            Path tmp = Files.createTempFile(diskDir, key, ".tmp");
+            Files.writeString(tmp, value, StandardCharsets.UTF_8);
+            Files.move(tmp, diskDir.resolve(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            log.debug("AI cache write failed for {}: {}", key, ex.getMessage());
+        }
+    }
+
+    private void count(String task, String result, String tier) {
+        Counter.builder("ai.cache.requests")
+                .description("AI response cache lookups")
+                .tag("task", task)
+                .tag("result", result)
+                .tag("tier", tier)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private record Entry(String value, long storedAt) {}
+}
@@ -9,65 +9,70 @@ import com.ai.pat.backend.controller.dto.ai.SummarizeResponse;
 import com.ai.pat.backend.controller.dto.ai.RecommendationsRequest;
 import com.ai.pat.backend.controller.dto.ai.RecommendationsResponse;
 import com.ai.pat.backend.controller.dto.ai.EvaluateRequest;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.*;
+import com.ai.pat.backend.exception.AiProviderUnavailableException;
+import com.ai.pat.backend.util.SentenceSegmenter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
 public class AiService {
 
-    @Value("${ai.windsurf.api-url:https://api.windsurf.ai}")
-    private String apiUrl;
+    private static final Logger log = LoggerFactory.getLogger(AiService.class);
 
-    @Value("${ai.windsurf.api-key:}")
-    private String apiKey;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final AiProviderClient providerClient;
+    private final AiResponseCache responseCache;
+    private final SentimentEngine sentimentEngine;
+
+    public AiService(AiProviderClient providerClient, AiResponseCache responseCache, SentimentEngine sentimentEngine) {
+        this.providerClient = providerClient;
+        this.responseCache = responseCache;
+        this.sentimentEngine = sentimentEngine;
+    }
 
     public DraftEvaluationResponse draftEvaluation(DraftEvaluationRequest req) {
-        if (apiKey == null || apiKey.isBlank()) {
-            System.out.println("AI API key is not configured; returning a placeholder draft.");
+        try {
+            return requestDraft(req);
+        } catch (AiProviderUnavailableException ex) {
+            // Provider degraded: answer with a draft built from the ratings instead of failing
+            return heuristicDraft(req);
+        }
+    }
+
+    /**
+     * Same as {@link #draftEvaluation} but lets {@link AiProviderUnavailableException} through, so
+     * callers that can retry later (the AI job queue) decide themselves when to fall back.
+     */
+    DraftEvaluationResponse requestDraft(DraftEvaluationRequest req) {
+        if (!providerClient.isConfigured()) {
+            log.info("AI API key is not configured; returning a placeholder draft");
             return new DraftEvaluationResponse(
                     "This is a placeholder draft because the AI API key is not configured.",
                     Map.of()
             );
         }
 
-        try {
-            String url = apiUrl.replaceAll("/$", "") + "/v1/chat"; // Adjust path to your provider
-
-            Map<String, Object> body = new HashMap<>();
-            body.put("task", "draft_evaluation");
-            body.put("employeeName", req.getEmployeeName());
-            body.put("role", req.getRole());
-            body.put("competencyRatings", req.getCompetencyRatings());
-            body.put("context", req.getContext());
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(apiKey);
-
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
-            ResponseEntity<Map<String, Object>> resp = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    entity,
-                    new ParameterizedTypeReference<Map<String, Object>>() {}
-            );
+        String cacheKey = responseCache.key("draft_evaluation", draftCacheInput(req), null);
+        java.util.Optional<String> cached = responseCache.get("draft_evaluation", cacheKey);
+        if (cached.isPresent()) {
+            return new DraftEvaluationResponse(cached.get(), new HashMap<>());
+        }
 
-            Map<?, ?> respBody = resp.getBody();
-            if (!resp.getStatusCode().is2xxSuccessful() || respBody == null) {
-                throw new RestClientException("Non-200 from AI API");
-            }
+        try {
+            Map<?, ?> respBody = providerClient.chat("draft_evaluation", draftBody(req));
 
             // Very flexible parsing: expect either {reply: "..."} or OpenAI-style choices
             String summary = null;
@@ -88,10 +93,16 @@ public class AiService {
                     }
                 }
             }
-            if (summary == null) summary = "AI draft generated, but no textual content returned.";
+            if (summary == null) {
+                summary = "AI draft generated, but no textual content returned.";
+            } else {
+                responseCache.put(cacheKey, summary);
+            }
             return new DraftEvaluationResponse(summary, competencyNotes);
+        } catch (AiProviderUnavailableException ex) {
+            throw ex;
         } catch (Exception ex) {
-            System.err.println("AI draft request failed: " + ex.getMessage());
+            log.warn("AI draft request failed: {}", ex.getMessage());
             throw new RuntimeException("AI drafting failed: " + ex.getMessage(), ex);
         }
     }
@@ -106,8 +117,9 @@ public class AiService {
                 sentiments.add(new AnalyzeTextResponse.Sentiment("neutral", 0.5));
                 continue;
             }
-            double pos = countMatches(text, new String[]{"excellent","great","good","outstanding","improved","effective","success"});
-            double neg = countMatches(text, new String[]{"poor","bad","issue","problem","delay","risk","concern","lack"});
+            SentimentEngine.Score match = sentimentEngine.score(text);
+            double pos = match.positive();
+            double neg = match.negative();
             double total = pos + neg;
             String label;
             double score;
@@ -139,45 +151,109 @@ public class AiService {
     }
 
     public SummarizeResponse summarize(SummarizeRequest req) {
+        return new SummarizeResponse(summarizeText(req).text());
+    }
+
+    /**
+     * Like {@link #summarize}, but reports whether the text is a heuristic fallback rather than
+     * a provider (or cached provider) reply, so callers can avoid persisting fallbacks.
+     */
+    public StreamedText summarizeText(SummarizeRequest req) {
         String text = req.getText();
         if (text == null || text.isBlank()) {
-            return new SummarizeResponse("");
+            return new StreamedText("", true);
         }
-        if (apiKey == null || apiKey.isBlank()) {
+        if (!providerClient.isConfigured()) {
             // Simple heuristic summary: first 2 sentences or 60 words
-            String summary = naiveSummarize(text, 2, 60);
-            return new SummarizeResponse(summary);
+            return new StreamedText(naiveSummarize(text, 2, 60), true);
+        }
+        String cacheKey = responseCache.key("summarize", text, req.getMaxTokens());
+        java.util.Optional<String> cached = responseCache.get("summarize", cacheKey);
+        if (cached.isPresent()) {
+            return new StreamedText(cached.get(), false);
         }
         try {
-            String url = apiUrl.replaceAll("/$", "") + "/v1/chat";
-            Map<String, Object> body = new HashMap<>();
-            body.put("task", "summarize");
-            body.put("text", text);
-            body.put("maxTokens", req.getMaxTokens());
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(apiKey);
-
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
-            ResponseEntity<Map<String, Object>> resp = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    entity,
-                    new ParameterizedTypeReference<Map<String, Object>>() {}
-            );
-
-            Map<?, ?> respBody = resp.getBody();
-            String summary = (respBody != null && respBody.get("reply") instanceof String)
-                    ? (String) respBody.get("reply")
-                    : naiveSummarize(text, 2, 60);
-            return new SummarizeResponse(summary);
+            Map<?, ?> respBody = providerClient.chat("summarize", summarizeBody(req));
+            if (respBody != null && respBody.get("reply") instanceof String reply) {
+                responseCache.put(cacheKey, reply);
+                return new StreamedText(reply, false);
+            }
+            return new StreamedText(naiveSummarize(text, 2, 60), true);
         } catch (Exception ex) {
-            System.err.println("AI summarize failed: " + ex.getMessage());
-            return new SummarizeResponse(naiveSummarize(text, 2, 60));
+            log.warn("AI summarize failed, using the extractive summary: {}", ex.getMessage());
+            return new StreamedText(naiveSummarize(text, 2, 60), true);
+        }
+    }
+
+    /**
+     * Streaming counterpart of {@link #summarize}: provider tokens are passed to {@code onToken} as
+     * they arrive. Cached replies and heuristic fallbacks are delivered as a single token.
+     * Completing {@code cancel} stops the provider call.
+     */
+    public StreamedText streamSummary(SummarizeRequest req, Consumer<String> onToken, CompletableFuture<Void> cancel) {
+        String text = req.getText();
+        if (text == null || text.isBlank()) {
+            return new StreamedText("", false);
+        }
+        if (!providerClient.isConfigured()) {
+            return emit(naiveSummarize(text, 2, 60), true, onToken);
         }
+        String cacheKey = responseCache.key("summarize", text, req.getMaxTokens());
+        java.util.Optional<String> cached = responseCache.get("summarize", cacheKey);
+        if (cached.isPresent()) {
+            return emit(cached.get(), false, onToken);
+        }
+        return streamFromProvider("summarize", summarizeBody(req), cacheKey, onToken, cancel,
+                () -> naiveSummarize(text, 2, 60));
+    }
+
+    /** Streaming counterpart of {@link #draftEvaluation}; only the narrative summary is streamed. */
+    public StreamedText streamDraft(DraftEvaluationRequest req, Consumer<String> onToken, CompletableFuture<Void> cancel) {
+        if (!providerClient.isConfigured()) {
+            return emit("This is a placeholder draft because the AI API key is not configured.", true, onToken);
+        }
+        String cacheKey = responseCache.key("draft_evaluation", draftCacheInput(req), null);
+        java.util.Optional<String> cached = responseCache.get("draft_evaluation", cacheKey);
+        if (cached.isPresent()) {
+            return emit(cached.get(), false, onToken);
+        }
+        return streamFromProvider("draft_evaluation", draftBody(req), cacheKey, onToken, cancel,
+                () -> heuristicDraft(req).getSummary());
+    }
+
+    private StreamedText streamFromProvider(String task, Map<String, Object> body, String cacheKey,
+                                            Consumer<String> onToken, CompletableFuture<Void> cancel,
+                                            Supplier<String> fallback) {
+        boolean[] emitted = {false};
+        try {
+            String reply = providerClient.chatStream(task, body, token -> {
+                emitted[0] = true;
+                onToken.accept(token);
+            }, cancel);
+            if (cancel.isDone()) {
+                // Partial reply of an abandoned stream; not worth caching
+                return new StreamedText(reply, false);
+            }
+            if (reply.isBlank()) {
+                return emit(fallback.get(), true, onToken);
+            }
+            responseCache.put(cacheKey, reply);
+            return new StreamedText(reply, false);
+        } catch (AiProviderUnavailableException | RestClientException ex) {
+            // Tokens already sent can't be taken back; only fall back before the first one
+            if (emitted[0]) throw ex;
+            return emit(fallback.get(), true, onToken);
+        }
+    }
+
+    private static StreamedText emit(String text, boolean fallback, Consumer<String> onToken) {
+        if (!text.isEmpty()) onToken.accept(text);
+        return new StreamedText(text, fallback);
     }
 
+    /** Full text of a (possibly streamed) reply; {@code fallback} when it came from the local heuristics. */
+    public record StreamedText(String text, boolean fallback) {}
+
     public RecommendationsResponse recommendations(RecommendationsRequest req) {
         Map<String, Integer> ratings = req.getCompetencyRatings();
         if (ratings == null || ratings.isEmpty()) {
@@ -255,18 +331,57 @@ public class AiService {
         return result;
     }
 
-    // --- Helpers ---
-    private static double countMatches(String text, String[] words) {
-        if (text == null || text.isBlank()) return 0;
-        String lower = text.toLowerCase();
-        double count = 0;
-        for (String w : words) {
-            int idx = -1;
-            while ((idx = lower.indexOf(w, idx + 1)) >= 0) {
-                count += 1.0;
-            }
+    DraftEvaluationResponse heuristicDraft(DraftEvaluationRequest req) {
+        RecommendationsRequest recsReq = new RecommendationsRequest();
+        recsReq.setRole(req.getRole());
+        recsReq.setCompetencyRatings(req.getCompetencyRatings());
+        RecommendationsResponse recs = recommendations(recsReq);
+        StringBuilder sb = new StringBuilder();
+        sb.append(req.getEmployeeName() != null ? req.getEmployeeName() : "The employee");
+        if (!recs.getStrengths().isEmpty()) {
+            sb.append(" showed the strongest results in ")
+              .append(recs.getStrengths().stream().map(AiService::humanize).collect(Collectors.joining(", ")))
+              .append('.');
+        } else {
+            sb.append(" has no competency ratings yet.");
+        }
+        if (!recs.getWeaknesses().isEmpty()) {
+            sb.append(" Focus areas for the next period: ")
+              .append(recs.getWeaknesses().stream().map(AiService::humanize).collect(Collectors.joining(", ")))
+              .append('.');
         }
-        return count;
+        String context = naiveSummarize(req.getContext(), 2, 60);
+        if (!context.isBlank()) sb.append(' ').append(context);
+        return new DraftEvaluationResponse(sb.toString(), new HashMap<>());
+    }
+
+    // --- Helpers ---
+    private static Map<String, Object> summarizeBody(SummarizeRequest req) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("task", "summarize");
+        body.put("text", req.getText());
+        body.put("maxTokens", req.getMaxTokens());
+        return body;
+    }
+
+    private static Map<String, Object> draftBody(DraftEvaluationRequest req) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("task", "draft_evaluation");
+        body.put("employeeName", req.getEmployeeName());
+        body.put("role", req.getRole());
+        body.put("competencyRatings", req.getCompetencyRatings());
+        body.put("context", req.getContext());
+        return body;
+    }
+
+    private static String draftCacheInput(DraftEvaluationRequest req) {
+        // Sorted so that the same ratings in a different map order hit the same entry
+        Map<String, ?> ratings = req.getCompetencyRatings() != null ? new java.util.TreeMap<>(req.getCompetencyRatings()) : Map.of();
+        return String.join("\u0000",
+                String.valueOf(req.getEmployeeName()),
+                String.valueOf(req.getRole()),
+                ratings.toString(),
+                String.valueOf(req.getContext()));
     }
 
     private static double round(double v) {
@@ -275,16 +390,16 @@ public class AiService {
 
     private static List<String> extractKeyPoints(String text, int max) {
         List<String> sentences = new ArrayList<>();
-        for (String s : text.split("(?<=[.!?])\\s+")) {
+        for (String s : SentenceSegmenter.DEFAULT.split(text)) {
             String t = s.trim();
             if (t.length() > 10) sentences.add(t);
         }
         return sentences.stream().limit(max).collect(Collectors.toList());
     }
 
-    private static String naiveSummarize(String text, int maxSentences, int maxWords) {
+    static String naiveSummarize(String text, int maxSentences, int maxWords) {
         if (text == null) return "";
-        String[] sentences = text.split("(?<=[.!?])\\s+");
+        List<String> sentences = SentenceSegmenter.DEFAULT.split(text);
         StringBuilder sb = new StringBuilder();
         int count = 0;
         for (String s : sentences) {
@@ -293,7 +408,7 @@ public class AiService {
             if (++count >= maxSentences) break;
         }
         String candidate = sb.toString().trim();
-        String[] words = candidate.split("\\s+");
+        String[] words = WHITESPACE.split(candidate);
         if (words.length > maxWords) {
             candidate = String.join(" ", java.util.Arrays.copyOfRange(words, 0, maxWords)) + "…";
         }
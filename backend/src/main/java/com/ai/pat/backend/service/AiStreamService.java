@@ -0,0 +1,109 @@
+package com.ai.pat.backend.service;
+
+import com.ai.pat.backend.controller.dto.ai.DraftEvaluationRequest;
+import com.ai.pat.backend.controller.dto.ai.SummarizeRequest;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Runs streaming AI calls off the servlet thread and forwards them to the browser as
+ * Server-Sent Events: a {@code token} event per text delta, then one {@code done} event with the
+ * full text (or an {@code error} event). When the client disconnects or the emitter times out the
+ * provider connection is closed, so abandoned streams stop consuming provider capacity.
+ */
+@Service
+public class AiStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(AiStreamService.class);
+
+    private final AiService aiService;
+    private final ExecutorService executor;
+    private final long timeoutMillis;
+
+    public AiStreamService(AiService aiService,
+                           @Value("${ai.stream.max-concurrency:16}") int maxConcurrency,
+                           @Value("${ai.stream.timeout-ms:120000}") long timeoutMillis) {
+        this.aiService = aiService;
+        this.timeoutMillis = timeoutMillis;
+        int threads = Math.max(1, maxConcurrency);
+        AtomicInteger counter = new AtomicInteger();
+        // Short queue: beyond it a stream is refused right away instead of waiting unseen
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads), r -> {
+                    Thread t = new Thread(r, "ai-stream-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public SseEmitter streamSummary(SummarizeRequest req) {
+        return start((onToken, cancel) -> aiService.streamSummary(req, onToken, cancel));
+    }
+
+    public SseEmitter streamDraft(DraftEvaluationRequest req) {
+        return start((onToken, cancel) -> aiService.streamDraft(req, onToken, cancel));
+    }
+
+    private SseEmitter start(BiFunction<Consumer<String>, CompletableFuture<Void>, AiService.StreamedText> call) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        CompletableFuture<Void> cancel = new CompletableFuture<>();
+        emitter.onCompletion(() -> cancel.complete(null));
+        emitter.onTimeout(() -> cancel.complete(null));
+        emitter.onError(ex -> cancel.complete(null));
+
+        try {
+            executor.execute(() -> run(emitter, cancel, call));
+        } catch (RejectedExecutionException ex) {
+            send(emitter, cancel, "error", Map.of("message", "Too many AI streams in progress, try again shortly"));
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    private void run(SseEmitter emitter, CompletableFuture<Void> cancel,
+                     BiFunction<Consumer<String>, CompletableFuture<Void>, AiService.StreamedText> call) {
+        try {
+            AiService.StreamedText result = call.apply(
+                    token -> send(emitter, cancel, "token", Map.of("text", token)), cancel);
+            if (cancel.isDone()) return;
+            send(emitter, cancel, "done", Map.of("text", result.text(), "fallback", result.fallback()));
+            emitter.complete();
+        } catch (Exception ex) {
+            if (cancel.isDone()) return;
+            log.warn("AI stream failed: {}", ex.getMessage());
+            send(emitter, cancel, "error", Map.of("message", "AI generation failed"));
+            emitter.complete();
+        }
+    }
+
+    // A failed send means the client is gone: cancel instead of throwing into the provider read loop
+    private static void send(SseEmitter emitter, CompletableFuture<Void> cancel, String event, Object data) {
+        if (cancel.isDone()) return;
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data));
+        } catch (IOException | IllegalStateException ex) {
+            cancel.complete(null);
+        }
+    }
+}
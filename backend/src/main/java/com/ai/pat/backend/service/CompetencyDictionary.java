@@ -0,0 +1,298 @@
+package com.ai.pat.backend.service;
+
+import com.ai.pat.backend.util.CompetencyNormalizer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Maps competency names to small dense integer ids so ratings can be held as {@code byte[]}
+ * vectors (index = id, {@link #ABSENT} = not rated) instead of {@code Map<String, Integer>}.
+ *
+ * Canonical names and their aliases come from the {@code competencies} / {@code competency_aliases}
+ * tables and are re-read every {@code app.competencies.reload-interval-ms}; until the first
+ * successful load the built-in aliases of {@link CompetencyNormalizer} apply. Names that are in
+ * neither come from client-supplied rating maps: the first {@code app.competencies.max-unlisted}
+ * of them get an id on first sight, later ones get none ({@link #id} returns -1) and are left out
+ * of vectors, so arbitrary keys cannot grow the table or every vector without bound. Ids are only
+ * meaningful inside this process and are never reused: a name keeps its id across reloads, so
+ * existing vectors stay valid. When a reload
+ * changes which name an alias points to, a {@link Reloaded} event is published so holders of
+ * vectors built with the old mapping can rebuild.
+ */
+@Component
+public class CompetencyDictionary {
+
+    private static final Logger log = LoggerFactory.getLogger(CompetencyDictionary.class);
+
+    public static final byte ABSENT = -1;
+
+    private static final String LOAD_SQL = """
+            SELECT c.name, a.alias
+            FROM competencies c
+            LEFT JOIN competency_aliases a ON a.competency_id = c.id
+            WHERE c.active
+            ORDER BY c.sort_order, c.id
+            """;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    public static final int DEFAULT_MAX_UNLISTED = 64;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher events;
+    private final int maxUnlisted;
+    private final AtomicBoolean unlistedFullLogged = new AtomicBoolean();
+    private final Object writeLock = new Object();
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public CompetencyDictionary(JdbcTemplate jdbcTemplate, ApplicationEventPublisher events,
+                                @Value("${app.competencies.max-unlisted:64}") int maxUnlisted) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.events = events;
+        this.maxUnlisted = Math.max(0, maxUnlisted);
+        this.snapshot = Snapshot.EMPTY.with(CompetencyNormalizer.defaultAliases());
+    }
+
+    public CompetencyDictionary(JdbcTemplate jdbcTemplate, ApplicationEventPublisher events) {
+        this(jdbcTemplate, events, DEFAULT_MAX_UNLISTED);
+    }
+
+    /** Dictionary with the built-in aliases only, no database. */
+    public CompetencyDictionary() {
+        this(null, null);
+    }
+
+    @PostConstruct
+    void loadOnStartup() {
+        if (jdbcTemplate == null) return;
+        try {
+            reload();
+        } catch (DataAccessException ex) {
+            log.warn("Competency dictionary not loaded, using built-in aliases: {}", ex.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.competencies.reload-interval-ms:60000}",
+               initialDelayString = "${app.competencies.reload-interval-ms:60000}")
+    public void scheduledReload() {
+        if (jdbcTemplate == null) return;
+        try {
+            reload();
+        } catch (DataAccessException ex) {
+            log.debug("Competency dictionary reload failed: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Re-reads the dictionary tables. Returns {@code true} if the alias mapping changed.
+     */
+    public boolean reload() {
+        if (jdbcTemplate == null) return false;
+        Map<String, String> aliases = new LinkedHashMap<>();
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            String name = rs.getString(1).trim();
+            aliases.putIfAbsent(CompetencyNormalizer.key(name), name);
+            String alias = rs.getString(2);
+            if (alias != null) aliases.put(CompetencyNormalizer.key(alias), name);
+        });
+        boolean changed;
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            changed = !aliases.equals(current.aliases);
+            if (!changed) return false;
+            snapshot = current.with(aliases);
+            CompetencyNormalizer.installAliases(aliases);
+        }
+        log.info("Competency dictionary loaded: {} aliases", aliases.size());
+        if (events != null) events.publishEvent(new Reloaded(snapshot.names.length));
+        return true;
+    }
+
+    /**
+     * Id of the competency {@code key} canonicalizes to. Unseen names get a new id while fewer
+     * than {@code max-unlisted} such names exist, otherwise -1.
+     */
+    public int id(String key) {
+        if (key == null) return -1;
+        String lookup = CompetencyNormalizer.key(key);
+        Integer id = snapshot.ids.get(lookup);
+        if (id != null) return id;
+        return register(lookup, CompetencyNormalizer.canonicalize(key));
+    }
+
+    public String name(int id) {
+        return snapshot.names[id];
+    }
+
+    /** Number of ids handed out so far; every id is below this. */
+    public int size() {
+        return snapshot.names.length;
+    }
+
+    /**
+     * Rating vector for a name -> rating map. Keys that canonicalize to the same competency are
+     * averaged (rounded), like {@link CompetencyNormalizer#normalize}. Ratings are clamped to 0..127.
+     */
+    public byte[] toVector(Map<String, Integer> ratings) {
+        if (ratings == null || ratings.isEmpty()) return EMPTY;
+        int n = ratings.size();
+        int[] ids = new int[n];
+        int[] values = new int[n];
+        int count = 0;
+        int maxId = -1;
+        for (Map.Entry<String, Integer> e : ratings.entrySet()) {
+            if (e.getKey() == null || e.getValue() == null) continue;
+            int id = id(e.getKey());
+            if (id < 0) continue;
+            ids[count] = id;
+            values[count] = e.getValue();
+            count++;
+            if (id > maxId) maxId = id;
+        }
+        if (count == 0) return EMPTY;
+
+        byte[] vector = new byte[maxId + 1];
+        Arrays.fill(vector, ABSENT);
+        int[] sums = null;
+        int[] counts = null;
+        for (int i = 0; i < count; i++) {
+            int id = ids[i];
+            if (vector[id] == ABSENT) {
+                vector[id] = clamp(values[i]);
+                continue;
+            }
+            // Duplicate after canonicalization: switch this slot to averaging
+            if (sums == null) {
+                sums = new int[maxId + 1];
+                counts = new int[maxId + 1];
+            }
+            if (counts[id] == 0) {
+                sums[id] = vector[id];
+                counts[id] = 1;
+            }
+            sums[id] += clamp(values[i]);
+            counts[id]++;
+            vector[id] = clamp((int) Math.round((double) sums[id] / counts[id]));
+        }
+        return vector;
+    }
+
+    /** Canonical name -> rating map of a vector, for API payloads. */
+    public Map<String, Integer> toMap(byte[] vector) {
+        Map<String, Integer> out = new HashMap<>();
+        if (vector == null) return out;
+        String[] names = snapshot.names;
+        for (int id = 0; id < vector.length; id++) {
+            if (vector[id] != ABSENT) out.put(names[id], (int) vector[id]);
+        }
+        return out;
+    }
+
+    private static byte clamp(int value) {
+        return (byte) Math.max(0, Math.min(Byte.MAX_VALUE, value));
+    }
+
+    private int register(String lookup, String canonical) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            Integer id = current.ids.get(lookup);
+            if (id != null) return id;
+            Integer existing = current.ids.get(CompetencyNormalizer.key(canonical));
+            if (existing == null && current.unlisted >= maxUnlisted) {
+                if (unlistedFullLogged.compareAndSet(false, true)) {
+                    log.warn("Competency dictionary holds {} unlisted names; ratings for further unknown competencies "
+                            + "(e.g. '{}') are left out of rating vectors", current.unlisted, canonical);
+                }
+                return -1;
+            }
+            Snapshot next = current.withKey(lookup, canonical);
+            snapshot = next;
+            return next.ids.get(lookup);
+        }
+    }
+
+    /** Immutable id table; replaced copy-on-write. */
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(new String[0], Map.of(), Map.of(), Set.of());
+
+        final String[] names;
+        // CompetencyNormalizer.key of an alias or name -> id
+        final Map<String, Integer> ids;
+        // key(alias) -> canonical name, as loaded (for change detection)
+        final Map<String, String> aliases;
+        // Names seen only in rating maps, not in any alias table so far
+        final Set<String> unlistedNames;
+        final int unlisted;
+
+        Snapshot(String[] names, Map<String, Integer> ids, Map<String, String> aliases, Set<String> unlistedNames) {
+            this.names = names;
+            this.ids = ids;
+            this.aliases = aliases;
+            this.unlistedNames = unlistedNames;
+            this.unlisted = unlistedNames.size();
+        }
+
+        // Keeps every existing name at its id, adds new names, and re-points keys per the alias table
+        Snapshot with(Map<String, String> aliasTable) {
+            List<String> nameList = new ArrayList<>(Arrays.asList(names));
+            Map<String, Integer> idByName = new HashMap<>();
+            for (int i = 0; i < names.length; i++) idByName.put(names[i], i);
+            Map<String, Integer> nextIds = new HashMap<>();
+            for (int i = 0; i < names.length; i++) nextIds.put(CompetencyNormalizer.key(names[i]), i);
+            for (Map.Entry<String, String> e : aliasTable.entrySet()) {
+                Integer id = idByName.get(e.getValue());
+                if (id == null) {
+                    id = nameList.size();
+                    nameList.add(e.getValue());
+                    idByName.put(e.getValue(), id);
+                    nextIds.putIfAbsent(CompetencyNormalizer.key(e.getValue()), id);
+                }
+                nextIds.put(CompetencyNormalizer.key(e.getKey()), id);
+            }
+            Set<String> stillUnlisted = new HashSet<>(unlistedNames);
+            stillUnlisted.removeAll(aliasTable.values());
+            return new Snapshot(nameList.toArray(String[]::new), nextIds, Map.copyOf(aliasTable), Set.copyOf(stillUnlisted));
+        }
+
+        Snapshot withKey(String lookup, String canonical) {
+            Map<String, Integer> nextIds = new HashMap<>(ids);
+            Integer id = nextIds.get(CompetencyNormalizer.key(canonical));
+            String[] nextNames = names;
+            Set<String> nextUnlisted = unlistedNames;
+            if (id == null) {
+                id = names.length;
+                nextNames = Arrays.copyOf(names, names.length + 1);
+                nextNames[id] = canonical;
+                nextIds.put(CompetencyNormalizer.key(canonical), id);
+                Set<String> grown = new HashSet<>(unlistedNames);
+                grown.add(canonical);
+                nextUnlisted = Set.copyOf(grown);
+            }
+            nextIds.put(lookup, id);
+            return new Snapshot(nextNames, nextIds, aliases, nextUnlisted);
+        }
+    }
+
+    /** Published after a reload changed the alias mapping. */
+    public record Reloaded(int size) {}
+}
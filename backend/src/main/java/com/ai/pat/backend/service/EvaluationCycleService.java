@@ -0,0 +1,142 @@
+package com.ai.pat.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Opens a monthly evaluation cycle by inserting a DRAFT evaluation for every employee that does
+ * not have one for the month yet. Missing employees are found with an anti-join and inserted with
+ * JDBC batches, one transaction per chunk, each draft together with its (empty) content row.
+ * Each insert re-checks for an existing row, so a run that crashed half way can simply be
+ * started again.
+ */
+@Service
+public class EvaluationCycleService {
+
+    private static final Logger log = LoggerFactory.getLogger(EvaluationCycleService.class);
+
+    // Employees without an evaluation for the month, walked in id order (keyset, no OFFSET)
+    private static final String FIND_MISSING_SQL = """
+            SELECT u.id, TRIM(CONCAT_WS(' ', u.first_name, u.last_name)) AS full_name, u.email
+            FROM users u
+            WHERE u.id > ?
+              AND EXISTS (SELECT 1 FROM user_roles r
+                          WHERE r.user_id = u.id AND r.role IN ('EMPLOYEE', 'ROLE_EMPLOYEE'))
+              AND NOT EXISTS (SELECT 1 FROM evaluations e
+                              WHERE e.employee_id = u.id
+                                AND e.evaluation_year = ?
+                                AND e.evaluation_month = ?)
+            ORDER BY u.id
+            LIMIT ?
+            """;
+
+    // The (empty) content row is written in the same statement; the update count is that of
+    // the outer insert, so it is 1 only when the draft itself was inserted
+    private static final String INSERT_DRAFT_SQL = """
+            WITH ins AS (
+                INSERT INTO evaluations (employee_id, employee_name, employee_email, evaluation_month, evaluation_year,
+                                         status, overall_rating, submitted_at, created_at, updated_at)
+                SELECT ?, ?, ?, ?, ?, 'DRAFT', 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+                WHERE NOT EXISTS (SELECT 1 FROM evaluations e
+                                  WHERE e.employee_id = ? AND e.evaluation_year = ? AND e.evaluation_month = ?)
+                RETURNING id
+            )
+            INSERT INTO evaluation_contents (evaluation_id)
+            SELECT id FROM ins
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ManagerAnalyticsService managerAnalyticsService;
+
+    @Value("${app.evaluation-cycle.chunk-size:500}")
+    private int chunkSize;
+
+    public EvaluationCycleService(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  ManagerAnalyticsService managerAnalyticsService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.managerAnalyticsService = managerAnalyticsService;
+    }
+
+    public CycleResult openCycle(Integer month, Integer year) {
+        return openCycle(month, year, progress -> {});
+    }
+
+    public CycleResult openCycle(Integer month, Integer year, Consumer<ChunkProgress> progressListener) {
+        if (month == null || month < 1 || month > 12) {
+            throw new IllegalArgumentException("month must be between 1 and 12");
+        }
+        if (year == null) {
+            throw new IllegalArgumentException("year is required");
+        }
+        int limit = Math.max(1, chunkSize);
+        log.info("Opening evaluation cycle {}/{} (chunk size {})", month, year, limit);
+
+        long afterId = 0L;
+        int chunks = 0;
+        int created = 0;
+        while (true) {
+            List<MissingEmployee> missing = jdbcTemplate.query(FIND_MISSING_SQL,
+                    (rs, i) -> new MissingEmployee(rs.getLong("id"), rs.getString("full_name"), rs.getString("email")),
+                    afterId, year, month, limit);
+            if (missing.isEmpty()) break;
+
+            Integer inserted = transactionTemplate.execute(status -> insertChunk(missing, month, year));
+            int insertedCount = inserted != null ? inserted : 0;
+            afterId = missing.get(missing.size() - 1).id();
+            chunks++;
+            created += insertedCount;
+
+            ChunkProgress progress = new ChunkProgress(chunks, missing.size(), insertedCount, created, afterId);
+            log.info("Evaluation cycle {}/{} chunk {}: {} candidates, {} inserted ({} total, last employee id {})",
+                    month, year, chunks, missing.size(), insertedCount, created, afterId);
+            progressListener.accept(progress);
+
+            if (missing.size() < limit) break;
+        }
+
+        if (created > 0) {
+            managerAnalyticsService.invalidateAll();
+        }
+        log.info("Created {} monthly evaluations for {}/{} in {} chunks", created, month, year, chunks);
+        return new CycleResult(month, year, created, chunks);
+    }
+
+    private int insertChunk(List<MissingEmployee> chunk, Integer month, Integer year) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_DRAFT_SQL, chunk, chunk.size(), (ps, emp) -> {
+            ps.setLong(1, emp.id());
+            ps.setString(2, emp.fullName() == null || emp.fullName().isBlank() ? null : emp.fullName());
+            ps.setString(3, emp.email());
+            ps.setInt(4, month);
+            ps.setInt(5, year);
+            ps.setLong(6, emp.id());
+            ps.setInt(7, year);
+            ps.setInt(8, month);
+        });
+        int inserted = 0;
+        for (int[] batch : counts) {
+            for (int c : batch) {
+                // Drivers may report SUCCESS_NO_INFO (-2) for batched statements
+                if (c > 0 || c == Statement.SUCCESS_NO_INFO) inserted++;
+            }
+        }
+        return inserted;
+    }
+
+    private record MissingEmployee(long id, String fullName, String email) {}
+
+    public record ChunkProgress(int chunk, int candidates, int inserted, int totalInserted, long lastEmployeeId) {}
+
+    public record CycleResult(int month, int year, int created, int chunks) {}
+}
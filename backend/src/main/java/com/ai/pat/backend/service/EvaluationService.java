@@ -1,5 +1,6 @@
 package com.ai.pat.backend.service;
 
+import com.ai.pat.backend.dto.CursorPage;
 import com.ai.pat.backend.dto.EvaluationDTO;
 import com.ai.pat.backend.exception.ResourceNotFoundException;
 import com.ai.pat.backend.model.Evaluation;
@@ -8,18 +9,32 @@ import com.ai.pat.backend.model.User;
 import com.ai.pat.backend.repository.EvaluationRepository;
 import com.ai.pat.backend.repository.ProjectRepository;
 import com.ai.pat.backend.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.access.AccessDeniedException;
 
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,9 +46,79 @@ public class EvaluationService {
     private final EvaluationRepository evaluationRepository;
     private final UserRepository userRepository;
     private final ProjectRepository projectRepository;
+    private final ManagerAnalyticsService managerAnalyticsService;
+    private final EvaluationCycleService evaluationCycleService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ProjectMembershipGraph membershipGraph;
+    private final NotificationOutbox notificationOutbox;
+    private final ObjectMapper objectMapper;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    // Either the new row (created = true) or the live row already holding the period. The content
+    // row is written by the same statement, and only when the evaluation was inserted.
+    private static final String UPSERT_SQL = """
+            WITH ins AS (
+                INSERT INTO evaluations (employee_id, reviewer_id, project_id, overall_rating, competency_ratings,
+                                         employee_name, employee_email, evaluation_month, evaluation_year,
+                                         status, submitted_at, created_at)
+                VALUES (?, ?, ?, ?, ?::jsonb, ?, ?, ?, ?, ?, ?, ?)
+                ON CONFLICT (employee_id, project_id, evaluation_year, evaluation_month) WHERE status <> 'ARCHIVED'
+                DO NOTHING
+                RETURNING id
+            ), content AS (
+                INSERT INTO evaluation_contents (evaluation_id, achievements, challenges, learnings,
+                                                 next_period_goals, additional_feedback, manager_feedback_request)
+                SELECT id, ?, ?, ?, ?, ?, ? FROM ins
+            )
+            SELECT id, TRUE FROM ins
+            UNION ALL
+            SELECT e.id, FALSE FROM evaluations e
+            WHERE e.employee_id = ? AND e.project_id = ? AND e.evaluation_year = ? AND e.evaluation_month = ?
+              AND e.status <> 'ARCHIVED'
+              AND NOT EXISTS (SELECT 1 FROM ins)
+            """;
+
+    public static final int MAX_BATCH_GRADES = 500;
+
+    private static final String OVERALL = "overall";
+
+    private static final String LOCK_FOR_GRADING_SQL =
+            "SELECT id, employee_id FROM evaluations WHERE id = ANY(?) ORDER BY id FOR UPDATE";
+
+    // Merges each evaluation's scores into its manager ratings map and recomputes the manager
+    // rating from the merged map: one row written per evaluation, concurrent scores for other
+    // competencies are kept. Same rounding as before: average to one decimal, then to an int.
+    private static final String MERGE_MANAGER_SCORES_SQL = """
+            UPDATE evaluations e
+            SET manager_competency_ratings = e.manager_competency_ratings || u.scores,
+                manager_rating = (SELECT ROUND(ROUND(AVG(r.value::numeric), 1))::int
+                                  FROM jsonb_each_text(e.manager_competency_ratings || u.scores) r),
+                status = 'REVIEWED', reviewed_at = ?, updated_at = ?
+            FROM (SELECT id, scores::jsonb AS scores FROM unnest(?::bigint[], ?::text[]) AS t(id, scores)) u
+            WHERE e.id = u.id
+            RETURNING e.id, e.manager_rating
+            """;
+
+    // Same status change as the competency merge above: a graded evaluation is reviewed
+    private static final String SET_OVERALL_RATING_SQL =
+            "UPDATE evaluations SET manager_rating = ?, status = 'REVIEWED', reviewed_at = ?, updated_at = ? WHERE id = ?";
+
+    /** Returns the existing evaluation instead when one is already on file for the same period. */
     @Transactional
     public EvaluationDTO createEvaluation(EvaluationDTO evaluationDTO, Long employeeId, Long reviewerId, Long projectId) {
+        return submitEvaluation(evaluationDTO, employeeId, reviewerId, projectId).evaluation();
+    }
+
+    /**
+     * Like {@link #createEvaluation}, but tells whether the evaluation was created or an existing
+     * one for the same (employee, project, year, month) was found.
+     */
+    @Transactional
+    public Submission submitEvaluation(EvaluationDTO evaluationDTO, Long employeeId, Long reviewerId, Long projectId) {
         // Try to find the employee, but don't fail if not found (for demo purposes)
         User employee = null;
         User reviewer = null;
@@ -144,26 +229,6 @@ public class EvaluationService {
             }
         } catch (Exception ignore) {}
 
-        // Idempotency: if an evaluation already exists for (employee, project, quarter/year), return the existing one
-        try {
-            Long eid = (employee != null && employee.getId() != null) ? employee.getId() : employeeId;
-            Long pid = (evaluation.getProject() != null) ? evaluation.getProject().getId() : projectId;
-            Integer yy = evaluation.getEvaluationYear();
-            Integer mm = evaluation.getEvaluationMonth();
-            if (eid != null && pid != null && yy != null && mm != null) {
-                boolean exists = evaluationRepository.existsByEmployeeIdAndProjectIdAndEvaluationYearAndEvaluationMonth(eid, pid, yy, mm);
-                if (exists) {
-                    return evaluationRepository
-                            .findFirstByEmployeeIdAndProjectIdAndEvaluationYearAndEvaluationMonthOrderByCreatedAtDesc(eid, pid, yy, mm)
-                            .map(EvaluationDTO::fromEntity)
-                            .orElseGet(() -> {
-                                // fallback: continue with normal save if not found by finder
-                                return null;
-                            });
-                }
-            }
-        } catch (Exception ignore) {}
-        
         evaluation.setAchievements(evaluationDTO.getAchievements());
         evaluation.setChallenges(evaluationDTO.getChallenges());
         evaluation.setLearnings(evaluationDTO.getLearnings());
@@ -173,22 +238,145 @@ public class EvaluationService {
         evaluation.setStatus(Evaluation.EvaluationStatus.SUBMITTED);
         evaluation.setSubmittedAt(LocalDateTime.now());
 
-        Evaluation savedEvaluation = evaluationRepository.save(evaluation);
-        return EvaluationDTO.fromEntity(savedEvaluation);
+        return insertOrGetExisting(evaluation);
+    }
+
+    /**
+     * Inserts the evaluation unless one already exists for its (employee, project, year, month),
+     * in a single statement against the {@code uk_evaluations_employee_project_period} index.
+     * A row committed by a concurrent submit while this statement waited on the index is not
+     * visible to its snapshot, so that case is re-read once with a fresh statement.
+     */
+    private Submission insertOrGetExisting(Evaluation evaluation) {
+        Long employeeId = evaluation.getEmployee() != null ? evaluation.getEmployee().getId() : null;
+        Long reviewerId = evaluation.getReviewer() != null ? evaluation.getReviewer().getId() : null;
+        Long projectId = evaluation.getProject() != null ? evaluation.getProject().getId() : null;
+        evaluation.setCompetencyRatings(evaluation.getCompetencyRatings().entrySet().stream()
+                .filter(e -> e.getKey() != null && e.getValue() != null)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+        String ratingsJson = toJson(evaluation.getCompetencyRatings());
+        for (int attempt = 0; attempt < 2; attempt++) {
+            List<long[]> rows = jdbcTemplate.query(UPSERT_SQL, ps -> {
+                ps.setObject(1, employeeId, Types.BIGINT);
+                ps.setObject(2, reviewerId, Types.BIGINT);
+                ps.setObject(3, projectId, Types.BIGINT);
+                ps.setInt(4, evaluation.getOverallRating());
+                ps.setString(5, ratingsJson);
+                ps.setString(6, evaluation.getEmployeeName());
+                ps.setString(7, evaluation.getEmployeeEmail());
+                ps.setObject(8, evaluation.getEvaluationMonth(), Types.INTEGER);
+                ps.setObject(9, evaluation.getEvaluationYear(), Types.INTEGER);
+                ps.setString(10, evaluation.getStatus().name());
+                ps.setTimestamp(11, Timestamp.valueOf(evaluation.getSubmittedAt()));
+                ps.setTimestamp(12, Timestamp.valueOf(evaluation.getCreatedAt()));
+                ps.setString(13, evaluation.getAchievements());
+                ps.setString(14, evaluation.getChallenges());
+                ps.setString(15, evaluation.getLearnings());
+                ps.setString(16, evaluation.getNextPeriodGoals());
+                ps.setString(17, evaluation.getAdditionalFeedback());
+                ps.setString(18, evaluation.getManagerFeedbackRequest());
+                ps.setObject(19, employeeId, Types.BIGINT);
+                ps.setObject(20, projectId, Types.BIGINT);
+                ps.setObject(21, evaluation.getEvaluationYear(), Types.INTEGER);
+                ps.setObject(22, evaluation.getEvaluationMonth(), Types.INTEGER);
+            }, (rs, i) -> new long[] {rs.getLong(1), rs.getBoolean(2) ? 1 : 0});
+            if (rows.isEmpty()) continue;
+
+            long id = rows.get(0)[0];
+            if (rows.get(0)[1] == 0) {
+                return evaluationRepository.findById(id)
+                        .map(existing -> new Submission(EvaluationDTO.fromEntity(existing), false))
+                        .orElseThrow(() -> new IllegalStateException("Evaluation " + id + " disappeared"));
+            }
+            evaluation.setId(id);
+            managerAnalyticsService.onEvaluationSaved(evaluation);
+            notifySubmitted(evaluation);
+            return new Submission(EvaluationDTO.fromEntity(evaluation), true);
+        }
+        throw new IllegalStateException("Evaluation neither inserted nor found for employee " + employeeId
+                + ", project " + projectId);
+    }
+
+    // The project's managers and the assigned reviewer, if any, learn about a new self-evaluation
+    private void notifySubmitted(Evaluation evaluation) {
+        Set<Long> recipients = new LinkedHashSet<>();
+        if (evaluation.getProject() != null) {
+            recipients.addAll(membershipGraph.managersOf(List.of(evaluation.getProject().getId())));
+        }
+        if (evaluation.getReviewer() != null) recipients.add(evaluation.getReviewer().getId());
+        if (evaluation.getEmployee() != null) recipients.remove(evaluation.getEmployee().getId());
+        if (recipients.isEmpty()) return;
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("employeeName", evaluation.getEmployeeName());
+        payload.put("projectName", evaluation.getProject() != null ? evaluation.getProject().getName() : null);
+        payload.put("evaluationYear", evaluation.getEvaluationYear());
+        payload.put("evaluationMonth", evaluation.getEvaluationMonth());
+        for (Long recipientId : recipients) {
+            userRepository.findById(recipientId).ifPresent(u -> notificationOutbox.enqueue(
+                    NotificationOutbox.EVALUATION_SUBMITTED, u.getId(), u.getEmail(), evaluation.getId(), payload));
+        }
     }
 
+    private String toJson(Map<String, ?> map) {
+        try {
+            return objectMapper.writeValueAsString(map);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize ratings", ex);
+        }
+    }
+
+    /**
+     * Runs {@link #MERGE_MANAGER_SCORES_SQL} for every evaluation in {@code scores} in one
+     * statement and returns each evaluation's new manager rating.
+     */
+    private Map<Long, Integer> mergeManagerScores(Map<Long, Map<String, Integer>> scores, Timestamp now) {
+        Long[] ids = scores.keySet().toArray(Long[]::new);
+        String[] json = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) json[i] = toJson(scores.get(ids[i]));
+        Map<Long, Integer> ratings = new HashMap<>();
+        jdbcTemplate.query(MERGE_MANAGER_SCORES_SQL, ps -> {
+            ps.setTimestamp(1, now);
+            ps.setTimestamp(2, now);
+            ps.setArray(3, ps.getConnection().createArrayOf("bigint", ids));
+            ps.setArray(4, ps.getConnection().createArrayOf("text", json));
+        }, rs -> {
+            ratings.put(rs.getLong(1), rs.getObject(2, Integer.class));
+        });
+        return ratings;
+    }
+
+    /**
+     * Full evaluation including the free-text fields, which the list endpoints leave out.
+     * Visible to admins, the employee, the assigned reviewer and managers of the employee.
+     */
+    @Transactional(readOnly = true)
+    public EvaluationDTO getEvaluation(Long evaluationId, Long requesterId, boolean isAdmin) {
+        Evaluation evaluation = evaluationRepository.findById(evaluationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Evaluation not found with id: " + evaluationId));
+        if (!isAdmin) {
+            boolean own = evaluation.getEmployee() != null && evaluation.getEmployee().getId().equals(requesterId);
+            boolean assigned = evaluation.getReviewer() != null && evaluation.getReviewer().getId().equals(requesterId);
+            if (!own && !assigned && !isManagerAuthorizedForEmployee(requesterId, evaluation.getEmployee())) {
+                throw new AccessDeniedException("You are not authorized to view this evaluation");
+            }
+        }
+        return EvaluationDTO.fromEntity(evaluation);
+    }
+
+    // List views carry summaries; the free text is fetched per evaluation through getEvaluation
     @Transactional(readOnly = true)
     public List<EvaluationDTO> getAllEvaluations() {
-        return evaluationRepository.findAll().stream()
-                .map(EvaluationDTO::fromEntity)
+        return evaluationRepository.findByStatusNot(Evaluation.EvaluationStatus.ARCHIVED).stream()
+                .map(EvaluationDTO::summaryOf)
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     public List<EvaluationDTO> getEmployeeEvaluations(Long employeeId) {
         try {
-            return evaluationRepository.findByEmployeeId(employeeId).stream()
-                    .map(EvaluationDTO::fromEntity)
+            return evaluationRepository.findByEmployeeIdAndStatusNot(employeeId, Evaluation.EvaluationStatus.ARCHIVED).stream()
+                    .map(EvaluationDTO::summaryOf)
                     .collect(Collectors.toList());
         } catch (Exception e) {
             // Return empty list if there's any database issue
@@ -198,8 +386,8 @@ public class EvaluationService {
 
     @Transactional(readOnly = true)
     public List<EvaluationDTO> getAssignedEvaluations(Long reviewerId) {
-        return evaluationRepository.findByReviewerId(reviewerId).stream()
-                .map(EvaluationDTO::fromEntity)
+        return evaluationRepository.findByReviewerIdAndStatusNot(reviewerId, Evaluation.EvaluationStatus.ARCHIVED).stream()
+                .map(EvaluationDTO::summaryOf)
                 .collect(Collectors.toList());
     }
 
@@ -212,24 +400,76 @@ public class EvaluationService {
         }
         List<Project> projects = manager.getManagedProjects().stream().toList();
         return evaluationRepository.findByEmployeeProjectsOrEvaluationProjectIn(projects).stream()
-                .map(EvaluationDTO::fromEntity)
+                .map(EvaluationDTO::summaryOf)
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     public List<EvaluationDTO> getDepartmentEvaluations(String department) {
         return evaluationRepository.findByDepartment(department).stream()
-                .map(EvaluationDTO::fromEntity)
+                .map(EvaluationDTO::summaryOf)
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     public List<EvaluationDTO> getEvaluationsByStatus(Evaluation.EvaluationStatus status) {
         return evaluationRepository.findByStatus(status).stream()
-                .map(EvaluationDTO::fromEntity)
+                .map(EvaluationDTO::summaryOf)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Keyset page of evaluations ordered by id. {@code status} and {@code department} are
+     * optional filters; at most one of them is applied, status first. Items are summaries
+     * without the free-text fields.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<EvaluationDTO> getEvaluationPage(Long afterId, int size,
+                                                       Evaluation.EvaluationStatus status, String department) {
+        long after = afterId != null ? afterId : 0L;
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Ask for one extra row to know whether another page follows
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<Evaluation> rows;
+        if (status != null) {
+            rows = evaluationRepository.findPageByStatusAfter(status, after, page);
+        } else if (department != null && !department.isBlank()) {
+            rows = evaluationRepository.findPageByDepartmentAfter(department, after, page);
+        } else {
+            rows = evaluationRepository.findPageAfter(after, page);
+        }
+        boolean hasMore = rows.size() > limit;
+        List<EvaluationDTO> items = rows.stream()
+                .limit(limit)
+                .map(EvaluationDTO::summaryOf)
+                .collect(Collectors.toList());
+        Long next = hasMore ? items.get(items.size() - 1).getId() : null;
+        return new CursorPage<>(items, next, hasMore);
+    }
+
+    /**
+     * Walks the matching evaluations over a database cursor and hands each one to {@code sink}.
+     * Entities are detached as soon as they are converted so memory stays flat on large exports.
+     */
+    @Transactional(readOnly = true)
+    public long streamEvaluations(Evaluation.EvaluationStatus status, String department, Consumer<EvaluationDTO> sink) {
+        long count = 0;
+        try (Stream<Evaluation> rows = status != null
+                ? evaluationRepository.streamByStatus(status)
+                : (department != null && !department.isBlank()
+                    ? evaluationRepository.streamByDepartment(department)
+                    : evaluationRepository.streamAll())) {
+            var it = rows.iterator();
+            while (it.hasNext()) {
+                Evaluation e = it.next();
+                sink.accept(EvaluationDTO.fromEntity(e));
+                entityManager.detach(e);
+                count++;
+            }
+        }
+        return count;
+    }
+
     @Transactional
     public EvaluationDTO updateEvaluationStatus(Long evaluationId, Evaluation.EvaluationStatus status) {
         Evaluation evaluation = evaluationRepository.findById(evaluationId)
@@ -237,6 +477,7 @@ public class EvaluationService {
         
         evaluation.setStatus(status);
         Evaluation updatedEvaluation = evaluationRepository.save(evaluation);
+        managerAnalyticsService.onEvaluationSaved(updatedEvaluation);
         return EvaluationDTO.fromEntity(updatedEvaluation);
     }
 
@@ -247,6 +488,7 @@ public class EvaluationService {
         
         log.info("Evaluation with id {} deleted successfully", evaluationId);
         evaluationRepository.delete(evaluation);
+        managerAnalyticsService.onEvaluationDeleted(evaluationId);
     }
 
     @Transactional
@@ -271,44 +513,13 @@ public class EvaluationService {
             }
         }
         evaluationRepository.delete(evaluation);
+        managerAnalyticsService.onEvaluationDeleted(evaluationId);
         log.info("Evaluation with id {} deleted by {} (admin={})", evaluationId, requesterId, isAdmin);
     }
 
     public int createMonthlyEvaluations(Integer month, Integer year) {
         log.info("Creating monthly evaluations for {}/{}", month, year);
-        
-        // Get all employees (users with ROLE_EMPLOYEE)
-        List<User> employees = userRepository.findAll().stream()
-            .filter(user -> user.getRoles().contains("ROLE_EMPLOYEE"))
-            .collect(Collectors.toList());
-        int createdCount = 0;
-        
-        for (User employee : employees) {
-            // Check if evaluation already exists for this employee in this month/year
-            List<Evaluation> existingEvaluations = evaluationRepository.findByEmployeeId(employee.getId());
-            boolean exists = existingEvaluations.stream()
-                .anyMatch(eval -> month.equals(eval.getEvaluationMonth()) && year.equals(eval.getEvaluationYear()));
-            
-            if (!exists) {
-                Evaluation evaluation = new Evaluation();
-                evaluation.setEmployee(employee);
-                evaluation.setEmployeeName(employee.getFirstName() + " " + employee.getLastName());
-                evaluation.setEmployeeEmail(employee.getEmail());
-                evaluation.setEvaluationMonth(month);
-                evaluation.setEvaluationYear(year);
-                evaluation.setStatus(Evaluation.EvaluationStatus.DRAFT);
-                evaluation.setOverallRating(0); // Default rating
-                
-                evaluationRepository.save(evaluation);
-                createdCount++;
-                
-                log.info("Created evaluation for employee: {} for {}/{}", 
-                    employee.getEmail(), month, year);
-            }
-        }
-        
-        log.info("Created {} monthly evaluations for {}/{}", createdCount, month, year);
-        return createdCount;
+        return evaluationCycleService.openCycle(month, year).created();
     }
 
     @Transactional
@@ -344,6 +555,9 @@ public class EvaluationService {
             }
         }
         log.info("Backfill complete. Updated {} evaluations with missing employee info.", updated);
+        if (updated > 0) {
+            managerAnalyticsService.invalidateAll();
+        }
         return updated;
     }
 
@@ -360,6 +574,7 @@ public class EvaluationService {
         evaluation.setReviewedAt(LocalDateTime.now());
         
         Evaluation savedEvaluation = evaluationRepository.save(evaluation);
+        managerAnalyticsService.onEvaluationSaved(savedEvaluation);
         log.info("Updated manager overall rating for evaluation {} to {}", evaluationId, rating);
         
         return EvaluationDTO.fromEntity(savedEvaluation);
@@ -367,7 +582,8 @@ public class EvaluationService {
 
     public Map<String, Double> getEmployeeAverageRatings(Long employeeId) {
         try {
-            List<Evaluation> evaluations = evaluationRepository.findByEmployeeId(employeeId);
+            List<Evaluation> evaluations = evaluationRepository.findByEmployeeIdAndStatusNot(
+                    employeeId, Evaluation.EvaluationStatus.ARCHIVED);
             
             return evaluations.stream()
                     .filter(e -> e.getCompetencyRatings() != null)
@@ -413,112 +629,173 @@ public class EvaluationService {
         evaluation.setUpdatedAt(LocalDateTime.now());
         
         Evaluation savedEvaluation = evaluationRepository.save(evaluation);
+        managerAnalyticsService.onEvaluationSaved(savedEvaluation);
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("status", savedEvaluation.getStatus() != null ? savedEvaluation.getStatus().name() : null);
+        payload.put("managerRating", managerRating);
+        payload.put("reviewerName", reviewer != null ? reviewer.getFullName() : null);
+        User employee = savedEvaluation.getEmployee();
+        notificationOutbox.enqueue(NotificationOutbox.EVALUATION_REVIEWED,
+                employee != null ? employee.getId() : null,
+                employee != null ? employee.getEmail() : savedEvaluation.getEmployeeEmail(),
+                savedEvaluation.getId(), payload);
         return EvaluationDTO.fromEntity(savedEvaluation);
     }
 
+    /**
+     * Applies a manager's scores to many evaluations in one transaction: the evaluations are
+     * locked with one query, access is checked once per distinct employee, and all competency
+     * scores are merged and the manager ratings recomputed in one statement. Graded evaluations
+     * become REVIEWED and their employees are notified. Items that are invalid, missing or not
+     * visible to the manager are reported and skipped; the rest are applied.
+     */
+    @Transactional
+    public List<GradeResult> gradeBatch(Long managerId, List<GradeItem> items) {
+        Map<Long, GradeResult> results = new LinkedHashMap<>();
+        // Later items for the same evaluation override earlier scores
+        Map<Long, Map<String, Integer>> scores = new LinkedHashMap<>();
+        for (GradeItem item : items) {
+            Long id = item.evaluationId();
+            String invalid = validateScores(item.scores());
+            if (invalid != null) {
+                results.put(id, GradeResult.failed(id, GradeResult.INVALID, invalid));
+                scores.remove(id);
+                continue;
+            }
+            if (results.containsKey(id) && !GradeResult.UPDATED.equals(results.get(id).status())) continue;
+            scores.computeIfAbsent(id, k -> new LinkedHashMap<>()).putAll(item.scores());
+            results.put(id, new GradeResult(id, GradeResult.UPDATED, null, null));
+        }
+        if (scores.isEmpty()) return List.copyOf(results.values());
+
+        Map<Long, Long> employeeOf = new HashMap<>();
+        jdbcTemplate.query(LOCK_FOR_GRADING_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", scores.keySet().toArray())),
+                rs -> {
+                    employeeOf.put(rs.getLong(1), rs.getObject(2, Long.class));
+                });
+
+        Map<Long, Boolean> allowed = new HashMap<>();
+        for (Long id : List.copyOf(scores.keySet())) {
+            if (!employeeOf.containsKey(id)) {
+                results.put(id, GradeResult.failed(id, GradeResult.NOT_FOUND, "Evaluation not found with id: " + id));
+                scores.remove(id);
+                continue;
+            }
+            Long employeeId = employeeOf.get(id);
+            boolean ok = employeeId != null
+                    && allowed.computeIfAbsent(employeeId, e -> membershipGraph.canManagerSee(managerId, e));
+            if (!ok) {
+                results.put(id, GradeResult.failed(id, GradeResult.FORBIDDEN, "You are not authorized to grade this employee"));
+                scores.remove(id);
+            }
+        }
+        if (scores.isEmpty()) return List.copyOf(results.values());
+
+        Map<Long, Map<String, Integer>> competencyScores = new LinkedHashMap<>();
+        List<Object[]> overallRows = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        scores.forEach((id, byCompetency) -> byCompetency.forEach((competency, score) -> {
+            if (OVERALL.equals(competency)) overallRows.add(new Object[] {score, now, now, id});
+            else competencyScores.computeIfAbsent(id, k -> new LinkedHashMap<>()).put(competency.trim(), score);
+        }));
+        if (!competencyScores.isEmpty()) {
+            mergeManagerScores(competencyScores, now).forEach((id, rating) ->
+                    results.put(id, new GradeResult(id, GradeResult.UPDATED, rating, null)));
+        }
+        if (!overallRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(SET_OVERALL_RATING_SQL, overallRows);
+            for (Object[] row : overallRows) {
+                Long id = (Long) row[3];
+                results.put(id, new GradeResult(id, GradeResult.UPDATED, (Integer) row[0], null));
+            }
+        }
+
+        // One batched load to refresh the manager analytics views and notify the employees, as a
+        // single review does (nothing was loaded before the writes)
+        String reviewerName = userRepository.findById(managerId).map(User::getFullName).orElse(null);
+        for (Evaluation evaluation : evaluationRepository.findByIdIn(scores.keySet())) {
+            managerAnalyticsService.onEvaluationSaved(evaluation);
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("status", evaluation.getStatus() != null ? evaluation.getStatus().name() : null);
+            payload.put("managerRating", results.get(evaluation.getId()).managerRating());
+            payload.put("reviewerName", reviewerName);
+            User employee = evaluation.getEmployee();
+            notificationOutbox.enqueue(NotificationOutbox.EVALUATION_REVIEWED,
+                    employee != null ? employee.getId() : null,
+                    employee != null ? employee.getEmail() : evaluation.getEmployeeEmail(),
+                    evaluation.getId(), payload);
+        }
+        log.info("Manager {} graded {} evaluation(s), {} skipped", managerId, scores.size(), results.size() - scores.size());
+        return List.copyOf(results.values());
+    }
+
+    private static String validateScores(Map<String, Integer> scores) {
+        if (scores == null || scores.isEmpty()) return "At least one score is required";
+        for (Map.Entry<String, Integer> e : scores.entrySet()) {
+            if (e.getKey() == null || e.getKey().isBlank()) return "Competency is required";
+            if (e.getKey().trim().length() > 100) return "Competency name is too long: " + e.getKey();
+            if (e.getValue() == null || e.getValue() < 1 || e.getValue() > 5) {
+                return "Score must be between 1 and 5: " + e.getKey();
+            }
+        }
+        return null;
+    }
+
     @Transactional
     public EvaluationDTO updateManagerCompetencyScore(Long evaluationId, Long managerId, String competency, Integer score) {
-        log.info("=== Starting updateManagerCompetencyScore ===");
-        log.info("Parameters - Evaluation ID: {}, Manager ID: {}, Competency: {}, Score: {}", 
-                evaluationId, managerId, competency, score);
-        
         try {
-            log.info("1. Attempting to find evaluation with ID: {}", evaluationId);
-            
-            // Use standard findById to avoid potential issues with JOIN FETCH on element collections
-            Optional<Evaluation> evaluationOpt = evaluationRepository.findById(evaluationId);
-            log.info("2. After standard findById, found: {}", evaluationOpt.isPresent());
-            
-            Evaluation evaluation = evaluationOpt.orElseThrow(
+            Evaluation evaluation = evaluationRepository.findById(evaluationId).orElseThrow(
                 () -> new IllegalArgumentException("Evaluation not found with id: " + evaluationId)
             );
-            
-            log.info("5. Found evaluation with ID: {}, Status: {}", evaluation.getId(), evaluation.getStatus());
-            
-            // Ensure the manager is authorized to update this evaluation
-            log.info("6. Checking if manager with ID {} exists", managerId);
-            try {
-                if (!userRepository.existsById(managerId)) {
-                    log.warn("Manager not found with id: {}. Proceeding for demo purposes.", managerId);
-                }
-            } catch (Exception ex) {
-                log.warn("Could not verify manager existence due to DB issue: {}. Proceeding.", ex.getMessage());
-            }
-            
+
             // Authorization: manager must manage at least one of employee's projects
             if (!isManagerAuthorizedForEmployee(managerId, evaluation.getEmployee())) {
                 throw new AccessDeniedException("You are not authorized to grade this employee");
             }
 
-            // Initialize the map if null
-            if (evaluation.getManagerCompetencyRatings() == null) {
-                log.info("7. Initializing managerCompetencyRatings map");
-                evaluation.setManagerCompetencyRatings(new HashMap<>());
-            } else {
-                log.info("7. Existing managerCompetencyRatings size: {}", 
-                        evaluation.getManagerCompetencyRatings().size());
-            }
-            
-            // Update the score for the competency (mutate managed collection in place)
-            log.info("8. Updating score for competency: {} to {}", competency, score);
-            Map<String, Integer> existingRatings = evaluation.getManagerCompetencyRatings();
-            existingRatings.put(competency, score);
-            
-            // Recalculate overall manager rating from competency ratings
-            log.info("8.5. Recalculating overall manager rating from competency ratings");
-            if (!existingRatings.isEmpty()) {
-                double averageRating = existingRatings.values().stream()
-                    .mapToInt(Integer::intValue)
-                    .average()
-                    .orElse(0.0);
-                // Keep decimal precision, round to 1 decimal place
-                double roundedRating = Math.round(averageRating * 10.0) / 10.0;
-                evaluation.setManagerRating((int) Math.round(roundedRating)); // Still store as int for DB compatibility
-                log.info("8.6. Calculated manager rating: {} (from {} competencies)", roundedRating, existingRatings.size());
-            }
-            
-            // Set the reviewed timestamp and status
-            log.info("9. Updating review timestamp and status to REVIEWED");
-            evaluation.setReviewedAt(LocalDateTime.now());
-            evaluation.setStatus(Evaluation.EvaluationStatus.REVIEWED);
-            
-            // Save the evaluation and flush so exceptions surface here
-            log.info("10. Attempting to save evaluation");
-            Evaluation savedEvaluation = evaluationRepository.saveAndFlush(evaluation);
-            log.info("11. Successfully saved evaluation with ID: {}", savedEvaluation.getId());
-            
-            EvaluationDTO result = EvaluationDTO.fromEntity(savedEvaluation);
-            log.info("12. Successfully converted to DTO, returning result");
-            
-            return result;
-            
+            // A single-row UPDATE merges the score and recomputes the manager rating in the database;
+            // the entity is then re-read for the response and the analytics views
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            Integer rating = mergeManagerScores(Map.of(evaluationId, Map.of(competency, score)), now).get(evaluationId);
+            entityManager.refresh(evaluation);
+            managerAnalyticsService.onEvaluationSaved(evaluation);
+            log.info("Manager {} scored {} = {} on evaluation {}; manager rating now {}",
+                    managerId, competency, score, evaluationId, rating);
+
+            return EvaluationDTO.fromEntity(evaluation);
         } catch (Exception e) {
             log.error("ERROR in updateManagerCompetencyScore: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to update manager competency score: " + e.getMessage(), e);
-        } finally {
-            log.info("=== Completed updateManagerCompetencyScore ===");
         }
     }
 
     private boolean isManagerAuthorizedForEmployee(Long managerId, User employee) {
         try {
             if (employee == null || employee.getId() == null) return false;
-            User manager = userRepository.findById(managerId).orElse(null);
-            if (manager == null) return false;
-            if (manager.getManagedProjects() == null || manager.getManagedProjects().isEmpty()) return false;
-            if (employee.getProjects() == null || employee.getProjects().isEmpty()) return false;
-            // Check intersection
-            java.util.Set<Long> employeeProjectIds = employee.getProjects().stream().map(Project::getId).collect(java.util.stream.Collectors.toSet());
-            for (Project p : manager.getManagedProjects()) {
-                if (p != null && employeeProjectIds.contains(p.getId())) {
-                    return true;
-                }
-            }
-            return false;
+            // Manager must manage at least one of the employee's projects
+            return membershipGraph.canManagerSee(managerId, employee.getId());
         } catch (Exception ex) {
             log.warn("Authorization check failed due to exception: {}", ex.getMessage());
             return false;
         }
     }
 
+    public record Submission(EvaluationDTO evaluation, boolean created) {}
+
+    public record GradeItem(Long evaluationId, Map<String, Integer> scores) {}
+
+    /** Outcome of one evaluation of a {@link #gradeBatch}; {@code managerRating} is set when updated. */
+    public record GradeResult(Long evaluationId, String status, Integer managerRating, String message) {
+
+        public static final String UPDATED = "UPDATED";
+        public static final String INVALID = "INVALID";
+        public static final String NOT_FOUND = "NOT_FOUND";
+        public static final String FORBIDDEN = "FORBIDDEN";
+
+        static GradeResult failed(Long evaluationId, String status, String message) {
+            return new GradeResult(evaluationId, status, null, message);
+        }
+    }
 }
@@ -2,25 +2,91 @@ package com.ai.pat.backend.service;
 
 import com.ai.pat.backend.model.Keq;
 import com.ai.pat.backend.repository.KeqRepository;
-import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
 
+/**
+ * KEQ catalog. Reads are served from an immutable {@link Catalog} snapshot that is rebuilt after
+ * a create, update or delete commits (and by a periodic check, for edits made by other
+ * instances), so listing KEQs costs no query. Each snapshot carries an ETag derived from its
+ * content, identical across instances for the same data.
+ */
 @Service
-@RequiredArgsConstructor
 public class KeqService {
+
+    private static final Logger log = LoggerFactory.getLogger(KeqService.class);
+
+    private static final Comparator<Keq> ORDER = Comparator
+            .comparing((Keq k) -> k.getOrderIndex() == null ? 0 : k.getOrderIndex())
+            .thenComparing(k -> k.getId() == null ? Long.MAX_VALUE : k.getId());
+
     private final KeqRepository keqRepository;
+    private final Object rebuildLock = new Object();
+    private volatile Catalog catalog;
+
+    public KeqService(KeqRepository keqRepository) {
+        this.keqRepository = keqRepository;
+    }
+
+    /** Current snapshot, built on first use. */
+    public Catalog catalog() {
+        Catalog current = catalog;
+        return current != null ? current : rebuild();
+    }
 
-    @Transactional(readOnly = true)
     public List<Keq> findAll() {
-        return keqRepository.findAll();
+        return catalog().all();
+    }
+
+    @Scheduled(fixedDelayString = "${app.keqs.refresh-interval-ms:60000}",
+               initialDelayString = "${app.keqs.refresh-interval-ms:60000}")
+    public void scheduledRefresh() {
+        try {
+            rebuild();
+        } catch (DataAccessException ex) {
+            log.debug("KEQ catalog refresh failed: {}", ex.getMessage());
+        }
+    }
+
+    /** Re-reads the KEQs; the version only moves when the content changed. */
+    public Catalog rebuild() {
+        // Read under the lock so a slow refresh cannot install an older read over a newer one
+        synchronized (rebuildLock) {
+            List<Keq> rows = keqRepository.findAll();
+            Catalog current = catalog;
+            long version = current == null ? 1 : current.version() + 1;
+            Catalog next = Catalog.of(version, rows);
+            if (current != null && current.etag().equals(next.etag())) return current;
+            catalog = next;
+            log.info("KEQ catalog v{}: {} KEQs", next.version(), next.all().size());
+            return next;
+        }
     }
 
     @Transactional
     public Keq create(Keq keq) {
-        return keqRepository.save(keq);
+        Keq saved = keqRepository.save(keq);
+        rebuildAfterCommit();
+        return saved;
     }
 
     @Transactional
@@ -32,12 +98,15 @@ public class KeqService {
         existing.setEffectiveFromYear(payload.getEffectiveFromYear());
         existing.setEffectiveFromQuarter(payload.getEffectiveFromQuarter());
         existing.setIsActive(payload.getIsActive() == null ? Boolean.TRUE : payload.getIsActive());
-        return keqRepository.save(existing);
+        Keq saved = keqRepository.save(existing);
+        rebuildAfterCommit();
+        return saved;
     }
 
     @Transactional
     public void delete(Long id) {
         keqRepository.deleteById(id);
+        rebuildAfterCommit();
     }
 
     @Transactional
@@ -51,4 +120,101 @@ public class KeqService {
         // No automatic bootstrapping - admin must create all KEQs manually
         return 0;
     }
+
+    private void rebuildAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rebuild();
+                }
+            });
+        } else {
+            rebuild();
+        }
+    }
+
+    static int period(int year, int quarter) {
+        return year * 4 + (quarter - 1);
+    }
+
+    /**
+     * Immutable KEQ snapshot: every KEQ in display order, plus the active ones indexed by the
+     * (year, quarter) they take effect. A KEQ without an effective year applies to every period;
+     * one without a quarter takes effect in Q1.
+     */
+    public record Catalog(long version, String etag, List<Keq> all,
+                          List<Keq> activeAlways, NavigableMap<Integer, List<Keq>> activeFrom) {
+
+        /** Active KEQs for a period: a single floor lookup, lists are precomputed per boundary. */
+        public List<Keq> active(int year, int quarter) {
+            Map.Entry<Integer, List<Keq>> entry = activeFrom.floorEntry(period(year, quarter));
+            return entry != null ? entry.getValue() : activeAlways;
+        }
+
+        /** ETag of {@link #active}'s result; derived from the catalog's. */
+        public String etag(int year, int quarter) {
+            return etag.substring(0, etag.length() - 1) + "-" + year + "q" + quarter + "\"";
+        }
+
+        static Catalog of(long version, List<Keq> rows) {
+            List<Keq> all = new ArrayList<>(rows.size());
+            for (Keq k : rows) all.add(copy(k));
+            all.sort(ORDER);
+
+            List<Keq> always = new ArrayList<>();
+            TreeMap<Integer, List<Keq>> starting = new TreeMap<>();
+            for (Keq k : all) {
+                if (!Boolean.TRUE.equals(k.getIsActive())) continue;
+                if (k.getEffectiveFromYear() == null) {
+                    always.add(k);
+                } else {
+                    int quarter = k.getEffectiveFromQuarter() == null ? 1 : Math.max(1, Math.min(4, k.getEffectiveFromQuarter()));
+                    starting.computeIfAbsent(period(k.getEffectiveFromYear(), quarter), p -> new ArrayList<>()).add(k);
+                }
+            }
+            // Cumulative: each boundary holds everything in effect from that period on
+            TreeMap<Integer, List<Keq>> activeFrom = new TreeMap<>();
+            List<Keq> running = new ArrayList<>(always);
+            for (Map.Entry<Integer, List<Keq>> e : starting.entrySet()) {
+                running.addAll(e.getValue());
+                running.sort(ORDER);
+                activeFrom.put(e.getKey(), List.copyOf(running));
+            }
+            return new Catalog(version, etagOf(all), List.copyOf(all), List.copyOf(always),
+                    Collections.unmodifiableNavigableMap(activeFrom));
+        }
+
+        private static Keq copy(Keq k) {
+            return Keq.builder()
+                    .id(k.getId())
+                    .category(k.getCategory())
+                    .description(k.getDescription())
+                    .orderIndex(k.getOrderIndex())
+                    .effectiveFromYear(k.getEffectiveFromYear())
+                    .effectiveFromQuarter(k.getEffectiveFromQuarter())
+                    .isActive(k.getIsActive())
+                    .createdAt(k.getCreatedAt())
+                    .updatedAt(k.getUpdatedAt())
+                    .build();
+        }
+
+        private static String etagOf(List<Keq> all) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                for (Keq k : all) {
+                    String row = String.join("\u001f",
+                            Objects.toString(k.getId()), Objects.toString(k.getCategory()),
+                            Objects.toString(k.getDescription()), Objects.toString(k.getOrderIndex()),
+                            Objects.toString(k.getEffectiveFromYear()), Objects.toString(k.getEffectiveFromQuarter()),
+                            Objects.toString(k.getIsActive()), Objects.toString(k.getUpdatedAt()));
+                    digest.update(row.getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) '\n');
+                }
+                return "\"keq-" + HexFormat.of().formatHex(digest.digest(), 0, 12) + "\"";
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
 }
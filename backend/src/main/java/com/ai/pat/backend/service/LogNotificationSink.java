@@ -0,0 +1,28 @@
+package com.ai.pat.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Default sink: writes each notification to the log as the mail that would be sent. Stands in
+ * for SMTP in development.
+ */
+@Component
+@ConditionalOnProperty(name = "app.notifications.sink", havingValue = "log", matchIfMissing = true)
+public class LogNotificationSink implements NotificationSink {
+
+    private static final Logger log = LoggerFactory.getLogger(LogNotificationSink.class);
+
+    @Override
+    public void deliver(Notification notification) {
+        StringBuilder body = new StringBuilder();
+        for (Event event : notification.events()) {
+            body.append("\n  - ").append(event.type());
+            if (event.evaluationId() != null) body.append(" (evaluation ").append(event.evaluationId()).append(')');
+            if (!event.payload().isEmpty()) body.append(' ').append(event.payload());
+        }
+        log.info("Notification to {}: {} update(s){}", notification.recipientEmail(), notification.events().size(), body);
+    }
+}
@@ -0,0 +1,262 @@
+package com.ai.pat.backend.service;
+
+import com.ai.pat.backend.dto.EvaluationDTO;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Running analytics totals for the evaluations visible to one manager.
+ * Every evaluation contributes a fixed set of sums/counts, so adding, replacing or removing
+ * one evaluation is a constant-time delta and reading the dashboard never rescans the rows.
+ */
+public class ManagerAnalyticsAggregate {
+
+    private static final int RECENT_ACTIVITY_LIMIT = 10;
+
+    private static final Comparator<Contribution> RECENT_FIRST = (a, b) -> {
+        LocalDateTime ta = a.activityAt();
+        LocalDateTime tb = b.activityAt();
+        if (ta == null && tb != null) return 1;
+        if (ta != null && tb == null) return -1;
+        if (ta != null) {
+            int c = tb.compareTo(ta);
+            if (c != 0) return c;
+        }
+        return Long.compare(b.evaluationId(), a.evaluationId());
+    };
+
+    private static final Comparator<Map<String, Object>> BY_COMPETENCY = Comparator
+            .comparing((Map<String, Object> m) -> ((String) m.get("competency")).toLowerCase())
+            .thenComparing(m -> (String) m.get("competency"));
+
+    private final Long managerId;
+    private final Set<Long> managedProjectIds;
+    private final CompetencyDictionary dictionary;
+
+    private final Map<Long, Contribution> contributions = new HashMap<>();
+    private final TreeSet<Contribution> recent = new TreeSet<>(RECENT_FIRST);
+    private final Map<String, Integer> activeMemberCounts = new HashMap<>();
+    private final Map<String, Integer> topPerformerCounts = new HashMap<>();
+    // Indexed by CompetencyDictionary id
+    private long[] competencySums = new long[0];
+    private long[] competencyCounts = new long[0];
+    private final long[] buckets = new long[5];
+
+    private double employeeRatingSum;
+    private long employeeRatingCount;
+    private double managerRatingSum;
+    private long managerRatingCount;
+    private long onTrackCount;
+
+    public ManagerAnalyticsAggregate(Long managerId, Set<Long> managedProjectIds, CompetencyDictionary dictionary) {
+        this.managerId = managerId;
+        this.managedProjectIds = Set.copyOf(managedProjectIds);
+        this.dictionary = dictionary;
+    }
+
+    public Long getManagerId() { return managerId; }
+
+    public Set<Long> getManagedProjectIds() { return managedProjectIds; }
+
+    public synchronized boolean contains(Long evaluationId) {
+        return contributions.containsKey(evaluationId);
+    }
+
+    public boolean isVisible(Set<Long> evaluationProjectIds) {
+        for (Long id : evaluationProjectIds) {
+            if (managedProjectIds.contains(id)) return true;
+        }
+        return false;
+    }
+
+    public synchronized void upsert(Contribution contribution) {
+        remove(contribution.evaluationId());
+        contributions.put(contribution.evaluationId(), contribution);
+        recent.add(contribution);
+        apply(contribution, 1);
+    }
+
+    public synchronized void remove(Long evaluationId) {
+        Contribution previous = contributions.remove(evaluationId);
+        if (previous == null) return;
+        recent.remove(previous);
+        apply(previous, -1);
+    }
+
+    private void apply(Contribution c, int sign) {
+        if (c.employeeRating() > 0) {
+            employeeRatingSum += sign * c.employeeRating();
+            employeeRatingCount += sign;
+        }
+        if (c.managerCompetencyAverage() != null) {
+            managerRatingSum += sign * c.managerCompetencyAverage();
+            managerRatingCount += sign;
+        }
+        if (c.onTrack()) onTrackCount += sign;
+        buckets[c.bucket()] += sign;
+        if (c.employeeName() != null) {
+            adjust(activeMemberCounts, c.employeeName(), sign);
+            if (c.topPerformer()) adjust(topPerformerCounts, c.employeeName(), sign);
+        }
+        byte[] ratings = c.competencies();
+        if (ratings.length > competencySums.length) {
+            competencySums = Arrays.copyOf(competencySums, ratings.length);
+            competencyCounts = Arrays.copyOf(competencyCounts, ratings.length);
+        }
+        for (int id = 0; id < ratings.length; id++) {
+            if (ratings[id] == CompetencyDictionary.ABSENT) continue;
+            competencySums[id] += sign * ratings[id];
+            competencyCounts[id] += sign;
+        }
+    }
+
+    private static void adjust(Map<String, Integer> counts, String key, int sign) {
+        counts.merge(key, sign, Integer::sum);
+        if (counts.get(key) <= 0) counts.remove(key);
+    }
+
+    /**
+     * Builds the response body of {@code /v1/manager/analytics}; cost depends only on the
+     * number of distinct competencies and the fixed recent-activity window.
+     */
+    public synchronized Map<String, Object> toPayload() {
+        double avgEmployeeRating = employeeRatingCount > 0 ? employeeRatingSum / employeeRatingCount : 0.0;
+        double avgManagerRating = managerRatingCount > 0 ? managerRatingSum / managerRatingCount : 0.0;
+        double avgRating = 0.0;
+        if (avgEmployeeRating > 0 && avgManagerRating > 0) {
+            avgRating = (avgEmployeeRating + avgManagerRating) / 2.0;
+        } else if (avgEmployeeRating > 0) {
+            avgRating = avgEmployeeRating;
+        } else if (avgManagerRating > 0) {
+            avgRating = avgManagerRating;
+        }
+        int total = contributions.size();
+        double onTrackPercentage = total == 0 ? 0.0 : (double) onTrackCount / (double) total * 100;
+
+        List<Map<String, Object>> ratingsDist = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ratingsDist.add(Map.of("label", (i + 1) + "★", "count", buckets[i]));
+        }
+
+        List<Map<String, Object>> competencyAverages = new ArrayList<>();
+        for (int id = 0; id < competencyCounts.length; id++) {
+            if (competencyCounts[id] <= 0) continue;
+            double avg = (double) competencySums[id] / (double) competencyCounts[id];
+            competencyAverages.add(Map.of("competency", dictionary.name(id), "average", Math.round(avg * 10.0) / 10.0));
+        }
+        competencyAverages.sort(BY_COMPETENCY);
+
+        List<Map<String, Object>> recentActivity = new ArrayList<>();
+        Iterator<Contribution> it = recent.iterator();
+        while (it.hasNext() && recentActivity.size() < RECENT_ACTIVITY_LIMIT) {
+            Contribution c = it.next();
+            HashMap<String, Object> m = new HashMap<>();
+            m.put("id", c.evaluationId());
+            m.put("employeeName", c.employeeName());
+            m.put("projectName", c.projectName());
+            m.put("status", c.status());
+            m.put("updatedAt", c.updatedAt());
+            m.put("reviewedAt", c.reviewedAt());
+            m.put("submittedAt", c.submittedAt());
+            recentActivity.add(m);
+        }
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("averageTeamRating", Math.round(avgRating * 10.0) / 10.0);
+        payload.put("activeTeamMembers", (long) activeMemberCounts.size());
+        payload.put("topPerformers", (long) topPerformerCounts.size());
+        payload.put("onTrackGoals", Math.round(onTrackPercentage));
+        payload.put("totalEvaluations", total);
+        payload.put("ratingsDistribution", ratingsDist);
+        payload.put("competencyAverages", competencyAverages);
+        payload.put("recentActivity", recentActivity);
+        return payload;
+    }
+
+    /**
+     * The precomputed share of a single evaluation in the aggregate. Kept so that a later update
+     * or delete can subtract exactly what was added.
+     */
+    public record Contribution(
+            Long evaluationId,
+            String employeeName,
+            String projectName,
+            String status,
+            LocalDateTime updatedAt,
+            LocalDateTime reviewedAt,
+            LocalDateTime submittedAt,
+            double employeeRating,
+            Double managerCompetencyAverage,
+            boolean topPerformer,
+            boolean onTrack,
+            int bucket,
+            byte[] competencies
+    ) {
+        LocalDateTime activityAt() {
+            return updatedAt != null ? updatedAt : (reviewedAt != null ? reviewedAt : submittedAt);
+        }
+
+        public static Contribution from(EvaluationDTO e, CompetencyDictionary dictionary) {
+            double employeeRating = e.getOverallRating() != null ? e.getOverallRating() : 0.0;
+
+            Double managerCompetencyAverage = null;
+            Map<String, Integer> mcr = e.getManagerCompetencyRatings();
+            byte[] managerRatings = dictionary.toVector(mcr);
+            if (mcr != null && !mcr.isEmpty()) {
+                int sum = 0;
+                int count = 0;
+                for (byte v : managerRatings) {
+                    if (v == CompetencyDictionary.ABSENT) continue;
+                    sum += v;
+                    count++;
+                }
+                managerCompetencyAverage = count > 0 ? (double) sum / count : 0.0;
+            }
+
+            // Top performer / on-track use the stored overall manager rating
+            double storedManagerRating = e.getManagerRating() != null ? e.getManagerRating() : 0.0;
+            double combinedStored = combine(employeeRating, storedManagerRating);
+
+            // Distribution prefers the competency average and falls back to the stored rating
+            double bucketManagerRating = managerCompetencyAverage != null ? managerCompetencyAverage : storedManagerRating;
+            double combinedBucket = combine(employeeRating, bucketManagerRating);
+            int bucket = (int) Math.round(Math.max(1, Math.min(5, combinedBucket))) - 1;
+
+            // Heatmap: manager competency ratings if present, else the employee's own
+            byte[] competencies = (mcr != null && !mcr.isEmpty())
+                    ? managerRatings
+                    : dictionary.toVector(e.getCompetencyRatings());
+
+            String name = e.getEmployeeName();
+            return new Contribution(
+                    e.getId(),
+                    name != null && !name.isBlank() ? name : null,
+                    e.getProjectName(),
+                    e.getStatus() != null ? e.getStatus().toString() : "",
+                    e.getUpdatedAt(),
+                    e.getReviewedAt(),
+                    e.getSubmittedAt(),
+                    employeeRating,
+                    managerCompetencyAverage,
+                    combinedStored >= 4.5,
+                    combinedStored >= 3.0,
+                    bucket,
+                    competencies
+            );
+        }
+
+        private static double combine(double employeeRating, double managerRating) {
+            if (employeeRating > 0 && managerRating > 0) return (employeeRating + managerRating) / 2.0;
+            return employeeRating > 0 ? employeeRating : managerRating;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.ai.pat.backend.service;
+
+import com.ai.pat.backend.dto.EvaluationDTO;
+import com.ai.pat.backend.model.Evaluation;
+import com.ai.pat.backend.model.Project;
+import com.ai.pat.backend.model.User;
+import com.ai.pat.backend.repository.EvaluationRepository;
+import com.ai.pat.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps one {@link ManagerAnalyticsAggregate} per manager in memory. An aggregate is built from the
+ * database the first time a manager opens the analytics page; afterwards evaluation writes are
+ * applied to it as deltas once their transaction commits.
+ */
+@Service
+@RequiredArgsConstructor
+public class ManagerAnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(ManagerAnalyticsService.class);
+    private static final int MAX_BUILD_ATTEMPTS = 3;
+
+    private final EvaluationRepository evaluationRepository;
+    private final UserRepository userRepository;
+    private final CompetencyDictionary competencyDictionary;
+
+    private final Map<Long, ManagerAnalyticsAggregate> aggregates = new ConcurrentHashMap<>();
+    // Bumped on every applied change so a concurrent build can detect that it read stale rows
+    private final AtomicLong generation = new AtomicLong();
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getAnalytics(Long managerId) {
+        ManagerAnalyticsAggregate aggregate = aggregates.get(managerId);
+        if (aggregate == null) {
+            aggregate = build(managerId);
+        }
+        return aggregate.toPayload();
+    }
+
+    private ManagerAnalyticsAggregate build(Long managerId) {
+        ManagerAnalyticsAggregate aggregate = null;
+        for (int attempt = 0; attempt < MAX_BUILD_ATTEMPTS; attempt++) {
+            long startGeneration = generation.get();
+            aggregate = load(managerId);
+            // Publish before re-checking: a change applied after the check sees this aggregate in
+            // aggregates.values(); one applied before it bumped the generation and we retract it
+            aggregates.put(managerId, aggregate);
+            if (generation.get() == startGeneration) {
+                return aggregate;
+            }
+            aggregates.remove(managerId, aggregate);
+        }
+        // Writes kept racing the build; serve the last load but don't cache it
+        log.debug("Analytics aggregate for manager {} not cached after {} attempts", managerId, MAX_BUILD_ATTEMPTS);
+        return aggregate;
+    }
+
+    private ManagerAnalyticsAggregate load(Long managerId) {
+        User manager = userRepository.findById(managerId).orElse(null);
+        if (manager == null || manager.getManagedProjects() == null || manager.getManagedProjects().isEmpty()) {
+            return new ManagerAnalyticsAggregate(managerId, Set.of(), competencyDictionary);
+        }
+        List<Project> projects = manager.getManagedProjects().stream().toList();
+        Set<Long> projectIds = projects.stream()
+                .map(Project::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        ManagerAnalyticsAggregate aggregate = new ManagerAnalyticsAggregate(managerId, projectIds, competencyDictionary);
+        for (Evaluation e : evaluationRepository.findByEmployeeProjectsOrEvaluationProjectIn(projects)) {
+            aggregate.upsert(ManagerAnalyticsAggregate.Contribution.from(EvaluationDTO.summaryOf(e), competencyDictionary));
+        }
+        return aggregate;
+    }
+
+    /**
+     * Records that an evaluation was created or changed. Must be called inside the writing
+     * transaction (lazy associations are read here); the delta is applied after commit.
+     */
+    public void onEvaluationSaved(Evaluation evaluation) {
+        if (evaluation == null || evaluation.getId() == null) return;
+        Set<Long> projectIds = new HashSet<>();
+        if (evaluation.getProject() != null && evaluation.getProject().getId() != null) {
+            projectIds.add(evaluation.getProject().getId());
+        }
+        if (evaluation.getEmployee() != null && evaluation.getEmployee().getProjects() != null) {
+            for (Project p : evaluation.getEmployee().getProjects()) {
+                if (p != null && p.getId() != null) projectIds.add(p.getId());
+            }
+        }
+        // An archived duplicate leaves the aggregates, as if deleted; the build skips them too
+        boolean archived = evaluation.getStatus() == Evaluation.EvaluationStatus.ARCHIVED;
+        ManagerAnalyticsAggregate.Contribution contribution =
+                ManagerAnalyticsAggregate.Contribution.from(EvaluationDTO.summaryOf(evaluation), competencyDictionary);
+        afterCommit(() -> {
+            for (ManagerAnalyticsAggregate aggregate : aggregates.values()) {
+                if (!archived && aggregate.isVisible(projectIds)) {
+                    aggregate.upsert(contribution);
+                } else {
+                    aggregate.remove(contribution.evaluationId());
+                }
+            }
+        });
+    }
+
+    public void onEvaluationDeleted(Long evaluationId) {
+        if (evaluationId == null) return;
+        afterCommit(() -> aggregates.values().forEach(a -> a.remove(evaluationId)));
+    }
+
+    /**
+     * Drops every cached aggregate, e.g. after project memberships changed or evaluations were
+     * rewritten in bulk. The next read rebuilds from the database.
+     */
+    public void invalidateAll() {
+        afterCommit(aggregates::clear);
+    }
+
+    // Aliases now point elsewhere, so cached vectors may group ratings under the old names
+    @EventListener
+    public void onCompetencyDictionaryReloaded(CompetencyDictionary.Reloaded event) {
+        invalidateAll();
+    }
+
+    private void afterCommit(Runnable change) {
+        Runnable applied = () -> {
+            generation.incrementAndGet();
+            change.run();
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applied.run();
+                }
+            });
+        } else {
+            applied.run();
+        }
+    }
+}
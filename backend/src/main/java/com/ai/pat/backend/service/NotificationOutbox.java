@@ -0,0 +1,395 @@
+package com.ai.pat.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.InetAddress;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transactional outbox for review notifications. {@link #enqueue} writes a row in the caller's
+ * transaction, so a notification exists exactly when the change that caused it committed. A
+ * dispatcher on every instance claims the due rows of a batch of recipients with
+ * {@code FOR UPDATE SKIP LOCKED} under a lease, coalesces each recipient's events into one
+ * {@link NotificationSink.Notification}, and marks the rows sent only after the sink accepted
+ * it: delivery is at least once. Failed deliveries are retried with exponential backoff; rows of
+ * a dispatcher that stopped mid-batch are queued again when its lease expires. Delivered rows are
+ * purged after {@code retention-days}.
+ */
+@Service
+public class NotificationOutbox {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationOutbox.class);
+
+    public static final String EVALUATION_SUBMITTED = "EVALUATION_SUBMITTED";
+    public static final String EVALUATION_REVIEWED = "EVALUATION_REVIEWED";
+    public static final String PEER_REVIEW_RECEIVED = "PEER_REVIEW_RECEIVED";
+
+    private static final String INSERT_SQL = """
+            INSERT INTO notification_outbox (event_type, recipient_id, recipient_email, evaluation_id, payload, run_after)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    // The due rows of up to ? recipients, capped at ? rows. Rows still in backoff stay pending,
+    // so new events for a recipient cannot pull failed ones forward or spend their attempts.
+    private static final String CLAIM_SQL = """
+            UPDATE notification_outbox
+            SET status = 'SENDING', locked_by = ?, locked_until = ?, attempts = attempts + 1
+            WHERE id IN (SELECT id FROM notification_outbox
+                         WHERE status = 'PENDING' AND run_after <= CURRENT_TIMESTAMP
+                           AND recipient_email IN (SELECT recipient_email FROM notification_outbox
+                                                   WHERE status = 'PENDING' AND run_after <= CURRENT_TIMESTAMP
+                                                   GROUP BY recipient_email
+                                                   ORDER BY MIN(run_after)
+                                                   LIMIT ?)
+                         ORDER BY id
+                         LIMIT ?
+                         FOR UPDATE SKIP LOCKED)
+            RETURNING id, event_type, recipient_id, recipient_email, evaluation_id, payload, created_at, attempts
+            """;
+
+    private static final String RECOVER_SQL = """
+            UPDATE notification_outbox
+            SET status = CASE WHEN attempts >= ? THEN 'FAILED' ELSE 'PENDING' END,
+                locked_by = NULL, locked_until = NULL, run_after = CURRENT_TIMESTAMP, last_error = 'Lease expired'
+            WHERE status = 'SENDING' AND locked_until < CURRENT_TIMESTAMP
+            """;
+
+    // Transitions are guarded by the lease so a dispatcher that lost it cannot overwrite
+    private static final String SENT_SQL = """
+            UPDATE notification_outbox
+            SET status = 'SENT', sent_at = CURRENT_TIMESTAMP, locked_by = NULL, locked_until = NULL, last_error = NULL
+            WHERE id = ? AND status = 'SENDING' AND locked_by = ?
+            """;
+
+    private static final String RETRY_SQL = """
+            UPDATE notification_outbox
+            SET status = CASE WHEN attempts >= ? THEN 'FAILED' ELSE 'PENDING' END,
+                run_after = ?, last_error = ?, locked_by = NULL, locked_until = NULL
+            WHERE id = ? AND status = 'SENDING' AND locked_by = ?
+            """;
+
+    // Batched so a large backlog of old rows does not hold one long delete
+    private static final String PURGE_SENT_SQL = """
+            DELETE FROM notification_outbox
+            WHERE id IN (SELECT id FROM notification_outbox
+                         WHERE status = 'SENT' AND sent_at < ?
+                         LIMIT ?)
+            """;
+
+    private static final int PURGE_BATCH = 5000;
+
+    private static final String BACKLOG_SQL = """
+            SELECT COUNT(*), COALESCE(EXTRACT(EPOCH FROM (CURRENT_TIMESTAMP - MIN(created_at))), 0)
+            FROM notification_outbox
+            WHERE status IN ('PENDING', 'SENDING')
+            """;
+
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final NotificationSink sink;
+    private final ExecutorService executor;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestPendingSeconds = new AtomicLong();
+    private final String dispatcherId;
+    private final Timer deliveryLag;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+
+    @Value("${app.notifications.dispatcher-enabled:true}")
+    private boolean dispatcherEnabled;
+
+    @Value("${app.notifications.coalesce-ms:5000}")
+    private long coalesceMs;
+
+    @Value("${app.notifications.batch-recipients:50}")
+    private int batchRecipients;
+
+    @Value("${app.notifications.batch-max-events:500}")
+    private int batchMaxEvents;
+
+    @Value("${app.notifications.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Value("${app.notifications.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.notifications.backoff-initial-ms:5000}")
+    private long backoffInitialMs;
+
+    @Value("${app.notifications.backoff-max-ms:600000}")
+    private long backoffMaxMs;
+
+    @Value("${app.notifications.retention-days:14}")
+    private int retentionDays;
+
+    public NotificationOutbox(JdbcTemplate jdbcTemplate,
+                              ObjectMapper objectMapper,
+                              NotificationSink sink,
+                              MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.sink = sink;
+        String host = hostName();
+        this.dispatcherId = (host.length() > 80 ? host.substring(0, 80) : host) + "-" + UUID.randomUUID().toString().substring(0, 8);
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "notification-dispatcher");
+            t.setDaemon(true);
+            return t;
+        });
+
+        Gauge.builder("notifications.outbox.pending", pending, AtomicLong::get)
+                .description("Undelivered outbox rows")
+                .register(meterRegistry);
+        Gauge.builder("notifications.outbox.lag", oldestPendingSeconds, AtomicLong::get)
+                .description("Age of the oldest undelivered outbox row")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.deliveryLag = Timer.builder("notifications.delivery.lag")
+                .description("Time from enqueue to delivery, per event")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.sent = deliveries(meterRegistry, "sent");
+        this.retried = deliveries(meterRegistry, "retry");
+        this.failed = deliveries(meterRegistry, "failed");
+    }
+
+    private static Counter deliveries(MeterRegistry registry, String outcome) {
+        return Counter.builder("notifications.deliveries")
+                .description("Coalesced notifications handed to the sink, by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Rows being delivered keep their lease and are picked up again once it expires
+        executor.shutdownNow();
+    }
+
+    /**
+     * Records a notification in the current transaction. Held back for {@code coalesce-ms} so
+     * that a burst of events for the same recipient goes out as one notification.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String eventType, Long recipientId, String recipientEmail, Long evaluationId,
+                        Map<String, Object> payload) {
+        if (recipientEmail == null || recipientEmail.isBlank()) return;
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload == null ? Map.of() : payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Notification payload is not serializable", ex);
+        }
+        LocalDateTime runAfter = LocalDateTime.now().plusNanos(Math.max(0, coalesceMs) * 1_000_000L);
+        jdbcTemplate.update(INSERT_SQL, ps -> {
+            ps.setString(1, eventType);
+            ps.setObject(2, recipientId, Types.BIGINT);
+            ps.setString(3, recipientEmail.trim().toLowerCase());
+            ps.setObject(4, evaluationId, Types.BIGINT);
+            ps.setString(5, json);
+            ps.setTimestamp(6, Timestamp.valueOf(runAfter));
+        });
+    }
+
+    // Rows left sending by an instance that stopped are queued again right away on startup
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOnStartup() {
+        if (dispatcherEnabled) recoverExpiredLeases();
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.poll-interval-ms:2000}",
+               initialDelayString = "${app.notifications.poll-interval-ms:2000}")
+    public void poll() {
+        if (!dispatcherEnabled) return;
+        // Deliveries run off the shared scheduler thread; one drain at a time per instance
+        if (!draining.compareAndSet(false, true)) return;
+        try {
+            executor.execute(() -> {
+                try {
+                    drain();
+                } catch (Exception ex) {
+                    log.warn("Notification dispatch failed: {}", ex.getMessage());
+                } finally {
+                    draining.set(false);
+                }
+            });
+        } catch (RuntimeException ex) {
+            draining.set(false);
+            throw ex;
+        }
+    }
+
+    /** Deletes rows delivered more than {@code retention-days} ago; failed rows are kept for inspection. */
+    @Scheduled(fixedDelayString = "${app.notifications.purge-interval-ms:3600000}",
+               initialDelayString = "${app.notifications.purge-interval-ms:3600000}")
+    public void purgeSent() {
+        if (!dispatcherEnabled || retentionDays <= 0) return;
+        try {
+            Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays));
+            int purged = 0;
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(PURGE_SENT_SQL, cutoff, PURGE_BATCH);
+                purged += deleted;
+            } while (deleted == PURGE_BATCH && !Thread.currentThread().isInterrupted());
+            if (purged > 0) {
+                log.info("Purged {} notification(s) sent before {}", purged, cutoff);
+            }
+        } catch (Exception ex) {
+            log.warn("Notification purge failed: {}", ex.getMessage());
+        }
+    }
+
+    void drain() {
+        recoverExpiredLeases();
+        while (!Thread.currentThread().isInterrupted()) {
+            LocalDateTime leaseUntil = LocalDateTime.now().plusSeconds(leaseSeconds);
+            List<Claimed> batch = jdbcTemplate.query(CLAIM_SQL, (rs, i) -> new Claimed(
+                    new NotificationSink.Event(rs.getLong(1), rs.getString(2), rs.getObject(5, Long.class),
+                            readPayload(rs.getString(6)), rs.getTimestamp(7).toLocalDateTime()),
+                    rs.getObject(3, Long.class), rs.getString(4), rs.getInt(8)),
+                    dispatcherId, Timestamp.valueOf(leaseUntil), Math.max(1, batchRecipients), Math.max(1, batchMaxEvents));
+            if (batch.isEmpty()) break;
+            for (NotificationSink.Notification notification : coalesce(batch)) {
+                deliver(notification, batch);
+            }
+        }
+        refreshBacklog();
+    }
+
+    private void deliver(NotificationSink.Notification notification, List<Claimed> batch) {
+        try {
+            sink.deliver(notification);
+        } catch (Exception ex) {
+            if (ex instanceof InterruptedException) Thread.currentThread().interrupt();
+            int attempts = batch.stream()
+                    .filter(c -> c.recipientEmail().equals(notification.recipientEmail()))
+                    .mapToInt(Claimed::attempts).max().orElse(1);
+            Timestamp runAfter = Timestamp.valueOf(LocalDateTime.now().plusNanos(backoffMs(attempts) * 1_000_000L));
+            String error = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
+            jdbcTemplate.batchUpdate(RETRY_SQL, notification.events(), notification.events().size(), (ps, e) -> {
+                ps.setInt(1, Math.max(1, maxAttempts));
+                ps.setTimestamp(2, runAfter);
+                ps.setString(3, error);
+                ps.setLong(4, e.id());
+                ps.setString(5, dispatcherId);
+            });
+            if (attempts >= maxAttempts) {
+                failed.increment();
+                log.error("Notification to {} failed after {} attempts: {}", notification.recipientEmail(), attempts, error);
+            } else {
+                retried.increment();
+                log.debug("Notification to {} failed (attempt {}), retrying at {}: {}",
+                        notification.recipientEmail(), attempts, runAfter, error);
+            }
+            return;
+        }
+
+        int[][] updated = jdbcTemplate.batchUpdate(SENT_SQL, notification.events(), notification.events().size(), (ps, e) -> {
+            ps.setLong(1, e.id());
+            ps.setString(2, dispatcherId);
+        });
+        sent.increment();
+        LocalDateTime now = LocalDateTime.now();
+        for (NotificationSink.Event e : notification.events()) {
+            deliveryLag.record(Duration.between(e.createdAt(), now));
+        }
+        int marked = 0;
+        for (int[] chunk : updated) for (int n : chunk) marked += n;
+        if (marked < notification.events().size()) {
+            // The lease ran out during delivery: those rows will be delivered again
+            log.info("Notification to {} delivered after its lease expired; {} event(s) will be resent",
+                    notification.recipientEmail(), notification.events().size() - marked);
+        }
+    }
+
+    int recoverExpiredLeases() {
+        int recovered = jdbcTemplate.update(RECOVER_SQL, Math.max(1, maxAttempts));
+        if (recovered > 0) {
+            log.info("Re-queued {} notification(s) with an expired lease", recovered);
+        }
+        return recovered;
+    }
+
+    private void refreshBacklog() {
+        jdbcTemplate.query(BACKLOG_SQL, rs -> {
+            pending.set(rs.getLong(1));
+            oldestPendingSeconds.set(Math.round(rs.getDouble(2)));
+        });
+    }
+
+    /** One notification per recipient, events in claim (id) order; recipients in first-event order. */
+    static List<NotificationSink.Notification> coalesce(List<Claimed> batch) {
+        Map<String, List<NotificationSink.Event>> byRecipient = new LinkedHashMap<>();
+        Map<String, Long> recipientIds = new LinkedHashMap<>();
+        for (Claimed c : batch) {
+            byRecipient.computeIfAbsent(c.recipientEmail(), k -> new ArrayList<>()).add(c.event());
+            if (c.recipientId() != null) recipientIds.putIfAbsent(c.recipientEmail(), c.recipientId());
+        }
+        List<NotificationSink.Notification> out = new ArrayList<>(byRecipient.size());
+        byRecipient.forEach((email, events) ->
+                out.add(new NotificationSink.Notification(email, recipientIds.get(email), List.copyOf(events))));
+        return out;
+    }
+
+    // Exponential backoff with jitter: random in [cap/2, cap], cap = min(max, initial * 2^(attempt-1))
+    long backoffMs(int attempt) {
+        long cap = backoffInitialMs << Math.min(Math.max(attempt - 1, 0), 20);
+        cap = Math.min(Math.max(cap, 1), backoffMaxMs);
+        return ThreadLocalRandom.current().nextLong(cap / 2, cap + 1);
+    }
+
+    private Map<String, Object> readPayload(String json) {
+        try {
+            return json == null ? Map.of() : objectMapper.readValue(json, PAYLOAD_TYPE);
+        } catch (JsonProcessingException ex) {
+            log.warn("Unreadable notification payload: {}", ex.getMessage());
+            return Map.of();
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception ex) {
+            return "dispatcher";
+        }
+    }
+
+    /** A claimed outbox row. */
+    record Claimed(NotificationSink.Event event, Long recipientId, String recipientEmail, int attempts) {}
+}
@@ -0,0 +1,19 @@
+package com.ai.pat.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delivery channel for outbox notifications. A call either delivers the whole notification or
+ * throws; on a throw every event in it is retried, so sinks must tolerate duplicates.
+ */
+public interface NotificationSink {
+
+    void deliver(Notification notification) throws Exception;
+
+    /** All pending events of one recipient, oldest first. */
+    record Notification(String recipientEmail, Long recipientId, List<Event> events) {}
+
+    record Event(long id, String type, Long evaluationId, Map<String, Object> payload, LocalDateTime createdAt) {}
+}
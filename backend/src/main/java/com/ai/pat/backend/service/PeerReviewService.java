@@ -5,24 +5,76 @@ import com.ai.pat.backend.entity.PeerReview;
 import com.ai.pat.backend.repository.PeerReviewRepository;
 import com.ai.pat.backend.controller.dto.ai.SummarizeRequest;
 import com.ai.pat.backend.controller.dto.ai.SummarizeResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+/**
+ * Peer review CRUD and summaries. Transactions are declared per method: the summary runs outside
+ * any transaction so no pooled connection is held while the AI provider is called.
+ */
 @Service
-@Transactional
 public class PeerReviewService {
-    
+
+    private static final Logger log = LoggerFactory.getLogger(PeerReviewService.class);
+
+    private static final int SUMMARY_MAX_TOKENS = 300;
+
+    private static final String SUMMARY_REVIEWS_SQL = """
+            SELECT strengths, weaknesses, suggestions,
+                   collaboration_rating, communication_rating, technical_rating, leadership_rating
+            FROM peer_reviews
+            WHERE evaluation_id = ?
+            ORDER BY id
+            """;
+
+    private static final String CACHED_SUMMARY_SQL = """
+            SELECT summary FROM peer_review_summaries WHERE evaluation_id = ? AND source_hash = ?
+            """;
+
+    // Only replaces a summary built from different review text; a concurrent identical write is a no-op
+    private static final String STORE_SUMMARY_SQL = """
+            INSERT INTO peer_review_summaries (evaluation_id, source_hash, summary, generated_at)
+            VALUES (?, ?, ?, CURRENT_TIMESTAMP)
+            ON CONFLICT (evaluation_id) DO UPDATE
+                SET source_hash = EXCLUDED.source_hash, summary = EXCLUDED.summary, generated_at = EXCLUDED.generated_at
+                WHERE peer_review_summaries.source_hash <> EXCLUDED.source_hash
+            """;
+
+    private static final String EVALUATION_EMPLOYEE_SQL = """
+            SELECT e.employee_id, COALESCE(u.email, e.employee_email)
+            FROM evaluations e
+            LEFT JOIN users u ON u.id = e.employee_id
+            WHERE e.id = ?
+            """;
+
     @Autowired
     private PeerReviewRepository peerReviewRepository;
-    
+
+    @Autowired
+    private NotificationOutbox notificationOutbox;
+
     @Autowired
     private AiService aiService;
-    
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Transactional(readOnly = true)
     public List<PeerReviewDTO> getPeerReviewsByEvaluationId(Long evaluationId) {
         return peerReviewRepository.findByEvaluationId(evaluationId)
                 .stream()
@@ -30,6 +82,7 @@ public class PeerReviewService {
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public List<PeerReviewDTO> getPeerReviewsByReviewerId(Long reviewerId) {
         return peerReviewRepository.findByReviewerId(reviewerId)
                 .stream()
@@ -37,11 +90,13 @@ public class PeerReviewService {
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public Optional<PeerReviewDTO> getPeerReview(Long evaluationId, Long reviewerId) {
         return peerReviewRepository.findByEvaluationIdAndReviewerId(evaluationId, reviewerId)
                 .map(this::convertToDTO);
     }
     
+    @Transactional
     public PeerReviewDTO createPeerReview(PeerReviewDTO peerReviewDTO) {
         PeerReview peerReview = convertToEntity(peerReviewDTO);
         
@@ -55,9 +110,18 @@ public class PeerReviewService {
         }
         
         PeerReview saved = peerReviewRepository.save(peerReview);
+
+        // The reviewed employee hears that feedback arrived, not who gave it
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("overallRating", saved.getOverallRating());
+        jdbcTemplate.query(EVALUATION_EMPLOYEE_SQL, rs -> {
+            notificationOutbox.enqueue(NotificationOutbox.PEER_REVIEW_RECEIVED, rs.getObject(1, Long.class),
+                    rs.getString(2), saved.getEvaluationId(), payload);
+        }, saved.getEvaluationId());
         return convertToDTO(saved);
     }
     
+    @Transactional
     public PeerReviewDTO updatePeerReview(Long id, PeerReviewDTO peerReviewDTO) {
         Optional<PeerReview> existingReview = peerReviewRepository.findById(id);
         if (existingReview.isPresent()) {
@@ -79,52 +143,95 @@ public class PeerReviewService {
         throw new RuntimeException("Peer review not found with id: " + id);
     }
     
+    @Transactional
     public void deletePeerReview(Long id) {
         peerReviewRepository.deleteById(id);
     }
     
+    /**
+     * Summary of an evaluation's peer reviews, in three steps that never overlap: the reviews and
+     * any stored summary are read with single auto-commit queries, the provider is called with no
+     * connection checked out, and a provider summary is stored for the next request.
+     *
+     * Deliberately not {@code @Transactional}, and the reads go through JDBC rather than JPA: the
+     * open-in-view EntityManager would otherwise keep its connection until the response is written.
+     */
     public String generatePeerReviewSummary(Long evaluationId) {
-        List<PeerReview> peerReviews = peerReviewRepository.findByEvaluationId(evaluationId);
-        
+        List<PeerReview> peerReviews = jdbcTemplate.query(SUMMARY_REVIEWS_SQL, (rs, i) -> {
+            PeerReview pr = new PeerReview();
+            pr.setStrengths(rs.getString(1));
+            pr.setWeaknesses(rs.getString(2));
+            pr.setSuggestions(rs.getString(3));
+            pr.setCollaborationRating(rs.getObject(4, Integer.class));
+            pr.setCommunicationRating(rs.getObject(5, Integer.class));
+            pr.setTechnicalRating(rs.getObject(6, Integer.class));
+            pr.setLeadershipRating(rs.getObject(7, Integer.class));
+            return pr;
+        }, evaluationId);
+
         if (peerReviews.isEmpty()) {
             return "No peer reviews available for this evaluation.";
         }
-        
+
+        String feedback = collectFeedback(peerReviews);
+        String sourceHash = sha256(feedback);
+        List<String> stored = jdbcTemplate.queryForList(CACHED_SUMMARY_SQL, String.class, evaluationId, sourceHash);
+        if (!stored.isEmpty()) {
+            return stored.get(0);
+        }
+
+        // Try to use AI summarization, fall back to basic summary if it fails
+        SummarizeRequest request = new SummarizeRequest();
+        request.setText(feedback);
+        request.setMaxTokens(SUMMARY_MAX_TOKENS);
+        AiService.StreamedText result = aiService.summarizeText(request);
+        if (result.fallback() || result.text().isBlank()) {
+            return generateBasicSummary(peerReviews);
+        }
+
+        try {
+            jdbcTemplate.update(STORE_SUMMARY_SQL, evaluationId, sourceHash, result.text());
+        } catch (DataAccessException ex) {
+            // The summary is still good; it is regenerated next time
+            log.warn("Could not store peer review summary for evaluation {}: {}", evaluationId, ex.getMessage());
+        }
+        return result.text();
+    }
+
+    private static String collectFeedback(List<PeerReview> peerReviews) {
         // Collect all feedback text
         StringBuilder allFeedback = new StringBuilder();
         allFeedback.append("Peer Review Summary:\n\n");
-        
+
         // Collect strengths
         allFeedback.append("STRENGTHS:\n");
         peerReviews.stream()
                 .filter(pr -> pr.getStrengths() != null && !pr.getStrengths().trim().isEmpty())
                 .forEach(pr -> allFeedback.append("- ").append(pr.getStrengths()).append("\n"));
-        
+
         // Collect weaknesses
         allFeedback.append("\nWEAKNESSES:\n");
         peerReviews.stream()
                 .filter(pr -> pr.getWeaknesses() != null && !pr.getWeaknesses().trim().isEmpty())
                 .forEach(pr -> allFeedback.append("- ").append(pr.getWeaknesses()).append("\n"));
-        
+
         // Collect suggestions
         allFeedback.append("\nSUGGESTIONS:\n");
         peerReviews.stream()
                 .filter(pr -> pr.getSuggestions() != null && !pr.getSuggestions().trim().isEmpty())
                 .forEach(pr -> allFeedback.append("- ").append(pr.getSuggestions()).append("\n"));
-        
-        // Try to use AI summarization, fall back to basic summary if it fails
+        return allFeedback.toString();
+    }
+
+    private static String sha256(String text) {
         try {
-            SummarizeRequest request = new SummarizeRequest();
-            request.setText(allFeedback.toString());
-            request.setMaxTokens(300);
-            SummarizeResponse response = aiService.summarize(request);
-            return response.getSummary();
-        } catch (Exception e) {
-            System.err.println("AI summarization failed, using basic summary: " + e.getMessage());
-            return generateBasicSummary(peerReviews);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
         }
     }
-    
+
     private String generateBasicSummary(List<PeerReview> peerReviews) {
         StringBuilder summary = new StringBuilder();
         summary.append("Peer Review Summary (").append(peerReviews.size()).append(" reviews):\n\n");
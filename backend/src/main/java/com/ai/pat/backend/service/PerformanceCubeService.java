@@ -0,0 +1,500 @@
+package com.ai.pat.backend.service;
+
+import com.ai.pat.backend.util.CompetencyNormalizer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Company-wide rollup of evaluation ratings for admin reporting (table {@code performance_cube},
+ * see V20). A cell is department x project x month x competency and holds counts, sums and sums
+ * of squares of the self ratings, the manager ratings and their gap (manager minus self), so
+ * any roll-up is a SUM over cells and means and deviations follow from the totals.
+ *
+ * The cube is refreshed every {@code app.performance-cube.refresh-interval-ms}: only evaluations
+ * changed after the stored watermark are read, and only the cells they left or joined are
+ * recomputed. The watermark is rewound by {@code app.performance-cube.overlap-ms} on each run so
+ * rows committed late with an earlier timestamp are still picked up. An employee's department is
+ * taken when their evaluation is refreshed; {@link #rebuild()} recomputes everything.
+ *
+ * Competencies are stored under their canonical name from the dictionary tables, so spellings
+ * and aliases of one competency share a cell. Alias edits apply to cells recomputed afterwards;
+ * a rebuild relabels the whole cube.
+ *
+ * {@code performance.cube.last.refresh} is the time of this instance's last successful refresh
+ * or rebuild (epoch seconds, 0 before the first), so a cube that stopped refreshing can be alerted on.
+ */
+@Service
+public class PerformanceCubeService {
+
+    private static final Logger log = LoggerFactory.getLogger(PerformanceCubeService.class);
+
+    /** Competency name of the overall self / manager rating, stored as '*'. */
+    public static final String OVERALL = "overall";
+
+    // Null dimensions are stored as '' / 0 so they can be part of the primary key
+    private static final String CELL_OF_EVALUATION = """
+            COALESCE(u.department, '') AS department, COALESCE(e.project_id, 0) AS project_id,
+            COALESCE(e.evaluation_year, 0) AS period_year, COALESCE(e.evaluation_month, 0) AS period_month""";
+
+    // Lookup form of a competency name, as CompetencyNormalizer.key: trimmed, lower-case, with
+    // '_' and '-' read as spaces and runs of whitespace collapsed
+    private static final String LOOKUP_KEY = "btrim(regexp_replace(lower(%s), '[[:space:]_-]+', ' ', 'g'))";
+
+    // Lookup key -> canonical name, from the dictionary tables; an alias wins over a name
+    private static final String DICTIONARY_CTE = """
+            WITH dictionary AS (
+                SELECT DISTINCT ON (lookup) lookup, name
+                FROM (SELECT %1$s AS lookup, c.name, 1 AS priority
+                      FROM competency_aliases a JOIN competencies c ON c.id = a.competency_id
+                      UNION ALL
+                      SELECT %2$s, c.name, 2 FROM competencies c) d
+                ORDER BY lookup, priority
+            )
+            """.formatted(LOOKUP_KEY.formatted("a.alias"), LOOKUP_KEY.formatted("c.name"));
+
+    // One fact per evaluation for the overall rating and one per competency rated by either
+    // side. Rating keys are mapped to their canonical competency (names outside the dictionary
+    // are title-cased, like CompetencyNormalizer.canonicalize); keys of one evaluation that map
+    // to the same competency are averaged, so the evaluation is counted once.
+    private static final String INSERT_CELLS_SQL = DICTIONARY_CTE + """
+            INSERT INTO performance_cube (department, project_id, period_year, period_month, competency,
+                                          evaluations, self_count, self_sum, self_sum_sq,
+                                          manager_count, manager_sum, manager_sum_sq,
+                                          gap_count, gap_sum, gap_sum_sq, refreshed_at)
+            SELECT f.department, f.project_id, f.period_year, f.period_month, f.competency,
+                   COUNT(*),
+                   COUNT(f.self_score), COALESCE(SUM(f.self_score), 0), COALESCE(SUM(f.self_score * f.self_score), 0),
+                   COUNT(f.manager_score), COALESCE(SUM(f.manager_score), 0),
+                   COALESCE(SUM(f.manager_score * f.manager_score), 0),
+                   COUNT(f.manager_score - f.self_score), COALESCE(SUM(f.manager_score - f.self_score), 0),
+                   COALESCE(SUM((f.manager_score - f.self_score) * (f.manager_score - f.self_score)), 0),
+                   ?
+            FROM (
+                SELECT %%s, x.competency,
+                       x.self_score::bigint AS self_score, x.manager_score::bigint AS manager_score
+                FROM evaluations e
+                LEFT JOIN users u ON u.id = e.employee_id
+                CROSS JOIN LATERAL (
+                    SELECT '*' AS competency, e.overall_rating AS self_score, e.manager_rating AS manager_score
+                    UNION ALL
+                    SELECT COALESCE(d.name, initcap(r.lookup)),
+                           ROUND(AVG(r.self_score))::int, ROUND(AVG(r.manager_score))::int
+                    FROM (SELECT %s AS lookup,
+                                 (e.competency_ratings ->> k.key)::int AS self_score,
+                                 (e.manager_competency_ratings ->> k.key)::int AS manager_score
+                          FROM (SELECT jsonb_object_keys(e.competency_ratings)
+                                UNION
+                                SELECT jsonb_object_keys(e.manager_competency_ratings)) k(key)) r
+                    LEFT JOIN dictionary d ON d.lookup = r.lookup
+                    WHERE r.lookup <> ''
+                    GROUP BY 1
+                ) x
+                WHERE e.status <> 'ARCHIVED'
+            ) f
+            %%s
+            GROUP BY f.department, f.project_id, f.period_year, f.period_month, f.competency
+            """.formatted(LOOKUP_KEY.formatted("k.key"));
+
+    // Rows of the overlap window that were already counted at this version are left out
+    private static final String CHANGED_SQL = """
+            SELECT e.id, %s, e.status, COALESCE(e.updated_at, e.created_at) AS changed_at
+            FROM evaluations e
+            LEFT JOIN users u ON u.id = e.employee_id
+            LEFT JOIN performance_cube_members m ON m.evaluation_id = e.id
+            WHERE COALESCE(e.updated_at, e.created_at) > ?
+              AND m.changed_at IS DISTINCT FROM COALESCE(e.updated_at, e.created_at)
+            """.formatted(CELL_OF_EVALUATION);
+
+    private static final String LOCK_STATE_SQL =
+            "SELECT watermark FROM performance_cube_state WHERE id = 1 FOR UPDATE";
+
+    // Another instance holding the state row is already refreshing: skip this run
+    private static final String TRY_LOCK_STATE_SQL =
+            "SELECT watermark FROM performance_cube_state WHERE id = 1 FOR UPDATE SKIP LOCKED";
+
+    private static final String UPDATE_STATE_SQL =
+            "UPDATE performance_cube_state SET watermark = ?, refreshed_at = ? WHERE id = 1";
+
+    private static final String MEMBER_CELLS_SQL = """
+            SELECT department, project_id, period_year, period_month
+            FROM performance_cube_members WHERE evaluation_id = ANY(?)
+            """;
+
+    // Evaluations deleted since they were counted (e.g. with their employee)
+    private static final String DELETE_GONE_MEMBERS_SQL = """
+            DELETE FROM performance_cube_members m
+            WHERE NOT EXISTS (SELECT 1 FROM evaluations e WHERE e.id = m.evaluation_id)
+            RETURNING department, project_id, period_year, period_month
+            """;
+
+    private static final String CELLS_PARAM = "unnest(?::text[], ?::bigint[], ?::int[], ?::int[])";
+
+    private static final String DELETE_CELLS_SQL = """
+            DELETE FROM performance_cube c
+            USING %s AS k(department, project_id, period_year, period_month)
+            WHERE c.department = k.department AND c.project_id = k.project_id
+              AND c.period_year = k.period_year AND c.period_month = k.period_month
+            """.formatted(CELLS_PARAM);
+
+    private static final String CELL_FILTER =
+            "WHERE (f.department, f.project_id, f.period_year, f.period_month) IN (SELECT * FROM %s)"
+                    .formatted(CELLS_PARAM);
+
+    private static final String UPSERT_MEMBERS_SQL = """
+            INSERT INTO performance_cube_members (evaluation_id, changed_at, department, project_id,
+                                                  period_year, period_month)
+            SELECT * FROM unnest(?::bigint[], ?::timestamp[], ?::text[], ?::bigint[], ?::int[], ?::int[])
+            ON CONFLICT (evaluation_id) DO UPDATE
+            SET department = EXCLUDED.department, project_id = EXCLUDED.project_id,
+                period_year = EXCLUDED.period_year, period_month = EXCLUDED.period_month,
+                changed_at = EXCLUDED.changed_at
+            """;
+
+    private static final String DELETE_MEMBERS_SQL =
+            "DELETE FROM performance_cube_members WHERE evaluation_id = ANY(?)";
+
+    private static final String INSERT_ALL_MEMBERS_SQL = """
+            INSERT INTO performance_cube_members (evaluation_id, changed_at, department, project_id,
+                                                  period_year, period_month)
+            SELECT e.id, COALESCE(e.updated_at, e.created_at), %s
+            FROM evaluations e
+            LEFT JOIN users u ON u.id = e.employee_id
+            WHERE e.status <> 'ARCHIVED'
+            """.formatted(CELL_OF_EVALUATION);
+
+    private static final String MAX_CHANGED_AT_SQL =
+            "SELECT MAX(COALESCE(updated_at, created_at)) FROM evaluations";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicLong lastRefreshedAt = new AtomicLong();
+
+    @Value("${app.performance-cube.overlap-ms:300000}")
+    private long overlapMs = 300_000;
+
+    public PerformanceCubeService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        Gauge.builder("performance.cube.last.refresh", lastRefreshedAt, AtomicLong::get)
+                .description("Time of the last successful cube refresh or rebuild on this instance")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.performance-cube.refresh-interval-ms:600000}",
+               initialDelayString = "${app.performance-cube.refresh-interval-ms:600000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (DataAccessException ex) {
+            // Retried on the next run; the watermark only moves when a refresh commits
+            log.warn("Performance cube refresh failed: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Applies the evaluations changed since the last run; the first run builds the whole cube.
+     * Returns without work when another instance is refreshing.
+     */
+    public RefreshResult refresh() {
+        return committed(transactionTemplate.execute(tx -> {
+            List<Timestamp> state = jdbcTemplate.query(TRY_LOCK_STATE_SQL, (rs, i) -> rs.getTimestamp(1));
+            if (state.isEmpty()) return RefreshResult.SKIPPED;
+            Timestamp watermark = state.get(0);
+            return watermark == null ? rebuildLocked() : refreshLocked(watermark);
+        }));
+    }
+
+    /** Recomputes every cell, e.g. after employees moved between departments. */
+    public RefreshResult rebuild() {
+        return committed(transactionTemplate.execute(tx -> {
+            jdbcTemplate.query(LOCK_STATE_SQL, rs -> {});
+            return rebuildLocked();
+        }));
+    }
+
+    private RefreshResult committed(RefreshResult result) {
+        if (result != null && result.refreshedAt() != null) {
+            lastRefreshedAt.set(System.currentTimeMillis() / 1000);
+        }
+        return result;
+    }
+
+    private RefreshResult rebuildLocked() {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        Timestamp watermark = jdbcTemplate.queryForObject(MAX_CHANGED_AT_SQL, Timestamp.class);
+        jdbcTemplate.update("DELETE FROM performance_cube");
+        jdbcTemplate.update("DELETE FROM performance_cube_members");
+        int members = jdbcTemplate.update(INSERT_ALL_MEMBERS_SQL);
+        int cells = jdbcTemplate.update(INSERT_CELLS_SQL.formatted(CELL_OF_EVALUATION, ""), now);
+        jdbcTemplate.update(UPDATE_STATE_SQL, watermark, now);
+        log.info("Performance cube rebuilt: {} evaluations in {} cells", members, cells);
+        return new RefreshResult(true, members, cells, watermark == null ? null : watermark.toLocalDateTime().toString(),
+                now.toLocalDateTime().toString());
+    }
+
+    private RefreshResult refreshLocked(Timestamp watermark) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        Timestamp since = new Timestamp(watermark.getTime() - Math.max(0, overlapMs));
+        List<Changed> changed = jdbcTemplate.query(CHANGED_SQL, (rs, i) -> new Changed(rs.getLong(1),
+                new Cell(rs.getString(2), rs.getLong(3), rs.getInt(4), rs.getInt(5)),
+                "ARCHIVED".equals(rs.getString(6)), rs.getTimestamp(7)), since);
+
+        Set<Cell> cells = new LinkedHashSet<>();
+        List<Changed> live = new ArrayList<>();
+        List<Long> archived = new ArrayList<>();
+        Timestamp next = watermark;
+        for (Changed c : changed) {
+            if (c.archived()) {
+                archived.add(c.id());
+            } else {
+                live.add(c);
+                cells.add(c.cell());
+            }
+            if (c.changedAt().after(next)) next = c.changedAt();
+        }
+        if (!changed.isEmpty()) {
+            Long[] ids = changed.stream().map(Changed::id).toArray(Long[]::new);
+            cells.addAll(jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(MEMBER_CELLS_SQL);
+                ps.setArray(1, con.createArrayOf("bigint", ids));
+                return ps;
+            }, (rs, i) -> cellOf(rs.getString(1), rs.getLong(2), rs.getInt(3), rs.getInt(4))));
+        }
+        cells.addAll(jdbcTemplate.query(DELETE_GONE_MEMBERS_SQL,
+                (rs, i) -> cellOf(rs.getString(1), rs.getLong(2), rs.getInt(3), rs.getInt(4))));
+
+        int written = 0;
+        if (!cells.isEmpty()) {
+            List<Cell> keys = List.copyOf(cells);
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(DELETE_CELLS_SQL);
+                bindCells(con, ps, 1, keys);
+                return ps;
+            });
+            String insert = INSERT_CELLS_SQL.formatted(CELL_OF_EVALUATION, CELL_FILTER);
+            written = jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(insert);
+                ps.setTimestamp(1, now);
+                bindCells(con, ps, 2, keys);
+                return ps;
+            });
+        }
+        if (!live.isEmpty()) {
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(UPSERT_MEMBERS_SQL);
+                ps.setArray(1, con.createArrayOf("bigint", live.stream().map(Changed::id).toArray()));
+                ps.setArray(2, con.createArrayOf("timestamp", live.stream().map(Changed::changedAt).toArray()));
+                bindCells(con, ps, 3, live.stream().map(Changed::cell).toList());
+                return ps;
+            });
+        }
+        if (!archived.isEmpty()) {
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(DELETE_MEMBERS_SQL);
+                ps.setArray(1, con.createArrayOf("bigint", archived.toArray()));
+                return ps;
+            });
+        }
+        jdbcTemplate.update(UPDATE_STATE_SQL, next, now);
+        if (!cells.isEmpty()) {
+            log.debug("Performance cube refreshed: {} changed evaluation(s), {} cell(s) recomputed into {} row(s)",
+                    changed.size(), cells.size(), written);
+        }
+        return new RefreshResult(false, changed.size(), cells.size(), next.toLocalDateTime().toString(),
+                now.toLocalDateTime().toString());
+    }
+
+    private static void bindCells(Connection con, PreparedStatement ps, int first, List<Cell> cells) throws SQLException {
+        ps.setArray(first, con.createArrayOf("text", cells.stream().map(Cell::department).toArray()));
+        ps.setArray(first + 1, con.createArrayOf("bigint", cells.stream().map(Cell::projectId).toArray()));
+        ps.setArray(first + 2, con.createArrayOf("integer", cells.stream().map(Cell::year).toArray()));
+        ps.setArray(first + 3, con.createArrayOf("integer", cells.stream().map(Cell::month).toArray()));
+    }
+
+    private static Cell cellOf(String department, long projectId, int year, int month) {
+        return new Cell(department, projectId, year, month);
+    }
+
+    // ---- Queries ----------------------------------------------------------------------------
+
+    /**
+     * Rolls the cube up to the requested dimensions: no dimension gives the company total, and
+     * each added dimension (with filters on the ones already chosen) drills one level down.
+     * Unless competencies are grouped or filtered, only the overall ratings are summed.
+     */
+    public List<CubeRow> query(CubeQuery q) {
+        Set<Dimension> groupBy = q.groupBy();
+        List<String> columns = new ArrayList<>();
+        if (groupBy.contains(Dimension.DEPARTMENT)) columns.add("c.department");
+        if (groupBy.contains(Dimension.PROJECT)) columns.add("c.project_id");
+        if (groupBy.contains(Dimension.PERIOD)) {
+            columns.add("c.period_year");
+            switch (q.granularity()) {
+                case MONTH -> columns.add("c.period_month");
+                case QUARTER -> columns.add("(c.period_month + 2) / 3");
+                case YEAR -> { }
+            }
+        }
+        if (groupBy.contains(Dimension.COMPETENCY)) columns.add("c.competency");
+
+        List<Object> args = new ArrayList<>();
+        StringJoiner where = new StringJoiner(" AND ", "WHERE ", "").setEmptyValue("");
+        if (q.department() != null) {
+            where.add("c.department = ?");
+            args.add(q.department());
+        }
+        if (q.projectId() != null) {
+            where.add("c.project_id = ?");
+            args.add(q.projectId());
+        }
+        if (q.fromYear() != null) {
+            where.add("c.period_year >= ?");
+            args.add(q.fromYear());
+        }
+        if (q.toYear() != null) {
+            where.add("c.period_year <= ?");
+            args.add(q.toYear());
+        }
+        if (q.competency() != null) {
+            // Cells hold canonical names, so any spelling of a competency finds its cells
+            where.add("lower(c.competency) = lower(?)");
+            args.add(OVERALL.equalsIgnoreCase(q.competency().trim())
+                    ? "*" : CompetencyNormalizer.canonicalize(q.competency()));
+        } else if (!groupBy.contains(Dimension.COMPETENCY)) {
+            where.add("c.competency = '*'");
+        }
+
+        String dims = String.join(", ", columns);
+        String sql = "SELECT " + (dims.isEmpty() ? "" : dims + ", ") + """
+                SUM(c.evaluations), SUM(c.self_count), SUM(c.self_sum), SUM(c.self_sum_sq),
+                SUM(c.manager_count), SUM(c.manager_sum), SUM(c.manager_sum_sq),
+                SUM(c.gap_count), SUM(c.gap_sum), SUM(c.gap_sum_sq)
+                FROM performance_cube c
+                """ + where + (dims.isEmpty() ? "" : " GROUP BY " + dims + " ORDER BY " + dims);
+
+        return jdbcTemplate.query(sql, (rs, n) -> {
+            int i = 1;
+            String department = groupBy.contains(Dimension.DEPARTMENT) ? blankToNull(rs.getString(i++)) : null;
+            Long projectId = null;
+            if (groupBy.contains(Dimension.PROJECT)) {
+                long id = rs.getLong(i++);
+                projectId = id == 0 ? null : id;
+            }
+            String period = null;
+            if (groupBy.contains(Dimension.PERIOD)) {
+                int year = rs.getInt(i++);
+                int part = q.granularity() == Granularity.YEAR ? 0 : rs.getInt(i++);
+                period = periodLabel(q.granularity(), year, part);
+            }
+            String competency = groupBy.contains(Dimension.COMPETENCY) ? rs.getString(i++) : null;
+            if (competency == null && q.competency() != null) competency = q.competency();
+            if ("*".equals(competency)) competency = OVERALL;
+            long evaluations = rs.getLong(i++);
+            Stats self = Stats.of(rs.getLong(i++), rs.getDouble(i++), rs.getDouble(i++));
+            Stats manager = Stats.of(rs.getLong(i++), rs.getDouble(i++), rs.getDouble(i++));
+            Stats gap = Stats.of(rs.getLong(i++), rs.getDouble(i++), rs.getDouble(i));
+            return new CubeRow(department, projectId, period, competency, evaluations, self, manager, gap);
+        }, args.toArray());
+    }
+
+    /** Dimensions as given in a comma separated {@code groupBy} parameter, e.g. "department,period". */
+    public static Set<Dimension> parseDimensions(String csv) {
+        Set<Dimension> dims = EnumSet.noneOf(Dimension.class);
+        if (csv == null || csv.isBlank()) return dims;
+        for (String part : csv.split(",")) {
+            String name = part.trim();
+            if (name.isEmpty()) continue;
+            dims.add(parseEnum(Dimension.class, name, "groupBy"));
+        }
+        return dims;
+    }
+
+    public static Granularity parseGranularity(String value) {
+        return value == null || value.isBlank() ? Granularity.MONTH : parseEnum(Granularity.class, value.trim(), "granularity");
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String param) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException(param + " must be one of " + EnumSet.allOf(type).toString().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    // Year 0 / month 0 hold evaluations without a period
+    static String periodLabel(Granularity granularity, int year, int part) {
+        if (year == 0) return "unknown";
+        if (granularity == Granularity.YEAR || part == 0) return Integer.toString(year);
+        return granularity == Granularity.QUARTER
+                ? year + "-Q" + part
+                : "%d-%02d".formatted(year, part);
+    }
+
+    private static String blankToNull(String s) {
+        return s == null || s.isEmpty() ? null : s;
+    }
+
+    public enum Dimension { DEPARTMENT, PROJECT, PERIOD, COMPETENCY }
+
+    public enum Granularity { MONTH, QUARTER, YEAR }
+
+    /**
+     * Filters are exact matches, except {@code competency}, which is canonicalized and matched
+     * ignoring case; it uses {@link #OVERALL} for the overall rating.
+     */
+    public record CubeQuery(Set<Dimension> groupBy, Granularity granularity, String department, Long projectId,
+                            Integer fromYear, Integer toYear, String competency) {}
+
+    /** One group of the result; dimensions that were not grouped on are null. */
+    public record CubeRow(String department, Long projectId, String period, String competency,
+                          long evaluations, Stats self, Stats manager, Stats gap) {}
+
+    /** Count, mean and population standard deviation of the ratings in a group. */
+    public record Stats(long count, Double mean, Double stddev) {
+
+        static Stats of(long count, double sum, double sumOfSquares) {
+            if (count == 0) return new Stats(0, null, null);
+            double mean = sum / count;
+            double variance = Math.max(0, sumOfSquares / count - mean * mean);
+            return new Stats(count, round(mean), round(Math.sqrt(variance)));
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 100) / 100.0;
+        }
+    }
+
+    /** {@code refreshedAt} is the run's time as stored in the cube state; null when the run was skipped. */
+    public record RefreshResult(boolean rebuilt, int evaluations, int cells, String watermark,
+                                String refreshedAt) {
+        static final RefreshResult SKIPPED = new RefreshResult(false, 0, 0, null, null);
+    }
+
+    private record Cell(String department, long projectId, int year, int month) {}
+
+    private record Changed(long id, Cell cell, boolean archived, Timestamp changedAt) {}
+}
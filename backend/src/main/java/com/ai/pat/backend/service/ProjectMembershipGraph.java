@@ -0,0 +1,396 @@
+package com.ai.pat.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * In-memory view of who belongs to and who manages which project ({@code user_projects},
+ * {@code manager_projects}). Users and projects get dense indexes; memberships are held as
+ * {@link BitSet}s in both directions, so "managers of P" and "members of P" are a bitset walk and
+ * "can manager M see employee E" is one {@link BitSet#intersects} call.
+ *
+ * The graph is loaded once the application is ready and re-read every
+ * {@code app.membership.reload-interval-ms} (for changes made by other instances). Assignment
+ * writes in {@link UserService} update it in place once their transaction commits. Updates are
+ * copy-on-write, so readers never lock.
+ */
+@Component
+public class ProjectMembershipGraph {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectMembershipGraph.class);
+
+    private static final String MEMBERS_SQL = "SELECT user_id, project_id FROM user_projects";
+    private static final String MANAGERS_SQL = "SELECT manager_id, project_id FROM manager_projects";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Object writeLock = new Object();
+    private volatile Graph graph;
+
+    @Autowired
+    public ProjectMembershipGraph(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Empty graph without a database, maintained through the change methods only. */
+    public ProjectMembershipGraph() {
+        this.jdbcTemplate = null;
+        this.graph = Graph.EMPTY;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            reload();
+        } catch (DataAccessException ex) {
+            log.warn("Project membership graph not loaded, will retry on first use: {}", ex.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.membership.reload-interval-ms:300000}",
+               initialDelayString = "${app.membership.reload-interval-ms:300000}")
+    public void scheduledReload() {
+        try {
+            reload();
+        } catch (DataAccessException ex) {
+            log.debug("Project membership graph reload failed: {}", ex.getMessage());
+        }
+    }
+
+    /** Rebuilds the graph from the join tables. */
+    public void reload() {
+        if (jdbcTemplate == null) return;
+        synchronized (writeLock) {
+            Builder b = new Builder(Graph.EMPTY);
+            jdbcTemplate.query(MEMBERS_SQL, rs -> { b.addMember(rs.getLong(1), rs.getLong(2)); });
+            jdbcTemplate.query(MANAGERS_SQL, rs -> { b.addManager(rs.getLong(1), rs.getLong(2)); });
+            graph = b.build();
+            log.info("Project membership graph loaded: {} users, {} projects", graph.userIds.length, graph.projectIds.length);
+        }
+    }
+
+    // ---- Queries ----------------------------------------------------------------------------
+
+    /** True if the manager manages at least one project the employee belongs to. */
+    public boolean canManagerSee(Long managerId, Long employeeId) {
+        if (managerId == null || employeeId == null) return false;
+        Graph g = graph();
+        BitSet managed = g.bits(g.managedByUser, g.userIndex.get(managerId));
+        BitSet joined = g.bits(g.projectsOfUser, g.userIndex.get(employeeId));
+        return managed.intersects(joined);
+    }
+
+    public boolean manages(Long managerId, Long projectId) {
+        if (managerId == null || projectId == null) return false;
+        Graph g = graph();
+        Integer p = g.projectIndex.get(projectId);
+        return p != null && g.bits(g.managedByUser, g.userIndex.get(managerId)).get(p);
+    }
+
+    /** Ids of the managers of any of the projects, ascending. */
+    public List<Long> managersOf(Collection<Long> projectIds) {
+        Graph g = graph();
+        BitSet users = new BitSet();
+        for (Long projectId : projectIds) {
+            if (projectId != null) users.or(g.bits(g.managersOfProject, g.projectIndex.get(projectId)));
+        }
+        return g.userIds(users);
+    }
+
+    /** Ids of the users assigned to the project, ascending. */
+    public List<Long> membersOf(Long projectId) {
+        Graph g = graph();
+        return g.userIds(g.bits(g.membersOfProject, g.projectIndex.get(projectId)));
+    }
+
+    /** Members of the project that do not manage any project. */
+    public List<Long> employeesOf(Long projectId) {
+        Graph g = graph();
+        BitSet users = (BitSet) g.bits(g.membersOfProject, g.projectIndex.get(projectId)).clone();
+        users.andNot(g.managers);
+        return g.userIds(users);
+    }
+
+    /** Ids of the projects the user is assigned to, ascending. */
+    public List<Long> projectsOf(Long userId) {
+        Graph g = graph();
+        return g.projectIds(g.bits(g.projectsOfUser, g.userIndex.get(userId)));
+    }
+
+    /** Ids of the projects the user manages, ascending. */
+    public List<Long> managedBy(Long managerId) {
+        Graph g = graph();
+        return g.projectIds(g.bits(g.managedByUser, g.userIndex.get(managerId)));
+    }
+
+    /** Employees (non-managers) of every project the manager manages. */
+    public List<Long> teamOf(Long managerId) {
+        Graph g = graph();
+        BitSet managed = g.bits(g.managedByUser, g.userIndex.get(managerId));
+        BitSet users = new BitSet();
+        for (int p = managed.nextSetBit(0); p >= 0; p = managed.nextSetBit(p + 1)) {
+            users.or(g.membersOfProject[p]);
+        }
+        users.andNot(g.managers);
+        return g.userIds(users);
+    }
+
+    // ---- Changes (applied after commit) -------------------------------------------------------
+
+    public void userProjectsChanged(Long userId, Collection<Long> projectIds) {
+        if (userId == null) return;
+        List<Long> ids = List.copyOf(projectIds);
+        afterCommit(b -> b.setMemberships(userId, ids));
+    }
+
+    public void managedProjectsChanged(Long managerId, Collection<Long> projectIds) {
+        if (managerId == null) return;
+        List<Long> ids = List.copyOf(projectIds);
+        afterCommit(b -> b.setManaged(managerId, ids));
+    }
+
+    public void userRemoved(Long userId) {
+        if (userId == null) return;
+        afterCommit(b -> {
+            b.setMemberships(userId, List.of());
+            b.setManaged(userId, List.of());
+        });
+    }
+
+    private void afterCommit(Consumer<Builder> change) {
+        Runnable apply = () -> {
+            synchronized (writeLock) {
+                Builder b = new Builder(graph());
+                change.accept(b);
+                graph = b.build();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    private Graph graph() {
+        Graph g = graph;
+        if (g != null) return g;
+        synchronized (writeLock) {
+            if (graph == null) reload();
+            return graph;
+        }
+    }
+
+    /** Immutable snapshot. Arrays are indexed by dense user / project index. */
+    private static final class Graph {
+
+        static final Graph EMPTY = new Graph(Map.of(), new long[0], Map.of(), new long[0],
+                new BitSet[0], new BitSet[0], new BitSet[0], new BitSet[0], new BitSet());
+
+        private static final BitSet NONE = new BitSet();
+
+        final Map<Long, Integer> userIndex;
+        final long[] userIds;
+        final Map<Long, Integer> projectIndex;
+        final long[] projectIds;
+        final BitSet[] projectsOfUser;
+        final BitSet[] managedByUser;
+        final BitSet[] membersOfProject;
+        final BitSet[] managersOfProject;
+        // Users managing at least one project
+        final BitSet managers;
+
+        Graph(Map<Long, Integer> userIndex, long[] userIds, Map<Long, Integer> projectIndex, long[] projectIds,
+              BitSet[] projectsOfUser, BitSet[] managedByUser, BitSet[] membersOfProject,
+              BitSet[] managersOfProject, BitSet managers) {
+            this.userIndex = userIndex;
+            this.userIds = userIds;
+            this.projectIndex = projectIndex;
+            this.projectIds = projectIds;
+            this.projectsOfUser = projectsOfUser;
+            this.managedByUser = managedByUser;
+            this.membersOfProject = membersOfProject;
+            this.managersOfProject = managersOfProject;
+            this.managers = managers;
+        }
+
+        BitSet bits(BitSet[] sets, Integer index) {
+            return index == null ? NONE : sets[index];
+        }
+
+        List<Long> userIds(BitSet users) {
+            List<Long> out = new ArrayList<>(users.cardinality());
+            for (int u = users.nextSetBit(0); u >= 0; u = users.nextSetBit(u + 1)) out.add(userIds[u]);
+            out.sort(null);
+            return out;
+        }
+
+        List<Long> projectIds(BitSet projects) {
+            List<Long> out = new ArrayList<>(projects.cardinality());
+            for (int p = projects.nextSetBit(0); p >= 0; p = projects.nextSetBit(p + 1)) out.add(projectIds[p]);
+            out.sort(null);
+            return out;
+        }
+    }
+
+    /**
+     * Copy-on-write editor over a {@link Graph}: index maps and arrays are copied up front, each
+     * bitset only when it is first modified. Arrays grow by doubling and are trimmed in
+     * {@link #build()}, so loading n users or projects copies O(n) slots, not O(n²).
+     */
+    private static final class Builder {
+
+        private final Map<Long, Integer> userIndex;
+        private long[] userIds;
+        private int userCount;
+        private final Map<Long, Integer> projectIndex;
+        private long[] projectIds;
+        private int projectCount;
+        private BitSet[] projectsOfUser;
+        private BitSet[] managedByUser;
+        private BitSet[] membersOfProject;
+        private BitSet[] managersOfProject;
+        private final BitSet managers;
+        // Bitsets already copied in this edit: safe to mutate
+        private final Set<BitSet> owned = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        Builder(Graph base) {
+            userIndex = new HashMap<>(base.userIndex);
+            userIds = base.userIds.clone();
+            userCount = userIds.length;
+            projectIndex = new HashMap<>(base.projectIndex);
+            projectIds = base.projectIds.clone();
+            projectCount = projectIds.length;
+            projectsOfUser = base.projectsOfUser.clone();
+            managedByUser = base.managedByUser.clone();
+            membersOfProject = base.membersOfProject.clone();
+            managersOfProject = base.managersOfProject.clone();
+            managers = (BitSet) base.managers.clone();
+        }
+
+        void addMember(long userId, long projectId) {
+            int u = user(userId);
+            int p = project(projectId);
+            mutable(projectsOfUser, u).set(p);
+            mutable(membersOfProject, p).set(u);
+        }
+
+        void addManager(long managerId, long projectId) {
+            int u = user(managerId);
+            int p = project(projectId);
+            mutable(managedByUser, u).set(p);
+            mutable(managersOfProject, p).set(u);
+            managers.set(u);
+        }
+
+        void setMemberships(long userId, Collection<Long> projects) {
+            int u = user(userId);
+            BitSet current = projectsOfUser[u];
+            for (int p = current.nextSetBit(0); p >= 0; p = current.nextSetBit(p + 1)) {
+                mutable(membersOfProject, p).clear(u);
+            }
+            projectsOfUser[u] = owned(new BitSet());
+            for (Long projectId : projects) {
+                if (projectId != null) addMember(userId, projectId);
+            }
+        }
+
+        void setManaged(long managerId, Collection<Long> projects) {
+            int u = user(managerId);
+            BitSet current = managedByUser[u];
+            for (int p = current.nextSetBit(0); p >= 0; p = current.nextSetBit(p + 1)) {
+                mutable(managersOfProject, p).clear(u);
+            }
+            managedByUser[u] = owned(new BitSet());
+            managers.clear(u);
+            for (Long projectId : projects) {
+                if (projectId != null) addManager(managerId, projectId);
+            }
+        }
+
+        Graph build() {
+            return new Graph(Map.copyOf(userIndex), Arrays.copyOf(userIds, userCount),
+                    Map.copyOf(projectIndex), Arrays.copyOf(projectIds, projectCount),
+                    Arrays.copyOf(projectsOfUser, userCount), Arrays.copyOf(managedByUser, userCount),
+                    Arrays.copyOf(membersOfProject, projectCount), Arrays.copyOf(managersOfProject, projectCount),
+                    managers);
+        }
+
+        private int user(long id) {
+            Integer index = userIndex.get(id);
+            if (index != null) return index;
+            int u = userCount++;
+            userIndex.put(id, u);
+            if (u == userIds.length) {
+                int capacity = capacity(u);
+                userIds = Arrays.copyOf(userIds, capacity);
+                projectsOfUser = Arrays.copyOf(projectsOfUser, capacity);
+                managedByUser = Arrays.copyOf(managedByUser, capacity);
+            }
+            userIds[u] = id;
+            projectsOfUser[u] = owned(new BitSet());
+            managedByUser[u] = owned(new BitSet());
+            return u;
+        }
+
+        private int project(long id) {
+            Integer index = projectIndex.get(id);
+            if (index != null) return index;
+            int p = projectCount++;
+            projectIndex.put(id, p);
+            if (p == projectIds.length) {
+                int capacity = capacity(p);
+                projectIds = Arrays.copyOf(projectIds, capacity);
+                membersOfProject = Arrays.copyOf(membersOfProject, capacity);
+                managersOfProject = Arrays.copyOf(managersOfProject, capacity);
+            }
+            projectIds[p] = id;
+            membersOfProject[p] = owned(new BitSet());
+            managersOfProject[p] = owned(new BitSet());
+            return p;
+        }
+
+        private static int capacity(int size) {
+            return Math.max(16, size * 2);
+        }
+
+        private BitSet mutable(BitSet[] sets, int index) {
+            BitSet bits = sets[index];
+            if (!owned.contains(bits)) {
+                bits = owned((BitSet) bits.clone());
+                sets[index] = bits;
+            }
+            return bits;
+        }
+
+        private BitSet owned(BitSet bits) {
+            owned.add(bits);
+            return bits;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.ai.pat.backend.service;
+
+import com.ai.pat.backend.config.CacheRegions;
+import com.ai.pat.backend.model.Keq;
+import com.ai.pat.backend.model.Project;
+import com.ai.pat.backend.model.User;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Explicit eviction for the second-level cache regions holding projects, KEQs and the project
+ * assignments of users (users themselves are not cached), plus a {@code hibernate.cache.region.hit.ratio} gauge per region.
+ *
+ * Writes made through JPA keep these regions current on their own (read-write strategy) and
+ * native queries run through Hibernate invalidate every region. What Hibernate cannot see is the
+ * inverse {@code User.projects} side when memberships are changed from {@code Project.users},
+ * and changes made outside the application; those go through the methods here.
+ */
+@Component
+public class ReferenceDataCache implements MeterBinder {
+
+    private static final String PROJECT_USERS_ROLE = Project.class.getName() + ".users";
+    private static final String USER_PROJECTS_ROLE = User.class.getName() + ".projects";
+    private static final String USER_MANAGED_PROJECTS_ROLE = User.class.getName() + ".managedProjects";
+
+    private final SessionFactory sessionFactory;
+
+    public ReferenceDataCache(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    /** Drops cached project memberships once the current transaction has committed. */
+    public void evictMembershipsAfterCommit() {
+        afterCommit(() -> {
+            cache().evictCollectionData(USER_PROJECTS_ROLE);
+            cache().evictCollectionData(PROJECT_USERS_ROLE);
+        });
+    }
+
+    public void evictProjects() {
+        cache().evictEntityData(Project.class);
+        cache().evictCollectionData(PROJECT_USERS_ROLE);
+        cache().evictCollectionData(USER_PROJECTS_ROLE);
+        cache().evictQueryRegion(CacheRegions.QUERY_PROJECTS_BY_ID);
+    }
+
+    public void evictKeqs() {
+        cache().evictEntityData(Keq.class);
+        cache().evictQueryRegion(CacheRegions.QUERY_KEQS);
+    }
+
+    public void evictManagerAssignments() {
+        cache().evictCollectionData(USER_MANAGED_PROJECTS_ROLE);
+        cache().evictQueryRegion(CacheRegions.QUERY_MANAGERS_BY_PROJECT);
+    }
+
+    public void evictAll() {
+        cache().evictAllRegions();
+    }
+
+    /** Hits / (hits + misses) of a region since startup; NaN until the region has been used. */
+    public double hitRatio(String region) {
+        CacheRegionStatistics stats = sessionFactory.getStatistics().getCacheRegionStatistics(region);
+        if (stats == null) return Double.NaN;
+        long hits = stats.getHitCount();
+        long lookups = hits + stats.getMissCount();
+        return lookups == 0 ? Double.NaN : (double) hits / lookups;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String region : CacheRegions.ALL) {
+            Gauge.builder("hibernate.cache.region.hit.ratio", this, c -> c.hitRatio(region))
+                    .tag("region", region)
+                    .description("Second-level / query cache hit ratio since startup")
+                    .register(registry);
+        }
+    }
+
+    private Cache cache() {
+        return sessionFactory.getCache();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.ai.pat.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Ranked search over people (trigram indexes on email and full name) and evaluation narratives
+ * (the generated {@code search_vector} of evaluation_contents), see V19. Results are limited to
+ * what the caller can see: admins see everything; others see the people on the projects they
+ * belong to or manage, their own evaluations, and, as managers, the evaluations of their
+ * projects and team.
+ */
+@Service
+public class SearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchService.class);
+
+    public static final int MAX_PAGE_SIZE = 50;
+    public static final int MIN_QUERY_LENGTH = 2;
+    public static final int MAX_QUERY_LENGTH = 200;
+
+    // Expressions must match the trigram indexes of V19
+    private static final String FULL_NAME = "lower(coalesce(u.first_name, '') || ' ' || coalesce(u.last_name, ''))";
+
+    private static final String PEOPLE_SQL = """
+            SELECT u.id, u.email, u.first_name, u.last_name,
+                   GREATEST(similarity(lower(u.email), ?), similarity(%1$s, ?)) AS score
+            FROM users u
+            WHERE (lower(u.email) LIKE ? OR %1$s LIKE ? OR %1$s %% ?)
+              %2$s
+            ORDER BY score DESC, u.id
+            LIMIT ? OFFSET ?
+            """;
+
+    // Ranks and pages first, then builds snippets for the returned rows only. The snippet text
+    // covers every field of the V19 search_vector, so each match can be highlighted.
+    private static final String EVALUATIONS_SQL = """
+            SELECT h.id, h.employee_id, h.employee_name, h.project_id, h.evaluation_year, h.evaluation_month,
+                   h.status, h.rank,
+                   ts_headline('english', concat_ws(' ... ', c.achievements, c.challenges, c.learnings,
+                                                    c.next_period_goals, c.additional_feedback,
+                                                    c.manager_feedback_request, c.manager_feedback,
+                                                    c.recommendations),
+                               h.query, 'StartSel=**, StopSel=**, MaxFragments=2, MaxWords=25, MinWords=8') AS snippet
+            FROM (
+                SELECT e.id, e.employee_id, e.employee_name, e.project_id, e.evaluation_year, e.evaluation_month,
+                       e.status, q.query, ts_rank_cd(c.search_vector, q.query) AS rank
+                FROM (SELECT websearch_to_tsquery('english', ?) AS query) q
+                JOIN evaluation_contents c ON c.search_vector @@ q.query
+                JOIN evaluations e ON e.id = c.evaluation_id
+                WHERE e.status <> 'ARCHIVED'
+                  %s
+                ORDER BY rank DESC, e.id DESC
+                LIMIT ? OFFSET ?
+            ) h
+            JOIN evaluation_contents c ON c.evaluation_id = h.id
+            ORDER BY h.rank DESC, h.id DESC
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProjectMembershipGraph membershipGraph;
+
+    public SearchService(JdbcTemplate jdbcTemplate, ProjectMembershipGraph membershipGraph) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.membershipGraph = membershipGraph;
+    }
+
+    /** People whose email or name contains {@code query} or resembles it, most similar first. */
+    public Page<PersonHit> searchPeople(Long callerId, boolean admin, String query, int page, int size) {
+        String q = normalize(query).toLowerCase();
+        int limit = clampSize(size);
+        int offset = Math.max(0, page) * limit;
+        String like = "%" + escapeLike(q) + "%";
+        Long[] visible = admin ? null : visiblePeople(callerId).toArray(Long[]::new);
+        String sql = PEOPLE_SQL.formatted(FULL_NAME, admin ? "" : "AND u.id = ANY(?)");
+
+        List<PersonHit> hits = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            int i = 1;
+            ps.setString(i++, q);
+            ps.setString(i++, q);
+            ps.setString(i++, like);
+            ps.setString(i++, like);
+            ps.setString(i++, q);
+            if (visible != null) ps.setArray(i++, bigints(con, visible));
+            ps.setInt(i++, limit + 1);
+            ps.setInt(i, offset);
+            return ps;
+        }, (rs, n) -> new PersonHit(rs.getLong("id"), rs.getString("email"), rs.getString("first_name"),
+                rs.getString("last_name"), rs.getDouble("score")));
+        return Page.of(hits, page, limit);
+    }
+
+    /**
+     * Evaluations whose narrative matches {@code query} (web search syntax: words, "phrases",
+     * OR, -excluded), best match first, each with a highlighted snippet.
+     */
+    public Page<EvaluationHit> searchEvaluations(Long callerId, boolean admin, String query, int page, int size) {
+        String q = normalize(query);
+        int limit = clampSize(size);
+        int offset = Math.max(0, page) * limit;
+        Long[] projects = admin ? null : membershipGraph.managedBy(callerId).toArray(Long[]::new);
+        Long[] employees = admin ? null : visibleEmployees(callerId).toArray(Long[]::new);
+        String sql = EVALUATIONS_SQL.formatted(admin ? "" : "AND (e.project_id = ANY(?) OR e.employee_id = ANY(?))");
+
+        List<EvaluationHit> hits = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            int i = 1;
+            ps.setString(i++, q);
+            if (!admin) {
+                ps.setArray(i++, bigints(con, projects));
+                ps.setArray(i++, bigints(con, employees));
+            }
+            ps.setInt(i++, limit + 1);
+            ps.setInt(i, offset);
+            return ps;
+        }, (rs, n) -> new EvaluationHit(rs.getLong("id"), rs.getObject("employee_id", Long.class),
+                rs.getString("employee_name"), rs.getObject("project_id", Long.class),
+                rs.getObject("evaluation_year", Integer.class), rs.getObject("evaluation_month", Integer.class),
+                rs.getString("status"), rs.getDouble("rank"), rs.getString("snippet")));
+        log.debug("Evaluation search by {} for '{}': {} hit(s) on page {}", callerId, q, hits.size(), page);
+        return Page.of(hits, page, limit);
+    }
+
+    // The caller plus everyone assigned to or managing a project the caller belongs to or manages
+    private Set<Long> visiblePeople(Long callerId) {
+        Set<Long> projects = new TreeSet<>(membershipGraph.projectsOf(callerId));
+        projects.addAll(membershipGraph.managedBy(callerId));
+        Set<Long> people = new TreeSet<>();
+        if (callerId != null) people.add(callerId);
+        for (Long projectId : projects) people.addAll(membershipGraph.membersOf(projectId));
+        people.addAll(membershipGraph.managersOf(projects));
+        return people;
+    }
+
+    // Evaluations of these employees are visible regardless of project: the caller and their team
+    private List<Long> visibleEmployees(Long callerId) {
+        List<Long> employees = new ArrayList<>(membershipGraph.teamOf(callerId));
+        if (callerId != null) employees.add(callerId);
+        return employees;
+    }
+
+    private static String normalize(String query) {
+        String q = query == null ? "" : query.trim().replaceAll("\\s+", " ");
+        if (q.length() < MIN_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query must be at least " + MIN_QUERY_LENGTH + " characters");
+        }
+        return q.length() > MAX_QUERY_LENGTH ? q.substring(0, MAX_QUERY_LENGTH) : q;
+    }
+
+    private static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    // Backslash is LIKE's default escape character in Postgres
+    static String escapeLike(String s) {
+        return s.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static Array bigints(Connection con, Long[] ids) throws SQLException {
+        return con.createArrayOf("bigint", ids);
+    }
+
+    public record PersonHit(Long id, String email, String firstName, String lastName, double score) {}
+
+    public record EvaluationHit(Long evaluationId, Long employeeId, String employeeName, Long projectId,
+                                Integer evaluationYear, Integer evaluationMonth, String status,
+                                double rank, String snippet) {}
+
+    /** One page of ranked results; rows were fetched with one extra to know whether more follow. */
+    public record Page<T>(List<T> items, int page, int size, boolean hasMore) {
+
+        static <T> Page<T> of(List<T> rows, int page, int size) {
+            boolean hasMore = rows.size() > size;
+            return new Page<>(hasMore ? List.copyOf(rows.subList(0, size)) : List.copyOf(rows),
+                    Math.max(0, page), size, hasMore);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.ai.pat.backend.service;
+
+import com.ai.pat.backend.util.AhoCorasick;
+import com.ai.pat.backend.util.SentenceSegmenter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lexicon-based sentiment scoring. All lexicon terms (weighted words/phrases and negators) are
+ * compiled into one Aho–Corasick automaton, so a text is scored in a single pass regardless of
+ * lexicon size. A negator flips the polarity of terms starting within the next
+ * {@code negationWindow} words; clause punctuation ends the negation early.
+ */
+@Component
+public class SentimentEngine {
+
+    private static final String NEGATE = "NEGATE";
+
+    private final AhoCorasick automaton;
+    private final double[] weights;
+    private final boolean[] negator;
+    private final int[] wordCount;
+    private final int negationWindow;
+
+    @Autowired
+    public SentimentEngine(ResourceLoader resourceLoader,
+                           @Value("${ai.sentiment.lexicon:classpath:sentiment-lexicon.csv}") String lexiconLocation,
+                           @Value("${ai.sentiment.negation-window:3}") int negationWindow) {
+        this(readLines(resourceLoader.getResource(lexiconLocation)), negationWindow);
+    }
+
+    /**
+     * @param lexiconLines lines of {@code term,weight} or {@code term,NEGATE}; blank lines and
+     *                     lines starting with {@code #} are ignored
+     */
+    public SentimentEngine(List<String> lexiconLines, int negationWindow) {
+        List<String> terms = new ArrayList<>();
+        List<Double> termWeights = new ArrayList<>();
+        List<Boolean> negators = new ArrayList<>();
+        for (String raw : lexiconLines) {
+            String line = raw.strip();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            int comma = line.lastIndexOf(',');
+            if (comma <= 0) {
+                throw new IllegalArgumentException("Invalid sentiment lexicon line: " + raw);
+            }
+            String term = line.substring(0, comma).strip().toLowerCase();
+            String value = line.substring(comma + 1).strip();
+            terms.add(term);
+            if (NEGATE.equalsIgnoreCase(value)) {
+                termWeights.add(0.0);
+                negators.add(true);
+            } else {
+                termWeights.add(Double.parseDouble(value));
+                negators.add(false);
+            }
+        }
+        this.automaton = new AhoCorasick(terms);
+        this.weights = new double[terms.size()];
+        this.negator = new boolean[terms.size()];
+        this.wordCount = new int[terms.size()];
+        for (int i = 0; i < terms.size(); i++) {
+            weights[i] = termWeights.get(i);
+            negator[i] = negators.get(i);
+            wordCount[i] = terms.get(i).split("\\s+").length;
+        }
+        this.negationWindow = Math.max(0, negationWindow);
+    }
+
+    private static List<String> readLines(Resource resource) {
+        try {
+            return new String(resource.getInputStream().readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read sentiment lexicon " + resource, ex);
+        }
+    }
+
+    public Score score(String text) {
+        if (text == null || text.isEmpty()) return new Score(0, 0, 0);
+        SentenceSegmenter segmenter = SentenceSegmenter.DEFAULT;
+        double positive = 0;
+        double negative = 0;
+        int matches = 0;
+
+        int state = automaton.root();
+        int wordIndex = -1;
+        boolean inWord = false;
+        int negatedThroughWord = -1;
+        int n = text.length();
+        for (int i = 0; i < n; i++) {
+            char c = text.charAt(i);
+            boolean wordChar = isWordChar(c);
+            if (wordChar && !inWord) wordIndex++;
+            inWord = wordChar;
+            if (segmenter.isTerminator(c) || c == ',' || c == ';' || c == ':') {
+                negatedThroughWord = -1;
+            }
+
+            state = automaton.step(state, c);
+            for (int m = automaton.firstMatch(state); m >= 0; m = automaton.nextMatch(m)) {
+                int term = automaton.termIndex(m);
+                int start = i - automaton.term(term).length() + 1;
+                // Whole words/phrases only
+                if (start > 0 && isWordChar(text.charAt(start - 1))) continue;
+                if (i + 1 < n && isWordChar(text.charAt(i + 1))) continue;
+
+                if (negator[term]) {
+                    negatedThroughWord = wordIndex + negationWindow;
+                    continue;
+                }
+                double w = weights[term];
+                int startWord = wordIndex - (wordCount[term] - 1);
+                if (startWord <= negatedThroughWord) w = -w;
+                if (w > 0) positive += w;
+                else negative -= w;
+                matches++;
+            }
+        }
+        return new Score(positive, negative, matches);
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '\'' || c == '’';
+    }
+
+    /** Summed positive and negative weight of the matched terms. */
+    public record Score(double positive, double negative, int matches) {}
+}
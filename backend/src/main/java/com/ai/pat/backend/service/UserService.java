@@ -4,6 +4,7 @@ import com.ai.pat.backend.model.Project;
 import com.ai.pat.backend.model.User;
 import com.ai.pat.backend.repository.ProjectRepository;
 import com.ai.pat.backend.repository.UserRepository;
+import com.ai.pat.backend.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -22,6 +23,10 @@ public class UserService {
     private final UserRepository userRepository;
     private final ProjectRepository projectRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ManagerAnalyticsService managerAnalyticsService;
+    private final PrincipalCache principalCache;
+    private final ReferenceDataCache referenceDataCache;
+    private final ProjectMembershipGraph membershipGraph;
     
     @PersistenceContext
     private EntityManager entityManager;
@@ -92,6 +97,9 @@ public class UserService {
             userRepository.deleteRolesByUserId(id);
             // Finally delete the user
             userRepository.delete(u);
+            principalCache.evict(id);
+            membershipGraph.userRemoved(id);
+            managerAnalyticsService.invalidateAll();
         });
     }
 
@@ -100,8 +108,7 @@ public class UserService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
         Set<Project> projects = new HashSet<>(projectRepository.findAllById(projectIds));
-        user.setProjects(projects);
-        return userRepository.save(user);
+        return replaceProjects(user, projects);
     }
 
     @Transactional
@@ -110,7 +117,10 @@ public class UserService {
         User user = getOrCreateUserByUsernameOrEmail(usernameOrEmail);
 
         Set<Project> projects = new HashSet<>(projectRepository.findAllById(projectIds));
-        
+        return replaceProjects(user, projects);
+    }
+
+    private User replaceProjects(User user, Set<Project> projects) {
         // Clear existing project assignments for this user
         Set<Project> currentProjects = new HashSet<>(user.getProjects());
         for (Project project : currentProjects) {
@@ -127,6 +137,9 @@ public class UserService {
         
         User saved = userRepository.save(user);
         entityManager.flush();
+        managerAnalyticsService.invalidateAll();
+        referenceDataCache.evictMembershipsAfterCommit();
+        membershipGraph.userProjectsChanged(saved.getId(), projects.stream().map(Project::getId).toList());
         return saved;
     }
 
@@ -142,10 +155,9 @@ public class UserService {
         java.util.List<String> conflicts = new java.util.ArrayList<>();
         for (Project p : projects) {
             if (p == null || p.getId() == null) continue;
-            List<User> currentManagers = userRepository.findManagersByManagedProjectIds(java.util.List.of(p.getId()));
-            for (User m : currentManagers) {
-                if (m == null || m.getId() == null) continue;
-                if (!m.getId().equals(managerId)) {
+            List<Long> currentManagerIds = userRepository.findManagerIdsByManagedProjectIds(java.util.List.of(p.getId()));
+            for (Long currentManagerId : currentManagerIds) {
+                if (!currentManagerId.equals(managerId)) {
                     conflicts.add(p.getName() == null ? ("Project#" + p.getId()) : p.getName());
                 }
             }
@@ -156,6 +168,8 @@ public class UserService {
 
         // Assign the projects to the target manager
         manager.setManagedProjects(projects);
+        managerAnalyticsService.invalidateAll();
+        membershipGraph.managedProjectsChanged(managerId, projects.stream().map(Project::getId).toList());
         return userRepository.save(manager);
     }
 
@@ -174,19 +188,17 @@ public class UserService {
     @Transactional(readOnly = true)
     public List<User> getManagersForProjects(List<Project> projects) {
         if (projects == null || projects.isEmpty()) return java.util.Collections.emptyList();
-        // Primary: by managedProjects using IDs to be robust across persistence contexts
+        // By ids, to be robust across persistence contexts
         java.util.List<Long> ids = projects.stream()
                 .filter(java.util.Objects::nonNull)
                 .map(Project::getId)
                 .filter(java.util.Objects::nonNull)
                 .distinct()
                 .toList();
-        List<User> managers = userRepository.findManagersByManagedProjectIds(ids);
-        if (managers != null && !managers.isEmpty()) return managers;
-        // Fallback: by projects + role (tolerant to role value variants in dev data)
-        managers = userRepository.findByProjectsAndRole(projects, "MANAGER");
-        if (managers == null || managers.isEmpty()) {
-            managers = userRepository.findByProjectsAndRole(projects, "ROLE_MANAGER");
+        // Membership graph lookup; the users themselves come from the second-level cache
+        List<User> managers = new java.util.ArrayList<>();
+        for (Long managerId : membershipGraph.managersOf(ids)) {
+            userRepository.findById(managerId).ifPresent(managers::add);
         }
         return managers;
     }
@@ -305,6 +317,8 @@ public class UserService {
     
     @Transactional
     public User saveUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        principalCache.evict(saved.getId());
+        return saved;
     }
 }
@@ -0,0 +1,150 @@
+package com.ai.pat.backend.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Case-insensitive Aho–Corasick automaton over a fixed set of terms. Built once, then any number
+ * of texts can be scanned in a single left-to-right pass without allocating per character.
+ *
+ * The goto/failure functions are compiled into a dense DFA table indexed by the characters that
+ * occur in the terms; any other character simply sends the automaton back to the root.
+ * Callers drive it with {@link #step(int, char)} and read matches ending at a state with
+ * {@link #firstMatch(int)} / {@link #nextMatch(int)}.
+ */
+public final class AhoCorasick {
+
+    private static final int ROOT = 0;
+
+    private final String[] terms;
+    private final int[] asciiIndex = new int[128];
+    private final Map<Character, Integer> otherIndex = new HashMap<>();
+    private final int alphabetSize;
+    // delta[state * alphabetSize + symbol] -> next state
+    private final int[] delta;
+    // Term ending exactly at a state (-1 if none) and the next state on the dictionary-suffix chain
+    private final int[] termAt;
+    private final int[] outputLink;
+
+    public AhoCorasick(List<String> terms) {
+        this.terms = terms.stream().map(t -> t.toLowerCase()).toArray(String[]::new);
+
+        // Symbol 0 is "not in any term"
+        int symbols = 1;
+        for (String t : this.terms) {
+            for (int i = 0; i < t.length(); i++) {
+                char c = t.charAt(i);
+                if (c < 128) {
+                    if (asciiIndex[c] == 0) asciiIndex[c] = symbols++;
+                } else if (!otherIndex.containsKey(c)) {
+                    otherIndex.put(c, symbols++);
+                }
+            }
+        }
+        this.alphabetSize = symbols;
+
+        // Trie
+        List<int[]> gotoRows = new ArrayList<>();
+        List<Integer> terminal = new ArrayList<>();
+        gotoRows.add(newRow());
+        terminal.add(-1);
+        for (int termIndex = 0; termIndex < this.terms.length; termIndex++) {
+            String t = this.terms[termIndex];
+            if (t.isEmpty()) continue;
+            int state = ROOT;
+            for (int i = 0; i < t.length(); i++) {
+                int sym = symbol(t.charAt(i));
+                int next = gotoRows.get(state)[sym];
+                if (next <= 0) {
+                    next = gotoRows.size();
+                    gotoRows.get(state)[sym] = next;
+                    gotoRows.add(newRow());
+                    terminal.add(-1);
+                }
+                state = next;
+            }
+            if (terminal.get(state) < 0) terminal.set(state, termIndex);
+        }
+
+        int states = gotoRows.size();
+        this.delta = new int[states * alphabetSize];
+        this.termAt = new int[states];
+        this.outputLink = new int[states];
+        int[] fail = new int[states];
+        for (int s = 0; s < states; s++) termAt[s] = terminal.get(s);
+        Arrays.fill(outputLink, -1);
+
+        // BFS to compute failure links and fold them into a full transition table
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int sym = 0; sym < alphabetSize; sym++) {
+            int next = gotoRows.get(ROOT)[sym];
+            if (next > 0) {
+                delta[sym] = next;
+                fail[next] = ROOT;
+                queue.add(next);
+            } else {
+                delta[sym] = ROOT;
+            }
+        }
+        while (!queue.isEmpty()) {
+            int s = queue.poll();
+            int f = fail[s];
+            outputLink[s] = termAt[f] >= 0 ? f : outputLink[f];
+            for (int sym = 0; sym < alphabetSize; sym++) {
+                int next = gotoRows.get(s)[sym];
+                if (next > 0) {
+                    fail[next] = delta[f * alphabetSize + sym];
+                    delta[s * alphabetSize + sym] = next;
+                    queue.add(next);
+                } else {
+                    delta[s * alphabetSize + sym] = delta[f * alphabetSize + sym];
+                }
+            }
+        }
+    }
+
+    private int[] newRow() {
+        return new int[alphabetSize];
+    }
+
+    private int symbol(char c) {
+        char lower = Character.toLowerCase(c);
+        if (lower < 128) return asciiIndex[lower];
+        Integer idx = otherIndex.get(lower);
+        return idx != null ? idx : 0;
+    }
+
+    public int root() {
+        return ROOT;
+    }
+
+    public int step(int state, char c) {
+        return delta[state * alphabetSize + symbol(c)];
+    }
+
+    /** State whose term ends at this position, or -1. Start of the match chain for {@code state}. */
+    public int firstMatch(int state) {
+        return termAt[state] >= 0 ? state : outputLink[state];
+    }
+
+    /** Next state on the match chain after {@code matchState}, or -1. */
+    public int nextMatch(int matchState) {
+        return outputLink[matchState];
+    }
+
+    public int termIndex(int matchState) {
+        return termAt[matchState];
+    }
+
+    public String term(int termIndex) {
+        return terms[termIndex];
+    }
+
+    public int size() {
+        return terms.length;
+    }
+}
@@ -1,31 +1,74 @@
 package com.ai.pat.backend.util;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 
 public final class CompetencyNormalizer {
 
-    private static final Map<String, String> ALIASES = new HashMap<>();
+    // Built-in mappings; used until (or unless) the competency dictionary is loaded from the database
+    private static final Map<String, String> DEFAULT_ALIASES = new HashMap<>();
     static {
         // Canonical mappings for common variants
-        ALIASES.put("technical_skills", "Technical Skills");
-        ALIASES.put("technical_excellence", "Technical Skills");
-        ALIASES.put("problem_solving", "Problem Solving");
-        ALIASES.put("quality_focus", "Quality Focus");
-        ALIASES.put("quality", "Quality Focus");
-        ALIASES.put("time_management", "Time Management");
-        ALIASES.put("reliability", "Time Management");
-        ALIASES.put("teamwork", "Teamwork");
-        ALIASES.put("leadership", "Leadership");
-        ALIASES.put("initiative", "Leadership");
-        ALIASES.put("adaptability", "Adaptability");
-        ALIASES.put("communication", "Communication");
+        DEFAULT_ALIASES.put("technical_skills", "Technical Skills");
+        DEFAULT_ALIASES.put("technical_excellence", "Technical Skills");
+        DEFAULT_ALIASES.put("problem_solving", "Problem Solving");
+        DEFAULT_ALIASES.put("quality_focus", "Quality Focus");
+        DEFAULT_ALIASES.put("quality", "Quality Focus");
+        DEFAULT_ALIASES.put("time_management", "Time Management");
+        DEFAULT_ALIASES.put("reliability", "Time Management");
+        DEFAULT_ALIASES.put("teamwork", "Teamwork");
+        DEFAULT_ALIASES.put("leadership", "Leadership");
+        DEFAULT_ALIASES.put("initiative", "Leadership");
+        DEFAULT_ALIASES.put("adaptability", "Adaptability");
+        DEFAULT_ALIASES.put("communication", "Communication");
         // Leave "reliability" as title-cased if present
     }
 
+    // key(alias) -> canonical name; swapped as a whole by installAliases
+    private static volatile Map<String, String> aliases = keyed(DEFAULT_ALIASES);
+
     private CompetencyNormalizer() {}
 
+    public static Map<String, String> defaultAliases() {
+        return Collections.unmodifiableMap(DEFAULT_ALIASES);
+    }
+
+    /** Replaces the alias table (alias -> canonical name), e.g. after a dictionary reload. */
+    public static void installAliases(Map<String, String> table) {
+        aliases = keyed(table);
+    }
+
+    /**
+     * Lookup form of a competency name: trimmed, lower-case, with '_' and '-' read as spaces and
+     * runs of whitespace collapsed, so "Time_Management" and "time management" match.
+     */
+    public static String key(String name) {
+        if (name == null) return null;
+        StringBuilder sb = new StringBuilder(name.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '_' || c == '-' || Character.isWhitespace(c)) {
+                pendingSpace = sb.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                sb.append(' ');
+                pendingSpace = false;
+            }
+            sb.append(Character.toLowerCase(c));
+        }
+        return sb.toString();
+    }
+
+    private static Map<String, String> keyed(Map<String, String> table) {
+        Map<String, String> out = new HashMap<>();
+        table.forEach((alias, canonical) -> out.put(key(alias), canonical));
+        return Map.copyOf(out);
+    }
+
     public static Map<String, Integer> normalize(Map<String, Integer> input) {
         if (input == null || input.isEmpty()) return input;
         Map<String, Integer> out = new HashMap<>();
@@ -53,7 +96,7 @@ public final class CompetencyNormalizer {
     public static String canonicalize(String key) {
         if (key == null) return null;
         String k = key.trim();
-        String alias = ALIASES.get(k.toLowerCase(Locale.ROOT));
+        String alias = aliases.get(key(k));
         if (alias != null) return alias;
         // Default: title-case by underscores/spaces
         String replaced = k.replace('_', ' ').replace('-', ' ').toLowerCase(Locale.ROOT);
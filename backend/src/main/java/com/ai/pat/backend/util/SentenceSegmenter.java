@@ -0,0 +1,49 @@
+package com.ai.pat.backend.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits text into sentences after a terminator ({@code . ! ?}) that is followed by whitespace,
+ * i.e. the same boundaries as {@code text.split("(?<=[.!?])\\s+")} but in one pass over the
+ * characters and without compiling a regex per call. Instances are immutable and thread-safe.
+ */
+public final class SentenceSegmenter {
+
+    public static final SentenceSegmenter DEFAULT = new SentenceSegmenter(".!?");
+
+    private final boolean[] terminator = new boolean[128];
+
+    public SentenceSegmenter(String terminators) {
+        for (int i = 0; i < terminators.length(); i++) {
+            char c = terminators.charAt(i);
+            if (c < 128) terminator[c] = true;
+        }
+    }
+
+    public boolean isTerminator(char c) {
+        return c < 128 && terminator[c];
+    }
+
+    public List<String> split(String text) {
+        List<String> out = new ArrayList<>();
+        if (text == null || text.isEmpty()) return out;
+        int start = 0;
+        int n = text.length();
+        int i = 0;
+        while (i < n) {
+            char c = text.charAt(i);
+            if (isTerminator(c) && i + 1 < n && Character.isWhitespace(text.charAt(i + 1))) {
+                out.add(text.substring(start, i + 1));
+                int j = i + 1;
+                while (j < n && Character.isWhitespace(text.charAt(j))) j++;
+                start = j;
+                i = j;
+                continue;
+            }
+            i++;
+        }
+        if (start < n) out.add(text.substring(start));
+        return out;
+    }
+}
@@ -0,0 +1,7 @@
+-- Drafts opened by the monthly cycle have no reviewer until one is assigned, and neither do
+-- submissions from employees whose project has no manager; the mapping was always nullable
+ALTER TABLE evaluations ALTER COLUMN reviewer_id DROP NOT NULL;
+
+-- Supports the anti-join used when opening a monthly evaluation cycle
+CREATE INDEX IF NOT EXISTS idx_evaluations_employee_period
+    ON evaluations (employee_id, evaluation_year, evaluation_month);
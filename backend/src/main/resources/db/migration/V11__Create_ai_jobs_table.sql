@@ -0,0 +1,33 @@
+-- Durable queue for AI work that runs off the request path (e.g. draft evaluations)
+CREATE TABLE ai_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    job_type VARCHAR(50) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    request_hash VARCHAR(64) NOT NULL,
+    payload TEXT NOT NULL,
+    result TEXT,
+    last_error TEXT,
+    fallback BOOLEAN NOT NULL DEFAULT FALSE,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    max_attempts INTEGER NOT NULL DEFAULT 5,
+    run_after TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    locked_by VARCHAR(100),
+    locked_until TIMESTAMP,
+    created_by BIGINT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP,
+
+    CONSTRAINT fk_ai_jobs_created_by FOREIGN KEY (created_by) REFERENCES users(id) ON DELETE SET NULL,
+    CONSTRAINT chk_ai_jobs_status CHECK (status IN ('PENDING', 'RUNNING', 'SUCCEEDED', 'FAILED'))
+);
+
+-- Workers claim due jobs in run_after order
+CREATE INDEX idx_ai_jobs_pending ON ai_jobs(run_after, id) WHERE status = 'PENDING';
+
+-- Expired leases of crashed workers are found here
+CREATE INDEX idx_ai_jobs_running ON ai_jobs(locked_until) WHERE status = 'RUNNING';
+
+-- At most one queued or running job per identical request
+CREATE UNIQUE INDEX idx_ai_jobs_active_request ON ai_jobs(job_type, request_hash)
+    WHERE status IN ('PENDING', 'RUNNING');
@@ -0,0 +1,48 @@
+-- Canonical competencies with small integer ids, plus the spellings that map onto them.
+-- Read by CompetencyDictionary, which reloads periodically so aliases can be edited live.
+CREATE TABLE competencies (
+    id SMALLSERIAL PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    sort_order INTEGER NOT NULL DEFAULT 0,
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT uk_competencies_name UNIQUE (name)
+);
+
+-- Aliases are stored lower-cased; the canonical name itself never needs an alias row
+CREATE TABLE competency_aliases (
+    alias VARCHAR(100) PRIMARY KEY,
+    competency_id SMALLINT NOT NULL,
+
+    CONSTRAINT fk_competency_aliases_competency FOREIGN KEY (competency_id) REFERENCES competencies(id) ON DELETE CASCADE,
+    CONSTRAINT chk_competency_aliases_lower CHECK (alias = LOWER(alias))
+);
+
+CREATE INDEX idx_competency_aliases_competency_id ON competency_aliases(competency_id);
+
+INSERT INTO competencies (name, sort_order) VALUES
+    ('Technical Skills', 1),
+    ('Problem Solving', 2),
+    ('Quality Focus', 3),
+    ('Time Management', 4),
+    ('Teamwork', 5),
+    ('Leadership', 6),
+    ('Adaptability', 7),
+    ('Communication', 8);
+
+-- Same mappings as the former built-in alias table of CompetencyNormalizer
+INSERT INTO competency_aliases (alias, competency_id)
+SELECT a.alias, c.id
+FROM (VALUES
+    ('technical_skills', 'Technical Skills'),
+    ('technical_excellence', 'Technical Skills'),
+    ('problem_solving', 'Problem Solving'),
+    ('quality_focus', 'Quality Focus'),
+    ('quality', 'Quality Focus'),
+    ('time_management', 'Time Management'),
+    ('reliability', 'Time Management'),
+    ('initiative', 'Leadership')
+) AS a(alias, name)
+JOIN competencies c ON c.name = a.name;
@@ -0,0 +1,24 @@
+-- One live evaluation per (employee, project, year, month). Submissions insert with
+-- ON CONFLICT against this index instead of checking for an existing row first.
+
+-- Earlier check-then-insert races left duplicates: keep the most recent row per period
+-- (the one the API already returned) and archive the rest.
+UPDATE evaluations e
+SET status = 'ARCHIVED'
+FROM (
+    SELECT id,
+           ROW_NUMBER() OVER (PARTITION BY employee_id, project_id, evaluation_year, evaluation_month
+                              ORDER BY created_at DESC, id DESC) AS rn
+    FROM evaluations
+    WHERE project_id IS NOT NULL
+      AND evaluation_year IS NOT NULL
+      AND evaluation_month IS NOT NULL
+      AND status <> 'ARCHIVED'
+) d
+WHERE e.id = d.id
+  AND d.rn > 1;
+
+-- Rows without a project (monthly cycle drafts) never conflict: NULLs are distinct
+CREATE UNIQUE INDEX IF NOT EXISTS uk_evaluations_employee_project_period
+    ON evaluations (employee_id, project_id, evaluation_year, evaluation_month)
+    WHERE status <> 'ARCHIVED';
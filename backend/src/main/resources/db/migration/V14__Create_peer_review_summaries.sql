@@ -0,0 +1,10 @@
+-- Last AI summary of an evaluation's peer reviews. source_hash identifies the review text it
+-- was generated from; a summary whose hash no longer matches is regenerated on next request.
+CREATE TABLE IF NOT EXISTS peer_review_summaries (
+    evaluation_id BIGINT PRIMARY KEY,
+    source_hash VARCHAR(64) NOT NULL,
+    summary TEXT NOT NULL,
+    generated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_peer_review_summaries_evaluation FOREIGN KEY (evaluation_id) REFERENCES evaluations(id) ON DELETE CASCADE
+);
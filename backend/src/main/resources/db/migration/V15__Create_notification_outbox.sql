@@ -0,0 +1,27 @@
+-- Transactional outbox for review notifications: rows are written in the same transaction as
+-- the state change and delivered later by the dispatcher, at least once.
+CREATE TABLE notification_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    event_type VARCHAR(50) NOT NULL,
+    recipient_id BIGINT,
+    recipient_email VARCHAR(255) NOT NULL,
+    evaluation_id BIGINT,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    run_after TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    locked_by VARCHAR(100),
+    locked_until TIMESTAMP,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    sent_at TIMESTAMP,
+
+    CONSTRAINT chk_notification_outbox_status CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'FAILED'))
+);
+
+-- The dispatcher picks recipients with a due row, then claims all of their pending rows
+CREATE INDEX idx_notification_outbox_pending ON notification_outbox(run_after, recipient_email) WHERE status = 'PENDING';
+CREATE INDEX idx_notification_outbox_pending_recipient ON notification_outbox(recipient_email, id) WHERE status = 'PENDING';
+
+-- Expired leases of stopped dispatchers are found here
+CREATE INDEX idx_notification_outbox_sending ON notification_outbox(locked_until) WHERE status = 'SENDING';
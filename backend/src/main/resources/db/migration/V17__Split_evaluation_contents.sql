@@ -0,0 +1,34 @@
+-- Free-text fields move out of the evaluations row into a 1:1 table keyed by the evaluation id,
+-- so list, analytics and lookup queries only read the narrow numeric row.
+CREATE TABLE IF NOT EXISTS evaluation_contents (
+    evaluation_id            BIGINT PRIMARY KEY,
+    achievements             TEXT,
+    challenges               TEXT,
+    learnings                TEXT,
+    next_period_goals        TEXT,
+    additional_feedback      TEXT,
+    manager_feedback_request TEXT,
+    manager_feedback         TEXT,
+    recommendations          TEXT,
+    CONSTRAINT fk_evaluation_contents_evaluation
+        FOREIGN KEY (evaluation_id) REFERENCES evaluations(id) ON DELETE CASCADE
+);
+
+-- Every evaluation gets a content row (the mapping treats it as mandatory), even when all
+-- of its text is empty
+INSERT INTO evaluation_contents (evaluation_id, achievements, challenges, learnings, next_period_goals,
+                                 additional_feedback, manager_feedback_request, manager_feedback, recommendations)
+SELECT id, achievements, challenges, learnings, next_period_goals,
+       additional_feedback, manager_feedback_request, manager_feedback, recommendations
+FROM evaluations
+ON CONFLICT (evaluation_id) DO NOTHING;
+
+ALTER TABLE evaluations
+    DROP COLUMN IF EXISTS achievements,
+    DROP COLUMN IF EXISTS challenges,
+    DROP COLUMN IF EXISTS learnings,
+    DROP COLUMN IF EXISTS next_period_goals,
+    DROP COLUMN IF EXISTS additional_feedback,
+    DROP COLUMN IF EXISTS manager_feedback_request,
+    DROP COLUMN IF EXISTS manager_feedback,
+    DROP COLUMN IF EXISTS recommendations;
@@ -0,0 +1,39 @@
+-- Competency ratings move from one row per competency (evaluation_ratings and
+-- evaluation_manager_competency_ratings) to JSONB maps on the evaluation row, e.g.
+-- {"communication": 4, "teamwork": 5}.
+ALTER TABLE evaluations
+    ADD COLUMN IF NOT EXISTS competency_ratings JSONB NOT NULL DEFAULT '{}'::jsonb,
+    ADD COLUMN IF NOT EXISTS manager_competency_ratings JSONB NOT NULL DEFAULT '{}'::jsonb;
+
+DO $$
+BEGIN
+    IF to_regclass('evaluation_ratings') IS NOT NULL THEN
+        UPDATE evaluations e
+        SET competency_ratings = r.ratings
+        FROM (SELECT evaluation_id, jsonb_object_agg(competency, rating) AS ratings
+              FROM evaluation_ratings
+              WHERE competency IS NOT NULL AND rating IS NOT NULL
+              GROUP BY evaluation_id) r
+        WHERE e.id = r.evaluation_id;
+        DROP TABLE evaluation_ratings;
+    END IF;
+
+    IF to_regclass('evaluation_manager_competency_ratings') IS NOT NULL THEN
+        UPDATE evaluations e
+        SET manager_competency_ratings = r.ratings
+        FROM (SELECT evaluation_id, jsonb_object_agg(competency, rating) AS ratings
+              FROM evaluation_manager_competency_ratings
+              WHERE competency IS NOT NULL AND rating IS NOT NULL
+              GROUP BY evaluation_id) r
+        WHERE e.id = r.evaluation_id;
+        DROP TABLE evaluation_manager_competency_ratings;
+    END IF;
+END $$;
+
+-- Per-competency filters are containment queries, e.g.
+--   WHERE manager_competency_ratings @> '{"teamwork": 5}'
+-- which jsonb_path_ops indexes at a fraction of the size of the default operator class
+CREATE INDEX IF NOT EXISTS idx_evaluations_competency_ratings
+    ON evaluations USING GIN (competency_ratings jsonb_path_ops);
+CREATE INDEX IF NOT EXISTS idx_evaluations_manager_competency_ratings
+    ON evaluations USING GIN (manager_competency_ratings jsonb_path_ops);
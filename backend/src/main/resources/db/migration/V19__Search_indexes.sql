@@ -0,0 +1,25 @@
+-- People search: substring and fuzzy matches on email and full name use trigram GIN indexes
+-- instead of scanning users. The expressions must match the ones in SearchService.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm
+    ON users USING GIN (lower(email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_full_name_trgm
+    ON users USING GIN (lower(coalesce(first_name, '') || ' ' || coalesce(last_name, '')) gin_trgm_ops);
+
+-- Evaluation text search: a generated, weighted tsvector over the narrative fields. The
+-- employee's achievements and the manager's feedback rank highest.
+ALTER TABLE evaluation_contents
+    ADD COLUMN IF NOT EXISTS search_vector TSVECTOR GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(achievements, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(manager_feedback, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(challenges, '')), 'B') ||
+        setweight(to_tsvector('english', coalesce(recommendations, '')), 'B') ||
+        setweight(to_tsvector('english', coalesce(learnings, '')), 'C') ||
+        setweight(to_tsvector('english', coalesce(next_period_goals, '')), 'C') ||
+        setweight(to_tsvector('english', coalesce(additional_feedback, '')), 'D') ||
+        setweight(to_tsvector('english', coalesce(manager_feedback_request, '')), 'D')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_evaluation_contents_search
+    ON evaluation_contents USING GIN (search_vector);
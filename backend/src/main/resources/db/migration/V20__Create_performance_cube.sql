@@ -0,0 +1,53 @@
+-- Company-wide rollup of evaluation ratings by department x project x month x competency,
+-- maintained incrementally by PerformanceCubeService. Unknown dimensions use '' / 0, and the
+-- competency '*' holds the overall self and manager ratings. Only sums are stored, so any
+-- roll-up is a SUM over cells and averages / deviations are derived from the totals.
+CREATE TABLE IF NOT EXISTS performance_cube (
+    department      VARCHAR(255) NOT NULL,
+    project_id      BIGINT       NOT NULL,
+    period_year     INT          NOT NULL,
+    period_month    INT          NOT NULL,
+    competency      VARCHAR(255) NOT NULL,
+    evaluations     BIGINT       NOT NULL,
+    self_count      BIGINT       NOT NULL,
+    self_sum        BIGINT       NOT NULL,
+    self_sum_sq     BIGINT       NOT NULL,
+    manager_count   BIGINT       NOT NULL,
+    manager_sum     BIGINT       NOT NULL,
+    manager_sum_sq  BIGINT       NOT NULL,
+    -- Manager minus self, over evaluations rated by both
+    gap_count       BIGINT       NOT NULL,
+    gap_sum         BIGINT       NOT NULL,
+    gap_sum_sq      BIGINT       NOT NULL,
+    refreshed_at    TIMESTAMP    NOT NULL,
+    PRIMARY KEY (period_year, period_month, department, project_id, competency)
+);
+
+CREATE INDEX IF NOT EXISTS idx_performance_cube_department ON performance_cube (department, period_year);
+CREATE INDEX IF NOT EXISTS idx_performance_cube_project ON performance_cube (project_id, period_year);
+
+-- The cell each evaluation was last counted in, so a change can recompute the cell it left,
+-- and the change that was counted, so rows seen again in the overlap window are skipped
+CREATE TABLE IF NOT EXISTS performance_cube_members (
+    evaluation_id   BIGINT       PRIMARY KEY,
+    department      VARCHAR(255) NOT NULL,
+    project_id      BIGINT       NOT NULL,
+    period_year     INT          NOT NULL,
+    period_month    INT          NOT NULL,
+    changed_at      TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS performance_cube_state (
+    id              INT          PRIMARY KEY CHECK (id = 1),
+    watermark       TIMESTAMP,
+    refreshed_at    TIMESTAMP
+);
+INSERT INTO performance_cube_state (id) VALUES (1) ON CONFLICT (id) DO NOTHING;
+
+-- Finds evaluations changed since the watermark
+CREATE INDEX IF NOT EXISTS idx_evaluations_changed_at
+    ON evaluations ((COALESCE(updated_at, created_at)));
+
+-- Finds the evaluations of a cell when recomputing it
+CREATE INDEX IF NOT EXISTS idx_evaluations_cube_cell
+    ON evaluations ((COALESCE(evaluation_year, 0)), (COALESCE(evaluation_month, 0)), (COALESCE(project_id, 0)));
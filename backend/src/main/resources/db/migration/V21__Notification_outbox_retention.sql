@@ -0,0 +1,2 @@
+-- Delivered rows are purged after app.notifications.retention-days
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_sent ON notification_outbox(sent_at) WHERE status = 'SENT';
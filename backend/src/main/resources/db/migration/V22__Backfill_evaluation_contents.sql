@@ -0,0 +1,7 @@
+-- Drafts opened by the monthly cycle used to be inserted without a content row and so were
+-- left out of every query that joins evaluation_contents (the NDJSON exports among them)
+INSERT INTO evaluation_contents (evaluation_id)
+SELECT e.id
+FROM evaluations e
+WHERE NOT EXISTS (SELECT 1 FROM evaluation_contents c WHERE c.evaluation_id = e.id)
+ON CONFLICT (evaluation_id) DO NOTHING;
@@ -0,0 +1,3 @@
+-- Cells used to be keyed by the raw rating keys; clearing the watermark makes the next refresh
+-- rebuild the cube under the canonical competency names
+UPDATE performance_cube_state SET watermark = NULL WHERE id = 1;
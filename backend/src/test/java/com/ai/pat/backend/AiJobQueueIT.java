@@ -0,0 +1,200 @@
+package com.ai.pat.backend;
+
+import com.ai.pat.backend.controller.dto.ai.DraftEvaluationRequest;
+import com.ai.pat.backend.entity.AiJob;
+import com.ai.pat.backend.service.AiJobService;
+import com.ai.pat.backend.service.AiProviderClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@Testcontainers
+class AiJobQueueIT {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("ai_ppap_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void registerProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.flyway.repair-on-migrate", () -> "true");
+        registry.add("spring.flyway.validate-on-migrate", () -> "false");
+        registry.add("ai.jobs.poll-interval-ms", () -> "50");
+        registry.add("ai.jobs.max-attempts", () -> String.valueOf(MAX_ATTEMPTS));
+        registry.add("ai.jobs.backoff-initial-ms", () -> "10");
+        registry.add("ai.jobs.backoff-max-ms", () -> "50");
+    }
+
+    @MockBean
+    private AiProviderClient providerClient;
+
+    @Autowired
+    private AiJobService aiJobService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate.update("DELETE FROM ai_jobs");
+        Mockito.when(providerClient.isConfigured()).thenReturn(true);
+    }
+
+    @Test
+    void identicalSubmissionsShareOneActiveJob() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(providerClient.chat(ArgumentMatchers.anyString(), ArgumentMatchers.anyMap())).thenAnswer(inv -> {
+            release.await(10, TimeUnit.SECONDS);
+            return Map.of("reply", "Solid quarter.");
+        });
+        DraftEvaluationRequest req = request("Dana Duplicate");
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<Long>> submits = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < 8; i++) {
+            submits.add(pool.submit(() -> {
+                start.await();
+                return aiJobService.submitDraftEvaluation(req, null).getId();
+            }));
+        }
+        start.countDown();
+        Set<Long> ids = new HashSet<>();
+        for (Future<Long> f : submits) ids.add(f.get(30, TimeUnit.SECONDS));
+        pool.shutdown();
+
+        Assertions.assertEquals(1, ids.size(), "concurrent identical submissions must share one job");
+        Long jobId = ids.iterator().next();
+        Assertions.assertEquals(1, count("SELECT COUNT(*) FROM ai_jobs"));
+
+        release.countDown();
+        Map<String, Object> done = awaitStatus(jobId, "SUCCEEDED");
+        Assertions.assertEquals(1, ((Number) done.get("attempts")).intValue());
+        Assertions.assertNull(done.get("locked_by"));
+
+        // The finished job no longer absorbs submissions
+        Long next = aiJobService.submitDraftEvaluation(req, null).getId();
+        Assertions.assertNotEquals(jobId, next);
+    }
+
+    @Test
+    void expiredLeasesAreReclaimedOrFailedWhenOutOfAttempts() throws Exception {
+        Mockito.when(providerClient.chat(ArgumentMatchers.anyString(), ArgumentMatchers.anyMap()))
+                .thenReturn(Map.of("reply", "Recovered draft."));
+
+        long reclaimed = insertRunning("Lena Lease", 1, "CURRENT_TIMESTAMP - INTERVAL '1 minute'");
+        long exhausted = insertRunning("Otto Out", MAX_ATTEMPTS, "CURRENT_TIMESTAMP - INTERVAL '1 minute'");
+        long held = insertRunning("Hana Held", 1, "CURRENT_TIMESTAMP + INTERVAL '10 minutes'");
+
+        Map<String, Object> recovered = awaitStatus(reclaimed, "SUCCEEDED");
+        Assertions.assertEquals(2, ((Number) recovered.get("attempts")).intValue());
+        Assertions.assertNull(recovered.get("locked_by"));
+
+        Map<String, Object> failed = awaitStatus(exhausted, "FAILED");
+        Assertions.assertEquals("Lease expired", failed.get("last_error"));
+        Assertions.assertNotNull(failed.get("completed_at"));
+
+        // A live lease of another worker is left alone
+        Map<String, Object> stillHeld = job(held);
+        Assertions.assertEquals("RUNNING", stillHeld.get("status"));
+        Assertions.assertEquals("other-worker", stillHeld.get("locked_by"));
+    }
+
+    @Test
+    void failingProviderIsRetriedUntilMaxAttemptsThenFallsBack() throws Exception {
+        Mockito.when(providerClient.chat(ArgumentMatchers.anyString(), ArgumentMatchers.anyMap()))
+                .thenThrow(new IllegalStateException("provider down"));
+
+        AiJob job = aiJobService.submitDraftEvaluation(request("Fritz Failing"), null);
+
+        Map<String, Object> done = awaitStatus(job.getId(), "SUCCEEDED");
+        Assertions.assertEquals(MAX_ATTEMPTS, ((Number) done.get("attempts")).intValue());
+        Assertions.assertEquals(Boolean.TRUE, done.get("fallback"));
+        Assertions.assertTrue(((String) done.get("last_error")).contains("provider down"));
+        Assertions.assertNotNull(aiJobService.readDraftResult(aiJobService.findJob(job.getId()).orElseThrow()).getSummary());
+        Mockito.verify(providerClient, Mockito.times(MAX_ATTEMPTS))
+                .chat(ArgumentMatchers.anyString(), ArgumentMatchers.anyMap());
+    }
+
+    private DraftEvaluationRequest request(String employeeName) {
+        DraftEvaluationRequest req = new DraftEvaluationRequest();
+        req.setEmployeeName(employeeName);
+        req.setRole("Engineer");
+        req.setCompetencyRatings(Map.of("Communication", 4, "Teamwork", 5));
+        return req;
+    }
+
+    // A job some other (now gone) worker claimed, with its lease ending at leaseUntilSql
+    private long insertRunning(String employeeName, int attempts, String leaseUntilSql) throws Exception {
+        String payload = objectMapper.writeValueAsString(request(employeeName));
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO ai_jobs (job_type, status, request_hash, payload, attempts, max_attempts,
+                                     locked_by, locked_until)
+                VALUES (?, 'RUNNING', md5(?), ?, ?, ?, 'other-worker', %s)
+                RETURNING id
+                """.formatted(leaseUntilSql), Long.class,
+                AiJobService.DRAFT_EVALUATION, employeeName, payload, attempts, MAX_ATTEMPTS);
+    }
+
+    private Map<String, Object> awaitStatus(long id, String status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 15_000;
+        Map<String, Object> row = job(id);
+        while (!status.equals(row.get("status")) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            row = job(id);
+        }
+        Assertions.assertEquals(status, row.get("status"), "job " + id + ": " + row.entrySet().stream()
+                .map(e -> e.getKey() + "=" + e.getValue()).collect(Collectors.joining(", ")));
+        return row;
+    }
+
+    private Map<String, Object> job(long id) {
+        return jdbcTemplate.queryForMap(
+                "SELECT status, attempts, fallback, last_error, locked_by, completed_at FROM ai_jobs WHERE id = ?", id);
+    }
+
+    private long count(String sql) {
+        Long n = jdbcTemplate.queryForObject(sql, Long.class);
+        return n == null ? 0 : n;
+    }
+}
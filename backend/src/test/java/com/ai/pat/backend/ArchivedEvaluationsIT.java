@@ -0,0 +1,132 @@
+package com.ai.pat.backend;
+
+import com.ai.pat.backend.dto.EvaluationDTO;
+import com.ai.pat.backend.model.Evaluation;
+import com.ai.pat.backend.model.User;
+import com.ai.pat.backend.repository.UserRepository;
+import com.ai.pat.backend.service.EvaluationService;
+import com.ai.pat.backend.service.ManagerAnalyticsService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@Testcontainers
+class ArchivedEvaluationsIT {
+
+    private static final int YEAR = 2096;
+    private static final String DEPARTMENT = "Archive QA";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("ai_ppap_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void registerProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.flyway.repair-on-migrate", () -> "true");
+        registry.add("spring.flyway.validate-on-migrate", () -> "false");
+    }
+
+    @Autowired
+    private EvaluationService evaluationService;
+
+    @Autowired
+    private ManagerAnalyticsService managerAnalyticsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long manager;
+    private long employee;
+    private long live;
+    private long archived;
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate.update("DELETE FROM evaluations WHERE evaluation_year = ?", YEAR);
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE 'archive.%'");
+        jdbcTemplate.update("DELETE FROM projects WHERE name = 'Archive project'");
+        manager = user("archive.manager");
+        employee = user("archive.employee");
+        Long project = jdbcTemplate.queryForObject(
+                "INSERT INTO projects (name) VALUES ('Archive project') RETURNING id", Long.class);
+        jdbcTemplate.update("INSERT INTO user_projects (user_id, project_id) VALUES (?, ?)", employee, project);
+        jdbcTemplate.update("INSERT INTO manager_projects (manager_id, project_id) VALUES (?, ?)", manager, project);
+        // The duplicate V13 archived next to the row that now holds the period
+        archived = evaluation(project, "ARCHIVED");
+        live = evaluation(project, "SUBMITTED");
+    }
+
+    @Test
+    void archivedDuplicatesAreOnlyListedWhenAskedForByStatus() {
+        Assertions.assertEquals(List.of(live), ids(evaluationService.getEmployeeEvaluations(employee)));
+        Assertions.assertEquals(List.of(live), ids(evaluationService.getManagerVisibleEvaluations(manager)));
+        Assertions.assertEquals(List.of(live), ids(evaluationService.getDepartmentEvaluations(DEPARTMENT)));
+        Assertions.assertEquals(List.of(live),
+                ids(evaluationService.getEvaluationPage(null, 50, null, DEPARTMENT).getItems()));
+        Assertions.assertFalse(ids(evaluationService.getAllEvaluations()).contains(archived));
+        Assertions.assertTrue(ids(evaluationService.getEvaluationsByStatus(Evaluation.EvaluationStatus.ARCHIVED))
+                .contains(archived));
+    }
+
+    @Test
+    void analyticsCountLiveEvaluationsOnly() {
+        Assertions.assertEquals(1, managerAnalyticsService.getAnalytics(manager).get("totalEvaluations"));
+
+        // Archiving the remaining row takes it out of the cached aggregate as well
+        evaluationService.updateEvaluationStatus(live, Evaluation.EvaluationStatus.ARCHIVED);
+        Assertions.assertEquals(0, managerAnalyticsService.getAnalytics(manager).get("totalEvaluations"));
+    }
+
+    private long user(String username) {
+        User u = userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@corp.com")
+                .password("nop")
+                .firstName("Archive")
+                .lastName(username.substring(username.indexOf('.') + 1))
+                .department(DEPARTMENT)
+                .build());
+        // The entity does not persist roles
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role) VALUES (?, 'ROLE_EMPLOYEE')", u.getId());
+        return u.getId();
+    }
+
+    private long evaluation(long projectId, String status) {
+        Long id = jdbcTemplate.queryForObject("""
+                INSERT INTO evaluations (employee_id, project_id, evaluation_year, evaluation_month, status,
+                                         overall_rating, submitted_at, created_at, updated_at)
+                VALUES (?, ?, ?, 1, ?, 4, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+                RETURNING id
+                """, Long.class, employee, projectId, YEAR, status);
+        jdbcTemplate.update("INSERT INTO evaluation_contents (evaluation_id) VALUES (?)", id);
+        return id;
+    }
+
+    private static List<Long> ids(List<EvaluationDTO> evaluations) {
+        return evaluations.stream().map(EvaluationDTO::getId).toList();
+    }
+}
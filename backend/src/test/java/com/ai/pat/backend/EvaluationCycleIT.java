@@ -0,0 +1,168 @@
+package com.ai.pat.backend;
+
+import com.ai.pat.backend.dto.EvaluationDTO;
+import com.ai.pat.backend.model.Evaluation;
+import com.ai.pat.backend.model.User;
+import com.ai.pat.backend.repository.UserRepository;
+import com.ai.pat.backend.service.EvaluationCycleService;
+import com.ai.pat.backend.service.EvaluationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@Testcontainers
+class EvaluationCycleIT {
+
+    private static final int YEAR = 2099;
+    private static final int MONTH = 3;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("ai_ppap_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void registerProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.flyway.repair-on-migrate", () -> "true");
+        registry.add("spring.flyway.validate-on-migrate", () -> "false");
+        // Several chunks for a handful of employees
+        registry.add("app.evaluation-cycle.chunk-size", () -> "2");
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+    }
+
+    @Autowired
+    private EvaluationCycleService evaluationCycleService;
+
+    @Autowired
+    private EvaluationService evaluationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> employeeIds = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate.update("DELETE FROM evaluations WHERE evaluation_year = ?", YEAR);
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE 'cycle.%'");
+        jdbcTemplate.update("DELETE FROM projects WHERE name = 'Cycle QA project'");
+        employeeIds.clear();
+        for (int i = 0; i < 5; i++) {
+            User u = userRepository.save(User.builder()
+                    .username("cycle.employee" + i)
+                    .email("cycle.employee" + i + "@corp.com")
+                    .password("nop")
+                    .firstName("Cycle")
+                    .lastName("Employee " + i)
+                    .department("Cycle QA")
+                    .build());
+            // The entity does not persist roles
+            jdbcTemplate.update("INSERT INTO user_roles (user_id, role) VALUES (?, 'ROLE_EMPLOYEE')", u.getId());
+            employeeIds.add(u.getId());
+        }
+    }
+
+    @Test
+    void opensOneDraftPerEmployeeAndResumesAfterAPartialRun() {
+        // An earlier run that stopped after the first employee
+        jdbcTemplate.update("""
+                INSERT INTO evaluations (employee_id, evaluation_year, evaluation_month, status, overall_rating,
+                                         submitted_at, created_at, updated_at)
+                VALUES (?, ?, ?, 'DRAFT', 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+                """, employeeIds.get(0), YEAR, MONTH);
+
+        EvaluationCycleService.CycleResult first = evaluationCycleService.openCycle(MONTH, YEAR);
+        Assertions.assertTrue(first.created() >= employeeIds.size() - 1);
+        Assertions.assertTrue(first.chunks() >= 2);
+        Assertions.assertEquals(employeeIds, jdbcTemplate.queryForList("""
+                SELECT employee_id FROM evaluations
+                WHERE evaluation_year = ? AND evaluation_month = ? AND employee_id = ANY(?::bigint[])
+                ORDER BY employee_id
+                """, Long.class, YEAR, MONTH, employeeIds.toArray(new Long[0])));
+
+        // Drafts have no reviewer until one is assigned
+        Assertions.assertEquals(0, count("""
+                SELECT COUNT(*) FROM evaluations
+                WHERE evaluation_year = %d AND status = 'DRAFT' AND reviewer_id IS NOT NULL
+                """.formatted(YEAR)));
+
+        // Re-running the cycle inserts nothing
+        Assertions.assertEquals(0, evaluationCycleService.openCycle(MONTH, YEAR).created());
+    }
+
+    @Test
+    void draftsAreCreatedWithTheirContentRowAndExported() {
+        EvaluationCycleService.CycleResult first = evaluationCycleService.openCycle(MONTH, YEAR);
+        Assertions.assertTrue(first.created() >= employeeIds.size());
+        Assertions.assertEquals(0, count("""
+                SELECT COUNT(*) FROM evaluations e
+                WHERE NOT EXISTS (SELECT 1 FROM evaluation_contents c WHERE c.evaluation_id = e.id)
+                """));
+
+        // Re-running the cycle inserts neither drafts nor content rows
+        long contents = count("SELECT COUNT(*) FROM evaluation_contents");
+        Assertions.assertEquals(0, evaluationCycleService.openCycle(MONTH, YEAR).created());
+        Assertions.assertEquals(contents, count("SELECT COUNT(*) FROM evaluation_contents"));
+
+        // Assign a reviewer and project, then export from cold caches: employee, reviewer and
+        // project come back with the row, so the whole export is a single statement
+        Long projectId = jdbcTemplate.queryForObject(
+                "INSERT INTO projects (name) VALUES ('Cycle QA project') RETURNING id", Long.class);
+        jdbcTemplate.update("UPDATE evaluations SET reviewer_id = ?, project_id = ? WHERE employee_id = ANY(?::bigint[])",
+                employeeIds.get(0), projectId, employeeIds.toArray(new Long[0]));
+        entityManagerFactory.getCache().evictAll();
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        List<Long> exported = new ArrayList<>();
+        evaluationService.streamEvaluations(null, "Cycle QA", dto -> {
+            Assertions.assertEquals(Evaluation.EvaluationStatus.DRAFT, dto.getStatus());
+            Assertions.assertNotNull(dto.getEmployeeName());
+            Assertions.assertEquals("Cycle QA project", dto.getProjectName());
+            Assertions.assertNotNull(dto.getReviewerName());
+            exported.add(dto.getEmployeeId());
+        });
+        Assertions.assertEquals(employeeIds, exported);
+        Assertions.assertEquals(1, stats.getPrepareStatementCount());
+
+        List<EvaluationDTO> drafts = new ArrayList<>();
+        evaluationService.streamEvaluations(Evaluation.EvaluationStatus.DRAFT, null, dto -> {
+            if (employeeIds.contains(dto.getEmployeeId())) drafts.add(dto);
+        });
+        Assertions.assertEquals(employeeIds.size(), drafts.size());
+    }
+
+    private long count(String sql) {
+        Long n = jdbcTemplate.queryForObject(sql, Long.class);
+        return n == null ? 0 : n;
+    }
+}
@@ -0,0 +1,149 @@
+package com.ai.pat.backend;
+
+import com.ai.pat.backend.model.User;
+import com.ai.pat.backend.repository.UserRepository;
+import com.ai.pat.backend.service.EvaluationService;
+import com.ai.pat.backend.service.EvaluationService.GradeItem;
+import com.ai.pat.backend.service.EvaluationService.GradeResult;
+import com.ai.pat.backend.service.NotificationOutbox;
+import com.ai.pat.backend.service.ProjectMembershipGraph;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Map;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@Testcontainers
+class GradeBatchIT {
+
+    private static final int YEAR = 2097;
+    private static final long MISSING = Long.MAX_VALUE;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("ai_ppap_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void registerProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.flyway.repair-on-migrate", () -> "true");
+        registry.add("spring.flyway.validate-on-migrate", () -> "false");
+        // Keep enqueued notifications in the outbox for the assertions
+        registry.add("app.notifications.dispatcher-enabled", () -> "false");
+    }
+
+    @Autowired
+    private EvaluationService evaluationService;
+
+    @Autowired
+    private ProjectMembershipGraph membershipGraph;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long manager;
+    private long member;
+    private long outsider;
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate.update("DELETE FROM evaluations WHERE evaluation_year = ?", YEAR);
+        jdbcTemplate.update("DELETE FROM notification_outbox WHERE recipient_email LIKE 'grade.%'");
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE 'grade.%'");
+        jdbcTemplate.update("DELETE FROM projects WHERE name = 'Grade batch project'");
+        manager = user("grade.manager");
+        member = user("grade.member");
+        outsider = user("grade.outsider");
+        Long project = jdbcTemplate.queryForObject(
+                "INSERT INTO projects (name) VALUES ('Grade batch project') RETURNING id", Long.class);
+        jdbcTemplate.update("INSERT INTO user_projects (user_id, project_id) VALUES (?, ?)", member, project);
+        jdbcTemplate.update("INSERT INTO manager_projects (manager_id, project_id) VALUES (?, ?)", manager, project);
+        membershipGraph.reload();
+    }
+
+    @Test
+    void appliesTheValidItemsAndReportsTheRest() {
+        long scored = evaluation(member, 1);
+        long rated = evaluation(member, 2);
+        long invalid = evaluation(member, 3);
+        long forbidden = evaluation(outsider, 1);
+
+        List<GradeResult> results = evaluationService.gradeBatch(manager, List.of(
+                new GradeItem(scored, Map.of("Communication", 4, "Teamwork", 2)),
+                new GradeItem(rated, Map.of("overall", 5)),
+                new GradeItem(invalid, Map.of("Communication", 9)),
+                new GradeItem(forbidden, Map.of("Communication", 4)),
+                new GradeItem(MISSING, Map.of("Communication", 4))));
+
+        Assertions.assertEquals(List.of(scored, rated, invalid, forbidden, MISSING),
+                results.stream().map(GradeResult::evaluationId).toList());
+        Assertions.assertEquals(List.of(GradeResult.UPDATED, GradeResult.UPDATED, GradeResult.INVALID,
+                        GradeResult.FORBIDDEN, GradeResult.NOT_FOUND),
+                results.stream().map(GradeResult::status).toList());
+        Assertions.assertEquals(3, results.get(0).managerRating());
+        Assertions.assertEquals(5, results.get(1).managerRating());
+
+        // Both kinds of grade leave the evaluation reviewed; skipped ones are untouched
+        Assertions.assertEquals(Map.of("status", "REVIEWED", "manager_rating", 3), row(scored));
+        Assertions.assertEquals(Map.of("status", "REVIEWED", "manager_rating", 5), row(rated));
+        Assertions.assertEquals("SUBMITTED", row(invalid).get("status"));
+        Assertions.assertEquals("SUBMITTED", row(forbidden).get("status"));
+
+        // The employee hears about each graded evaluation, as with a single review
+        Assertions.assertEquals(List.of(scored, rated), jdbcTemplate.queryForList("""
+                SELECT evaluation_id FROM notification_outbox
+                WHERE event_type = ? AND recipient_email LIKE 'grade.%' ORDER BY evaluation_id
+                """, Long.class, NotificationOutbox.EVALUATION_REVIEWED));
+        Assertions.assertEquals(List.of("grade.member@corp.com", "grade.member@corp.com"), jdbcTemplate.queryForList(
+                "SELECT recipient_email FROM notification_outbox WHERE recipient_email LIKE 'grade.%'", String.class));
+    }
+
+    private long user(String username) {
+        User u = userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@corp.com")
+                .password("nop")
+                .firstName("Grade")
+                .lastName(username.substring(username.indexOf('.') + 1))
+                .department("Grade QA")
+                .build());
+        // The entity does not persist roles
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role) VALUES (?, 'ROLE_EMPLOYEE')", u.getId());
+        return u.getId();
+    }
+
+    private long evaluation(long employeeId, int month) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO evaluations (employee_id, evaluation_year, evaluation_month, status, overall_rating,
+                                         submitted_at, created_at, updated_at)
+                VALUES (?, ?, ?, 'SUBMITTED', 4, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+                RETURNING id
+                """, Long.class, employeeId, YEAR, month);
+    }
+
+    private Map<String, Object> row(long id) {
+        return jdbcTemplate.queryForMap("SELECT status, manager_rating FROM evaluations WHERE id = ?", id);
+    }
+}
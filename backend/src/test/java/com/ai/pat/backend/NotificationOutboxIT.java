@@ -0,0 +1,195 @@
+package com.ai.pat.backend;
+
+import com.ai.pat.backend.service.NotificationOutbox;
+import com.ai.pat.backend.service.NotificationSink;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@Testcontainers
+class NotificationOutboxIT {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final String FAILING = "down@corp.com";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("ai_ppap_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void registerProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.flyway.repair-on-migrate", () -> "true");
+        registry.add("spring.flyway.validate-on-migrate", () -> "false");
+        registry.add("app.notifications.poll-interval-ms", () -> "50");
+        registry.add("app.notifications.coalesce-ms", () -> "0");
+        registry.add("app.notifications.max-attempts", () -> String.valueOf(MAX_ATTEMPTS));
+        // Long enough that a backed-off row is never due again during a test
+        registry.add("app.notifications.backoff-initial-ms", () -> "600000");
+        registry.add("app.notifications.backoff-max-ms", () -> "600000");
+        registry.add("app.notifications.retention-days", () -> "14");
+    }
+
+    @MockBean
+    private NotificationSink sink;
+
+    @Autowired
+    private NotificationOutbox outbox;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<NotificationSink.Notification> delivered = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setup() throws Exception {
+        jdbcTemplate.update("DELETE FROM notification_outbox");
+        delivered.clear();
+        Mockito.doAnswer(inv -> {
+            NotificationSink.Notification n = inv.getArgument(0);
+            if (FAILING.equals(n.recipientEmail())) throw new IllegalStateException("mailbox unavailable");
+            delivered.add(n);
+            return null;
+        }).when(sink).deliver(ArgumentMatchers.any());
+    }
+
+    @Test
+    void eventsCommittedTogetherAreDeliveredAsOneNotification() throws Exception {
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+            outbox.enqueue(NotificationOutbox.EVALUATION_SUBMITTED, null, "mia@corp.com", 1L, Map.of("n", 1));
+            outbox.enqueue(NotificationOutbox.EVALUATION_SUBMITTED, null, "mia@corp.com", 2L, Map.of("n", 2));
+            outbox.enqueue(NotificationOutbox.PEER_REVIEW_RECEIVED, null, "mia@corp.com", 3L, Map.of("n", 3));
+        });
+
+        awaitCount("SELECT COUNT(*) FROM notification_outbox WHERE status = 'SENT'", 3);
+        Assertions.assertEquals(1, delivered.size());
+        Assertions.assertEquals(List.of(1L, 2L, 3L),
+                delivered.get(0).events().stream().map(NotificationSink.Event::evaluationId).toList());
+        Assertions.assertEquals(0, count("SELECT COUNT(*) FROM notification_outbox WHERE attempts <> 1"));
+    }
+
+    @Test
+    void newEventsDoNotPullBackedOffRowsForward() throws Exception {
+        long first = enqueue(FAILING, 1L);
+        awaitRow(first, "PENDING", 1);
+
+        // Further events for the same recipient are attempted on their own
+        long second = enqueue(FAILING, 2L);
+        awaitRow(second, "PENDING", 1);
+        long third = enqueue(FAILING, 3L);
+        awaitRow(third, "PENDING", 1);
+
+        Map<String, Object> row = row(first);
+        Assertions.assertEquals(1, ((Number) row.get("attempts")).intValue());
+        Assertions.assertEquals("PENDING", row.get("status"));
+        Assertions.assertEquals("mailbox unavailable", row.get("last_error"));
+        Assertions.assertEquals(0, count("SELECT COUNT(*) FROM notification_outbox WHERE status = 'FAILED'"));
+    }
+
+    @Test
+    void expiredLeasesAreRequeuedOrFailedWhenOutOfAttempts() throws Exception {
+        long requeued = insertSending("sam@corp.com", 1);
+        long exhausted = insertSending("otto@corp.com", MAX_ATTEMPTS);
+
+        awaitRow(requeued, "SENT", 2);
+        Map<String, Object> failed = awaitRow(exhausted, "FAILED", MAX_ATTEMPTS);
+        Assertions.assertEquals("Lease expired", failed.get("last_error"));
+        Assertions.assertEquals(List.of("sam@corp.com"),
+                delivered.stream().map(NotificationSink.Notification::recipientEmail).toList());
+    }
+
+    @Test
+    void sentRowsArePurgedAfterTheRetentionPeriod() {
+        jdbcTemplate.update("""
+                INSERT INTO notification_outbox (event_type, recipient_email, payload, status, attempts, sent_at)
+                VALUES ('EVALUATION_SUBMITTED', 'old@corp.com', '{}', 'SENT', 1, CURRENT_TIMESTAMP - INTERVAL '30 days'),
+                       ('EVALUATION_SUBMITTED', 'new@corp.com', '{}', 'SENT', 1, CURRENT_TIMESTAMP - INTERVAL '1 day'),
+                       ('EVALUATION_SUBMITTED', 'bad@corp.com', '{}', 'FAILED', 3, NULL)
+                """);
+
+        outbox.purgeSent();
+
+        Assertions.assertEquals(List.of("bad@corp.com", "new@corp.com"), jdbcTemplate.queryForList(
+                "SELECT recipient_email FROM notification_outbox ORDER BY recipient_email", String.class));
+    }
+
+    private long enqueue(String email, Long evaluationId) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx ->
+                outbox.enqueue(NotificationOutbox.EVALUATION_REVIEWED, null, email, evaluationId, Map.of()));
+        return jdbcTemplate.queryForObject(
+                "SELECT id FROM notification_outbox WHERE recipient_email = ? AND evaluation_id = ?",
+                Long.class, email, evaluationId);
+    }
+
+    // A row a stopped dispatcher was delivering
+    private long insertSending(String email, int attempts) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO notification_outbox (event_type, recipient_email, payload, status, attempts,
+                                                 locked_by, locked_until)
+                VALUES ('EVALUATION_SUBMITTED', ?, '{}', 'SENDING', ?, 'gone-dispatcher',
+                        CURRENT_TIMESTAMP - INTERVAL '1 minute')
+                RETURNING id
+                """, Long.class, email, attempts);
+    }
+
+    private Map<String, Object> awaitRow(long id, String status, int attempts) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        Map<String, Object> row = row(id);
+        while (!(status.equals(row.get("status")) && ((Number) row.get("attempts")).intValue() == attempts)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            row = row(id);
+        }
+        Assertions.assertEquals(status, row.get("status"), "row " + id + ": " + row);
+        Assertions.assertEquals(attempts, ((Number) row.get("attempts")).intValue(), "row " + id + ": " + row);
+        return row;
+    }
+
+    private void awaitCount(String sql, long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (count(sql) != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        Assertions.assertEquals(expected, count(sql));
+    }
+
+    private Map<String, Object> row(long id) {
+        return jdbcTemplate.queryForMap(
+                "SELECT status, attempts, last_error, run_after FROM notification_outbox WHERE id = ?", id);
+    }
+
+    private long count(String sql) {
+        Long n = jdbcTemplate.queryForObject(sql, Long.class);
+        return n == null ? 0 : n;
+    }
+}
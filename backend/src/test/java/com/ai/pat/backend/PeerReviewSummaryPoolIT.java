@@ -0,0 +1,208 @@
+package com.ai.pat.backend;
+
+import com.ai.pat.backend.model.User;
+import com.ai.pat.backend.repository.UserRepository;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Peer review summaries against a slow provider stub with a two-connection pool: while more
+ * summaries than connections are waiting on the provider, other endpoints must still get a
+ * connection.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ExtendWith(SpringExtension.class)
+@Testcontainers
+class PeerReviewSummaryPoolIT {
+
+    private static final int POOL_SIZE = 2;
+    private static final int SUMMARIES = 6;
+    private static final long PROVIDER_DELAY_MS = 3000;
+    private static final String REPLY = "Strong collaborator; should delegate more.";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("ai_ppap_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    static final AtomicInteger providerCalls = new AtomicInteger();
+    static final HttpServer provider = startProvider();
+
+    static HttpServer startProvider() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/v1/chat", exchange -> {
+                providerCalls.incrementAndGet();
+                try {
+                    Thread.sleep(PROVIDER_DELAY_MS);
+                } catch (InterruptedException ignore) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = ("{\"reply\":\"" + REPLY + "\"}").getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @AfterAll
+    static void stopProvider() {
+        provider.stop(0);
+    }
+
+    @DynamicPropertySource
+    static void registerProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> String.valueOf(POOL_SIZE));
+        registry.add("spring.datasource.hikari.connection-timeout", () -> "1000");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.flyway.repair-on-migrate", () -> "true");
+        registry.add("spring.flyway.validate-on-migrate", () -> "false");
+        registry.add("ai.windsurf.api-url", () -> "http://127.0.0.1:" + provider.getAddress().getPort());
+        registry.add("ai.windsurf.api-key", () -> "test-key");
+        registry.add("ai.provider.read-timeout-ms", () -> "10000");
+        registry.add("ai.jobs.worker-enabled", () -> "false");
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long evaluationId;
+    private HttpHeaders headers;
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate.update("DELETE FROM evaluations");
+        userRepository.deleteAll();
+        User employee = userRepository.save(User.builder()
+                .username("pool.employee").email("pool.employee@corp.com").password("nop")
+                .roles(Set.of("EMPLOYEE")).build());
+        User peer = userRepository.save(User.builder()
+                .username("pool.peer").email("pool.peer@corp.com").password("nop")
+                .roles(Set.of("EMPLOYEE")).build());
+
+        evaluationId = jdbcTemplate.queryForObject("""
+                INSERT INTO evaluations (employee_id, employee_name, employee_email, evaluation_month, evaluation_year,
+                                         status, submitted_at, created_at)
+                VALUES (?, 'Pool Employee', 'pool.employee@corp.com', 4, 2025, 'SUBMITTED', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+                RETURNING id
+                """, Long.class, employee.getId());
+        jdbcTemplate.update("INSERT INTO evaluation_contents (evaluation_id) VALUES (?)", evaluationId);
+        jdbcTemplate.update("""
+                INSERT INTO peer_reviews (evaluation_id, reviewer_id, reviewer_name, reviewer_email,
+                                          strengths, weaknesses, suggestions, collaboration_rating,
+                                          communication_rating, technical_rating, leadership_rating, overall_rating)
+                VALUES (?, ?, 'Pool Peer', 'pool.peer@corp.com', 'Great collaborator', 'Takes on too much',
+                        'Delegate more', 5, 4, 4, 3, 4)
+                """, evaluationId, peer.getId());
+
+        headers = new HttpHeaders();
+        headers.set("X-User", "pool.peer@corp.com");
+        headers.set("X-Roles", "EMPLOYEE");
+    }
+
+    private String baseUrl(String path) {
+        return "http://localhost:" + port + "/api" + path;
+    }
+
+    @Test
+    void slowSummariesDoNotHoldPooledConnections() throws Exception {
+        int callsBefore = providerCalls.get();
+        ExecutorService pool = Executors.newFixedThreadPool(SUMMARIES);
+        List<Future<ResponseEntity<Map>>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < SUMMARIES; i++) {
+                futures.add(pool.submit(() -> restTemplate.exchange(
+                        baseUrl("/api/v1/peer-reviews/evaluation/" + evaluationId + "/summary"),
+                        HttpMethod.GET, new HttpEntity<>(headers), Map.class)));
+            }
+
+            // Wait until more summaries are parked on the provider than the pool has connections
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (providerCalls.get() - callsBefore < SUMMARIES && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            Assertions.assertEquals(SUMMARIES, providerCalls.get() - callsBefore);
+
+            long started = System.nanoTime();
+            ResponseEntity<List> reviews = restTemplate.exchange(
+                    baseUrl("/api/v1/peer-reviews/evaluation/" + evaluationId),
+                    HttpMethod.GET, new HttpEntity<>(headers), List.class);
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            Assertions.assertEquals(HttpStatus.OK, reviews.getStatusCode());
+            Assertions.assertEquals(1, Objects.requireNonNull(reviews.getBody()).size());
+            Assertions.assertTrue(elapsedMs < PROVIDER_DELAY_MS, "Waited " + elapsedMs + " ms for a connection");
+
+            for (Future<ResponseEntity<Map>> f : futures) {
+                ResponseEntity<Map> response = f.get(30, TimeUnit.SECONDS);
+                Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+                Assertions.assertEquals(REPLY, Objects.requireNonNull(response.getBody()).get("summary"));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // The provider reply was stored; the next request is served without calling it
+        Integer stored = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM peer_review_summaries WHERE evaluation_id = ?", Integer.class, evaluationId);
+        Assertions.assertEquals(1, stored);
+        int callsAfter = providerCalls.get();
+        ResponseEntity<Map> again = restTemplate.exchange(
+                baseUrl("/api/v1/peer-reviews/evaluation/" + evaluationId + "/summary"),
+                HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+        Assertions.assertEquals(REPLY, Objects.requireNonNull(again.getBody()).get("summary"));
+        Assertions.assertEquals(callsAfter, providerCalls.get());
+    }
+}
@@ -0,0 +1,224 @@
+package com.ai.pat.backend;
+
+import com.ai.pat.backend.model.User;
+import com.ai.pat.backend.repository.UserRepository;
+import com.ai.pat.backend.service.PerformanceCubeService;
+import com.ai.pat.backend.service.PerformanceCubeService.CubeQuery;
+import com.ai.pat.backend.service.PerformanceCubeService.CubeRow;
+import com.ai.pat.backend.service.PerformanceCubeService.Dimension;
+import com.ai.pat.backend.service.PerformanceCubeService.Granularity;
+import com.ai.pat.backend.service.PerformanceCubeService.RefreshResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@Testcontainers
+class PerformanceCubeIT {
+
+    private static final int YEAR = 2098;
+    private static final String SALES = "Cube Sales";
+    private static final String OPS = "Cube Ops";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("ai_ppap_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void registerProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.flyway.repair-on-migrate", () -> "true");
+        registry.add("spring.flyway.validate-on-migrate", () -> "false");
+        // Only the refreshes the tests run themselves
+        registry.add("app.performance-cube.refresh-interval-ms", () -> "3600000");
+        registry.add("app.performance-cube.overlap-ms", () -> "300000");
+    }
+
+    @Autowired
+    private PerformanceCubeService cube;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private long ann;
+    private long bob;
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate.update("DELETE FROM evaluations WHERE evaluation_year = ?", YEAR);
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE 'cube.%'");
+        jdbcTemplate.update("UPDATE performance_cube_state SET watermark = NULL WHERE id = 1");
+        ann = employee("cube.ann", SALES);
+        bob = employee("cube.bob", SALES);
+    }
+
+    @Test
+    void firstRefreshBuildsAndLaterOnesApplyOnlyTheChanges() {
+        long first = evaluation(ann, 1, 4, 5, "{\"Communication\": 4, \"teamwork\": 3}", "{}");
+        long second = evaluation(bob, 1, 2, 3, "{\"Communication\": 2}", "{}");
+
+        RefreshResult built = cube.refresh();
+        Assertions.assertTrue(built.rebuilt());
+        Assertions.assertNotNull(built.refreshedAt());
+        Assertions.assertTrue(meterRegistry.get("performance.cube.last.refresh").gauge().value() > 0);
+        Assertions.assertEquals(2, overall(SALES).evaluations());
+        Assertions.assertEquals(3.0, overall(SALES).self().mean());
+
+        // Both rows lie inside the overlap window but were counted at this version: nothing to do
+        RefreshResult idle = cube.refresh();
+        Assertions.assertFalse(idle.rebuilt());
+        Assertions.assertEquals(0, idle.evaluations());
+        Assertions.assertEquals(0, idle.cells());
+
+        touch("overall_rating = 5", second);
+        RefreshResult changed = cube.refresh();
+        Assertions.assertEquals(1, changed.evaluations());
+        Assertions.assertEquals(1, changed.cells());
+        Assertions.assertEquals(4.5, overall(SALES).self().mean());
+
+        // Archived evaluations leave their cell
+        touch("status = 'ARCHIVED'", first);
+        cube.refresh();
+        Assertions.assertEquals(1, overall(SALES).evaluations());
+        Assertions.assertEquals(Set.of("Communication", "overall"), competencies(SALES).keySet());
+
+        // Deleted ones are found by the anti-join on the members table
+        jdbcTemplate.update("DELETE FROM evaluations WHERE id = ?", second);
+        RefreshResult deleted = cube.refresh();
+        Assertions.assertEquals(1, deleted.cells());
+        Assertions.assertTrue(cube.query(query(EnumSet.noneOf(Dimension.class), SALES, null)).stream()
+                .allMatch(row -> row.evaluations() == 0));
+        Assertions.assertEquals(0, count("SELECT COUNT(*) FROM performance_cube WHERE department = '" + SALES + "'"));
+    }
+
+    @Test
+    void spellingsAndAliasesOfACompetencyShareOneCell() {
+        // "reliability" is an alias of Time Management; one evaluation rating it twice counts once
+        evaluation(ann, 2, 4, 4, "{\"time_management\": 2, \"Reliability\": 4, \"communication \": 5}",
+                "{\"Time Management\": 5}");
+        evaluation(bob, 2, 3, 3, "{\"COMMUNICATION\": 3, \"public-speaking\": 4}", "{\"Communication\": 4}");
+        cube.refresh();
+
+        Map<String, CubeRow> rows = competencies(SALES);
+        Assertions.assertEquals(Set.of("overall", "Time Management", "Communication", "Public Speaking"), rows.keySet());
+
+        CubeRow time = rows.get("Time Management");
+        Assertions.assertEquals(1, time.evaluations());
+        Assertions.assertEquals(3.0, time.self().mean());
+        Assertions.assertEquals(5.0, time.manager().mean());
+        Assertions.assertEquals(2.0, time.gap().mean());
+
+        CubeRow communication = rows.get("Communication");
+        Assertions.assertEquals(2, communication.evaluations());
+        Assertions.assertEquals(4.0, communication.self().mean());
+        Assertions.assertEquals(1, communication.manager().count());
+
+        // The filter accepts any spelling of the competency
+        for (String spelling : List.of("communication", "COMMUNICATION", " Communication")) {
+            List<CubeRow> filtered = cube.query(query(EnumSet.noneOf(Dimension.class), SALES, spelling));
+            Assertions.assertEquals(1, filtered.size(), spelling);
+            Assertions.assertEquals(2, filtered.get(0).evaluations(), spelling);
+        }
+        Assertions.assertEquals(1, cube.query(query(EnumSet.noneOf(Dimension.class), SALES, "reliability"))
+                .get(0).evaluations());
+    }
+
+    @Test
+    void rebuildMatchesTheIncrementalCubeAndPicksUpDepartmentMoves() {
+        long moved = evaluation(ann, 3, 4, 5, "{\"Teamwork\": 4}", "{\"teamwork\": 5}");
+        cube.refresh();
+        evaluation(bob, 3, 3, 2, "{\"Teamwork\": 2}", "{}");
+        touch("manager_rating = 4", moved);
+        cube.refresh();
+
+        List<CubeRow> incremental = cube.query(query(EnumSet.allOf(Dimension.class), null, null));
+        RefreshResult rebuilt = cube.rebuild();
+        Assertions.assertTrue(rebuilt.rebuilt());
+        Assertions.assertEquals(incremental, cube.query(query(EnumSet.allOf(Dimension.class), null, null)));
+
+        // A department change alone touches no evaluation; the rebuild moves its cells
+        jdbcTemplate.update("UPDATE users SET department = ? WHERE id = ?", OPS, ann);
+        cube.refresh();
+        Assertions.assertEquals(2, overall(SALES).evaluations());
+        cube.rebuild();
+        Assertions.assertEquals(1, overall(SALES).evaluations());
+        Assertions.assertEquals(1, overall(OPS).evaluations());
+        Assertions.assertEquals(4.0, overall(OPS).manager().mean());
+    }
+
+    private long employee(String username, String department) {
+        User u = userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@corp.com")
+                .password("nop")
+                .department(department)
+                .build());
+        return u.getId();
+    }
+
+    private long evaluation(long employeeId, int month, int self, int manager, String ratings, String managerRatings) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO evaluations (employee_id, evaluation_year, evaluation_month, status, overall_rating,
+                                         manager_rating, competency_ratings, manager_competency_ratings,
+                                         submitted_at, created_at, updated_at)
+                VALUES (?, ?, ?, 'REVIEWED', ?, ?, ?::jsonb, ?::jsonb,
+                        CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+                RETURNING id
+                """, Long.class, employeeId, YEAR, month, self, manager, ratings, managerRatings);
+    }
+
+    // An edit moves the row's change timestamp forward, as the application does
+    private void touch(String assignment, long id) {
+        jdbcTemplate.update("UPDATE evaluations SET " + assignment + ", updated_at = clock_timestamp() WHERE id = ?", id);
+    }
+
+    private CubeQuery query(Set<Dimension> groupBy, String department, String competency) {
+        return new CubeQuery(groupBy, Granularity.MONTH, department, null, YEAR, YEAR, competency);
+    }
+
+    private CubeRow overall(String department) {
+        List<CubeRow> rows = cube.query(query(EnumSet.noneOf(Dimension.class), department, null));
+        Assertions.assertEquals(1, rows.size());
+        return rows.get(0);
+    }
+
+    private Map<String, CubeRow> competencies(String department) {
+        return cube.query(query(EnumSet.of(Dimension.COMPETENCY), department, null)).stream()
+                .collect(Collectors.toMap(CubeRow::competency, row -> row));
+    }
+
+    private long count(String sql) {
+        Long n = jdbcTemplate.queryForObject(sql, Long.class);
+        return n == null ? 0 : n;
+    }
+}
@@ -0,0 +1,161 @@
+package com.ai.pat.backend;
+
+import com.ai.pat.backend.model.User;
+import com.ai.pat.backend.repository.UserRepository;
+import com.ai.pat.backend.service.ProjectMembershipGraph;
+import com.ai.pat.backend.service.SearchService;
+import com.ai.pat.backend.service.SearchService.EvaluationHit;
+import com.ai.pat.backend.service.SearchService.PersonHit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@Testcontainers
+class SearchIT {
+
+    private static final int YEAR = 2095;
+    // A word nothing else in the database contains
+    private static final String TERM = "quokkaform";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("ai_ppap_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void registerProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.flyway.repair-on-migrate", () -> "true");
+        registry.add("spring.flyway.validate-on-migrate", () -> "false");
+    }
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private ProjectMembershipGraph membershipGraph;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long manager;
+    private long ann;
+    private long bob;
+    private long annEvaluation;
+    private long bobEvaluation;
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate.update("DELETE FROM evaluations WHERE evaluation_year = ?", YEAR);
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE 'search.%'");
+        jdbcTemplate.update("DELETE FROM projects WHERE name LIKE 'Search project %'");
+        manager = user("search.manager");
+        ann = user("search.ann");
+        bob = user("search.bob");
+        long annProject = project("Search project A");
+        long bobProject = project("Search project B");
+        jdbcTemplate.update("INSERT INTO user_projects (user_id, project_id) VALUES (?, ?)", ann, annProject);
+        jdbcTemplate.update("INSERT INTO user_projects (user_id, project_id) VALUES (?, ?)", bob, bobProject);
+        jdbcTemplate.update("INSERT INTO manager_projects (manager_id, project_id) VALUES (?, ?)", manager, annProject);
+        membershipGraph.reload();
+
+        annEvaluation = evaluation(ann, annProject, "Migrated the " + TERM + " pipeline", null);
+        // Bob's match is only in the feedback request, which the snippet must still show
+        bobEvaluation = evaluation(bob, bobProject, "Kept the lights on",
+                "Please look at how I handled the " + TERM + " outage");
+    }
+
+    @Test
+    void employeesFindOnlyTheirOwnEvaluations() {
+        Assertions.assertEquals(Set.of(annEvaluation), evaluationIds(ann, false));
+        Assertions.assertEquals(Set.of(bobEvaluation), evaluationIds(bob, false));
+    }
+
+    @Test
+    void managersFindTheEvaluationsOfTheirProjectsOnly() {
+        Assertions.assertEquals(Set.of(annEvaluation), evaluationIds(manager, false));
+        Assertions.assertEquals(Set.of(annEvaluation, bobEvaluation), evaluationIds(manager, true));
+    }
+
+    @Test
+    void peopleOutsideTheCallersProjectsAreNotFound() {
+        Assertions.assertEquals(Set.of(ann, manager), personIds(ann, false));
+        Assertions.assertEquals(Set.of(bob), personIds(bob, false));
+        Assertions.assertEquals(Set.of(ann, bob, manager), personIds(bob, true));
+    }
+
+    @Test
+    void snippetsHighlightMatchesInTheFeedbackRequest() {
+        List<EvaluationHit> hits = searchService.searchEvaluations(bob, false, TERM, 0, 10).items();
+        Assertions.assertEquals(1, hits.size());
+        Assertions.assertTrue(hits.get(0).snippet().contains("**" + TERM + "**"), hits.get(0).snippet());
+    }
+
+    private Set<Long> evaluationIds(long callerId, boolean admin) {
+        return searchService.searchEvaluations(callerId, admin, TERM, 0, 50).items().stream()
+                .map(EvaluationHit::evaluationId)
+                .collect(Collectors.toSet());
+    }
+
+    private Set<Long> personIds(long callerId, boolean admin) {
+        return searchService.searchPeople(callerId, admin, "search.", 0, 50).items().stream()
+                .map(PersonHit::id)
+                .collect(Collectors.toSet());
+    }
+
+    private long user(String username) {
+        User u = userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@corp.com")
+                .password("nop")
+                .firstName("Search")
+                .lastName(username.substring(username.indexOf('.') + 1))
+                .department("Search QA")
+                .build());
+        // The entity does not persist roles
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role) VALUES (?, 'ROLE_EMPLOYEE')", u.getId());
+        return u.getId();
+    }
+
+    private long project(String name) {
+        return jdbcTemplate.queryForObject("INSERT INTO projects (name) VALUES (?) RETURNING id", Long.class, name);
+    }
+
+    private long evaluation(long employeeId, long projectId, String achievements, String feedbackRequest) {
+        Long id = jdbcTemplate.queryForObject("""
+                INSERT INTO evaluations (employee_id, project_id, evaluation_year, evaluation_month, status,
+                                         overall_rating, submitted_at, created_at, updated_at)
+                VALUES (?, ?, ?, 1, 'SUBMITTED', 4, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+                RETURNING id
+                """, Long.class, employeeId, projectId, YEAR);
+        jdbcTemplate.update("""
+                INSERT INTO evaluation_contents (evaluation_id, achievements, manager_feedback_request)
+                VALUES (?, ?, ?)
+                """, id, achievements, feedbackRequest);
+        return id;
+    }
+}
@@ -0,0 +1,151 @@
+package com.ai.pat.backend;
+
+import com.ai.pat.backend.model.Project;
+import com.ai.pat.backend.repository.ProjectRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ExtendWith(SpringExtension.class)
+@Testcontainers
+class SelfEvaluationUpsertIT {
+
+    private static final int SUBMITS = 300;
+    private static final String EMPLOYEE = "dana.employee@corp.com";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("ai_ppap_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void registerProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> "32");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.flyway.repair-on-migrate", () -> "true");
+        registry.add("spring.flyway.validate-on-migrate", () -> "false");
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Project project;
+    private HttpHeaders headers;
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate.update("DELETE FROM evaluations");
+        projectRepository.deleteAll();
+        project = projectRepository.save(Project.builder().name("Deadline-Day").build());
+
+        // Create the employee and its membership up front so the submits only race on the evaluation
+        headers = new HttpHeaders();
+        headers.set("X-User", EMPLOYEE);
+        ResponseEntity<String> put = restTemplate.exchange(
+                baseUrl("/v1/users/me/projects"),
+                HttpMethod.PUT,
+                new HttpEntity<>(List.of(project.getId()), headers),
+                String.class
+        );
+        Assertions.assertEquals(HttpStatus.OK, put.getStatusCode());
+    }
+
+    private String baseUrl(String path) {
+        return "http://localhost:" + port + "/api" + path;
+    }
+
+    @Test
+    void parallelSubmitsForOnePeriodCreateOneEvaluation() throws Exception {
+        Map<String, Object> body = Map.of(
+                "projectId", project.getId(),
+                "evaluationYear", 2025,
+                "evaluationQuarter", 2,
+                "ratings", Map.of("communication", 4, "teamwork", 5),
+                "feedback", "Shipped the release on time"
+        );
+
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ResponseEntity<Map>>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < SUBMITS; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return restTemplate.exchange(
+                            baseUrl("/v1/evaluations/self"),
+                            HttpMethod.POST,
+                            new HttpEntity<>(body, headers),
+                            Map.class
+                    );
+                }));
+            }
+            start.countDown();
+
+            int created = 0;
+            int conflicts = 0;
+            Object evaluationId = null;
+            for (Future<ResponseEntity<Map>> f : futures) {
+                ResponseEntity<Map> response = f.get(60, TimeUnit.SECONDS);
+                if (response.getStatusCode() == HttpStatus.OK) created++;
+                else if (response.getStatusCode() == HttpStatus.CONFLICT) conflicts++;
+                else Assertions.fail("Unexpected status " + response.getStatusCode());
+
+                // Every caller sees the same evaluation, new or existing
+                Object id = Objects.requireNonNull(response.getBody()).get("id");
+                if (evaluationId == null) evaluationId = id;
+                Assertions.assertEquals(evaluationId, id);
+            }
+            Assertions.assertEquals(1, created);
+            Assertions.assertEquals(SUBMITS - 1, conflicts);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM evaluations WHERE project_id = ? AND evaluation_year = 2025 AND evaluation_month = 4",
+                Integer.class, project.getId());
+        Assertions.assertEquals(1, rows);
+        Integer ratings = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM evaluations e, jsonb_object_keys(e.competency_ratings) k WHERE e.project_id = ?",
+                Integer.class, project.getId());
+        Assertions.assertEquals(2, ratings);
+    }
+}
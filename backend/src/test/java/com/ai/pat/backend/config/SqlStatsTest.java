@@ -0,0 +1,49 @@
+package com.ai.pat.backend.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SqlStatsTest {
+
+    @Test
+    void shapeFoldsLiteralsAndInLists() {
+        Assertions.assertEquals(
+                "select u.id from users u where u.id in (?...) and u.email = ? and u.age > ?",
+                SqlStats.shape("select u.id from users u\n  where u.id in (?, ?, ?) and u.email = 'a''b@corp.com' and u.age > 42"));
+        // Digits inside identifiers (Hibernate aliases) are kept
+        Assertions.assertEquals("select e1_0.id from evaluations e1_0 where e1_0.id=?",
+                SqlStats.shape("select e1_0.id from evaluations e1_0 where e1_0.id=?"));
+        Assertions.assertEquals(SqlStats.shape("select * from users where id = 1"),
+                SqlStats.shape("select * from users where id = 2"));
+    }
+
+    @Test
+    void reportsStatementShapesRepeatedWithinOneScope() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SqlStats stats = new SqlStats(registry, 3);
+
+        SqlStats.Scope scope = stats.open("GET /api/v1/evaluations");
+        Assertions.assertSame(scope, SqlStats.current());
+        Assertions.assertNull(stats.open("nested"));
+        for (int id = 1; id <= 4; id++) {
+            scope.statement(SqlStats.shape("select * from users where id = " + id), 1_000_000);
+            scope.row();
+        }
+        scope.statement(SqlStats.shape("select * from projects"), 1_000_000);
+        Assertions.assertEquals(4, scope.maxRepeats());
+        stats.close(scope, "request", "GET /api/v1/evaluations");
+
+        Assertions.assertNull(SqlStats.current());
+        Assertions.assertEquals(1, stats.recentRepeats().size());
+        SqlStats.RepeatedStatement repeat = stats.recentRepeats().get(0);
+        Assertions.assertEquals("select * from users where id = ?", repeat.shape());
+        Assertions.assertEquals(4, repeat.executions());
+        Assertions.assertEquals(5, repeat.scopeStatements());
+
+        Assertions.assertEquals(5L, stats.requestTotals().get("GET /api/v1/evaluations").get("statements"));
+        Assertions.assertEquals(4L, stats.requestTotals().get("GET /api/v1/evaluations").get("rows"));
+        Assertions.assertEquals(1.0, registry.get("sql.repeated.statements").counter().count());
+        Assertions.assertEquals(5.0, registry.get("sql.request.statements").summary().totalAmount());
+    }
+}
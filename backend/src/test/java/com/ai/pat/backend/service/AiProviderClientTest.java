@@ -0,0 +1,130 @@
+package com.ai.pat.backend.service;
+
+import com.ai.pat.backend.exception.AiProviderUnavailableException;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exercises AiProviderClient against a local stub of the provider's /v1/chat endpoint.
+ */
+class AiProviderClientTest {
+
+    private HttpServer server;
+    private final AtomicInteger hits = new AtomicInteger();
+    private volatile int status = 200;
+    private volatile long delayMillis = 0;
+    private volatile CountDownLatch release;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/v1/chat", exchange -> {
+            hits.incrementAndGet();
+            try {
+                if (release != null) release.await(5, TimeUnit.SECONDS);
+                if (delayMillis > 0) Thread.sleep(delayMillis);
+            } catch (InterruptedException ignore) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"reply\":\"stub summary\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        if (release != null) release.countDown();
+        server.stop(0);
+    }
+
+    private AiProviderClient client(long readTimeoutMs, int maxConcurrent, int failureThreshold, long openMs) {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort();
+        return new AiProviderClient(new SimpleMeterRegistry(), url, "test-key",
+                1000, readTimeoutMs, maxConcurrent, 50, failureThreshold, openMs);
+    }
+
+    @Test
+    void returnsProviderReply() {
+        AiProviderClient client = client(2000, 4, 3, 60_000);
+
+        Map<String, Object> reply = client.chat("summarize", Map.of("text", "hello"));
+
+        Assertions.assertEquals("stub summary", reply.get("reply"));
+        Assertions.assertEquals(AiProviderClient.CircuitBreaker.State.CLOSED, client.getCircuitState());
+    }
+
+    @Test
+    void readTimeoutCountsAsFailure() {
+        delayMillis = 500;
+        AiProviderClient client = client(100, 4, 1, 60_000);
+
+        Assertions.assertThrows(RuntimeException.class, () -> client.chat("summarize", Map.of()));
+        Assertions.assertEquals(AiProviderClient.CircuitBreaker.State.OPEN, client.getCircuitState());
+    }
+
+    @Test
+    void openCircuitShortCircuitsWithoutCallingProvider() {
+        status = 500;
+        AiProviderClient client = client(2000, 4, 2, 60_000);
+
+        Assertions.assertThrows(RuntimeException.class, () -> client.chat("summarize", Map.of()));
+        Assertions.assertThrows(RuntimeException.class, () -> client.chat("summarize", Map.of()));
+        int before = hits.get();
+
+        Assertions.assertThrows(AiProviderUnavailableException.class, () -> client.chat("summarize", Map.of()));
+        Assertions.assertEquals(before, hits.get());
+    }
+
+    @Test
+    void halfOpenTrialClosesCircuitOnSuccess() throws InterruptedException {
+        status = 500;
+        AiProviderClient client = client(2000, 4, 1, 100);
+        Assertions.assertThrows(RuntimeException.class, () -> client.chat("summarize", Map.of()));
+        Assertions.assertEquals(AiProviderClient.CircuitBreaker.State.OPEN, client.getCircuitState());
+
+        Thread.sleep(150);
+        status = 200;
+
+        Assertions.assertEquals("stub summary", client.chat("summarize", Map.of()).get("reply"));
+        Assertions.assertEquals(AiProviderClient.CircuitBreaker.State.CLOSED, client.getCircuitState());
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondLimit() throws Exception {
+        release = new CountDownLatch(1);
+        AiProviderClient client = client(5000, 1, 5, 60_000);
+
+        Thread inFlight = new Thread(() -> client.chat("summarize", Map.of()));
+        inFlight.start();
+        // Wait until the first call has reached the stub and holds the only slot
+        long deadline = System.currentTimeMillis() + 2000;
+        while (hits.get() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        Assertions.assertThrows(AiProviderUnavailableException.class, () -> client.chat("summarize", Map.of()));
+
+        release.countDown();
+        inFlight.join(5000);
+    }
+}
@@ -0,0 +1,151 @@
+package com.ai.pat.backend.service;
+
+import com.ai.pat.backend.controller.dto.ai.SummarizeRequest;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming calls against a local mock provider that answers {@code /v1/chat} with Server-Sent
+ * Events, one chunk at a time.
+ */
+class AiProviderStreamTest {
+
+    private HttpServer server;
+    private volatile int status = 200;
+    private volatile List<String> events = List.of();
+    // When set, the mock stops after the first event until released (or the client hangs up)
+    private volatile CountDownLatch holdAfterFirst;
+    // When set, the mock sends the headers and then nothing until released
+    private volatile CountDownLatch holdBeforeBody;
+
+    @BeforeEach
+    void startMockProvider() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/v1/chat", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            if (status != 200) {
+                exchange.sendResponseHeaders(status, -1);
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream os = exchange.getResponseBody()) {
+                CountDownLatch stall = holdBeforeBody;
+                if (stall != null) stall.await(5, TimeUnit.SECONDS);
+                for (int i = 0; i < events.size(); i++) {
+                    os.write(("data: " + events.get(i) + "\n\n").getBytes(StandardCharsets.UTF_8));
+                    os.flush();
+                    if (i == 0 && holdAfterFirst != null) holdAfterFirst.await(5, TimeUnit.SECONDS);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (IOException ignore) {
+                // client hung up
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopMockProvider() {
+        if (holdAfterFirst != null) holdAfterFirst.countDown();
+        if (holdBeforeBody != null) holdBeforeBody.countDown();
+        server.stop(0);
+    }
+
+    private AiProviderClient client() {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort();
+        return new AiProviderClient(new SimpleMeterRegistry(), url, "test-key", 1000, 2000, 4, 50, 3, 60_000);
+    }
+
+    @Test
+    void forwardsTokensAsTheyArrive() {
+        events = List.of(
+                "{\"delta\":\"Strong \"}",
+                "{\"choices\":[{\"delta\":{\"content\":\"quarter\"}}]}",
+                "{\"choices\":[{\"delta\":{}}]}",
+                "[DONE]");
+        List<String> tokens = new CopyOnWriteArrayList<>();
+
+        String text = client().chatStream("summarize", Map.of("text", "x"), tokens::add, new CompletableFuture<>());
+
+        Assertions.assertEquals(List.of("Strong ", "quarter"), tokens);
+        Assertions.assertEquals("Strong quarter", text);
+    }
+
+    @Test
+    void cancellingClosesTheProviderStream() {
+        events = List.of("{\"delta\":\"first\"}", "{\"delta\":\"never sent\"}", "[DONE]");
+        holdAfterFirst = new CountDownLatch(1);
+        AiProviderClient client = client();
+        CompletableFuture<Void> cancel = new CompletableFuture<>();
+        List<String> tokens = new CopyOnWriteArrayList<>();
+
+        long start = System.nanoTime();
+        String text = client.chatStream("summarize", Map.of(), token -> {
+            tokens.add(token);
+            cancel.complete(null);
+        }, cancel);
+
+        Assertions.assertEquals("first", text);
+        Assertions.assertEquals(List.of("first"), tokens);
+        Assertions.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(3), "stream was not cut short");
+        // A client hang-up is not a provider failure
+        Assertions.assertEquals(AiProviderClient.CircuitBreaker.State.CLOSED, client.getCircuitState());
+    }
+
+    @Test
+    void providerStallingAfterTheHeadersFailsAndFreesTheSlot() {
+        events = List.of("{\"delta\":\"late\"}", "[DONE]");
+        holdBeforeBody = new CountDownLatch(1);
+        // One slot and a short read timeout: the stalled call must give the slot back
+        String url = "http://127.0.0.1:" + server.getAddress().getPort();
+        AiProviderClient client = new AiProviderClient(new SimpleMeterRegistry(), url, "test-key", 1000, 300, 1, 50, 3, 60_000);
+        List<String> tokens = new CopyOnWriteArrayList<>();
+
+        long start = System.nanoTime();
+        Assertions.assertThrows(RestClientException.class,
+                () -> client.chatStream("summarize", Map.of(), tokens::add, new CompletableFuture<>()));
+        Assertions.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(3), "stalled stream was not cut off");
+        Assertions.assertEquals(List.of(), tokens);
+
+        holdBeforeBody.countDown();
+        holdBeforeBody = null;
+        Assertions.assertEquals("late", client.chatStream("summarize", Map.of(), tokens::add, new CompletableFuture<>()));
+    }
+
+    @Test
+    void streamSummaryFallsBackBeforeFirstToken() {
+        status = 500;
+        AiService aiService = new AiService(client(), new AiResponseCache(new SimpleMeterRegistry(), 10, 60, ""),
+                new SentimentEngine(List.of("good,1"), 3));
+        SummarizeRequest req = new SummarizeRequest();
+        req.setText("First sentence. Second sentence. Third sentence.");
+        List<String> tokens = new CopyOnWriteArrayList<>();
+
+        AiService.StreamedText result = aiService.streamSummary(req, tokens::add, new CompletableFuture<>());
+
+        Assertions.assertTrue(result.fallback());
+        Assertions.assertEquals("First sentence. Second sentence.", result.text());
+        Assertions.assertEquals(List.of(result.text()), tokens);
+    }
+}
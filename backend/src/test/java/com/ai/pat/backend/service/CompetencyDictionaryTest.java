@@ -0,0 +1,124 @@
+package com.ai.pat.backend.service;
+
+import com.ai.pat.backend.util.CompetencyNormalizer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class CompetencyDictionaryTest {
+
+    @AfterEach
+    void restoreBuiltInAliases() {
+        // reload() installs the loaded aliases into the static normalizer
+        CompetencyNormalizer.installAliases(CompetencyNormalizer.defaultAliases());
+    }
+
+    @Test
+    void aliasesShareOneId() {
+        CompetencyDictionary dictionary = new CompetencyDictionary();
+
+        int id = dictionary.id("technical_skills");
+
+        Assertions.assertEquals(id, dictionary.id("Technical Excellence"));
+        Assertions.assertEquals(id, dictionary.id(" technical skills "));
+        Assertions.assertEquals("Technical Skills", dictionary.name(id));
+    }
+
+    @Test
+    void unknownNamesGetAStableCanonicalId() {
+        CompetencyDictionary dictionary = new CompetencyDictionary();
+        int before = dictionary.size();
+
+        int id = dictionary.id("customer_focus");
+
+        Assertions.assertEquals(before, id);
+        Assertions.assertEquals(id, dictionary.id("Customer Focus"));
+        Assertions.assertEquals("Customer Focus", dictionary.name(id));
+    }
+
+    @Test
+    void unlistedNamesAreCapped() {
+        FakeJdbcTemplate jdbc = new FakeJdbcTemplate();
+        CompetencyDictionary dictionary = new CompetencyDictionary(jdbc, null, 2);
+        int before = dictionary.size();
+
+        Assertions.assertTrue(dictionary.id("alpha") >= 0);
+        Assertions.assertTrue(dictionary.id("beta") >= 0);
+        Assertions.assertEquals(-1, dictionary.id("gamma"));
+        Assertions.assertEquals(-1, dictionary.id("delta"));
+        Assertions.assertEquals(before + 2, dictionary.size());
+
+        byte[] vector = dictionary.toVector(Map.of("gamma", 5, "communication", 3));
+        Assertions.assertTrue(vector.length <= dictionary.size());
+        Assertions.assertEquals(Map.of("Communication", 3), dictionary.toMap(vector));
+
+        // Names from the dictionary tables always get an id
+        jdbc.rows = List.<String[]>of(new String[] {"Gamma", null});
+        Assertions.assertTrue(dictionary.reload());
+        Assertions.assertEquals(before + 3, dictionary.size());
+        Assertions.assertEquals("Gamma", dictionary.name(dictionary.id("gamma")));
+    }
+
+    @Test
+    void vectorAveragesDuplicatesAndMarksMissingSlots() {
+        CompetencyDictionary dictionary = new CompetencyDictionary();
+        Map<String, Integer> ratings = new LinkedHashMap<>();
+        ratings.put("quality", 4);
+        ratings.put("Quality Focus", 5);
+        ratings.put("communication", 3);
+
+        byte[] vector = dictionary.toVector(ratings);
+
+        Assertions.assertEquals(5, vector[dictionary.id("quality_focus")]);
+        Assertions.assertEquals(3, vector[dictionary.id("Communication")]);
+        Assertions.assertEquals(CompetencyDictionary.ABSENT, vector[dictionary.id("teamwork")]);
+        Assertions.assertEquals(Map.of("Quality Focus", 5, "Communication", 3), dictionary.toMap(vector));
+    }
+
+    @Test
+    void reloadKeepsIdsAndRepointsAliases() {
+        FakeJdbcTemplate jdbc = new FakeJdbcTemplate();
+        jdbc.rows = List.of(new String[] {"Teamwork", "collaboration"}, new String[] {"Leadership", null});
+        CompetencyDictionary dictionary = new CompetencyDictionary(jdbc, null);
+        int teamwork = dictionary.id("teamwork");
+        int leadership = dictionary.id("leadership");
+
+        Assertions.assertTrue(dictionary.reload());
+        Assertions.assertEquals(teamwork, dictionary.id("collaboration"));
+
+        // Alias moved to another competency
+        jdbc.rows = List.of(new String[] {"Teamwork", null}, new String[] {"Leadership", "collaboration"});
+        Assertions.assertTrue(dictionary.reload());
+        Assertions.assertEquals(leadership, dictionary.id("collaboration"));
+        Assertions.assertEquals(teamwork, dictionary.id("Teamwork"));
+
+        Assertions.assertFalse(dictionary.reload());
+    }
+
+    private static final class FakeJdbcTemplate extends JdbcTemplate {
+        List<String[]> rows = List.of();
+
+        @Override
+        public void query(String sql, RowCallbackHandler rch) {
+            try {
+                for (String[] row : rows) {
+                    ResultSet rs = Mockito.mock(ResultSet.class);
+                    Mockito.when(rs.getString(1)).thenReturn(row[0]);
+                    Mockito.when(rs.getString(2)).thenReturn(row[1]);
+                    rch.processRow(rs);
+                }
+            } catch (SQLException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+}
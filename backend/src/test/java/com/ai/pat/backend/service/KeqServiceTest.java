@@ -0,0 +1,56 @@
+package com.ai.pat.backend.service;
+
+import com.ai.pat.backend.model.Keq;
+import com.ai.pat.backend.repository.KeqRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class KeqServiceTest {
+
+    private static Keq keq(long id, int order, Integer year, Integer quarter, boolean active) {
+        return Keq.builder().id(id).category("KEQ " + id).orderIndex(order)
+                .effectiveFromYear(year).effectiveFromQuarter(quarter).isActive(active).build();
+    }
+
+    private static List<Long> ids(List<Keq> keqs) {
+        return keqs.stream().map(Keq::getId).toList();
+    }
+
+    @Test
+    void activeKeqsAreLookedUpByEffectivePeriod() {
+        KeqRepository repository = Mockito.mock(KeqRepository.class);
+        Mockito.when(repository.findAll()).thenReturn(List.of(
+                keq(1, 3, null, null, true),
+                keq(2, 1, 2025, 2, true),
+                keq(3, 2, 2025, null, true),
+                keq(4, 0, 2024, 1, false)));
+        KeqService.Catalog catalog = new KeqService(repository).catalog();
+
+        Assertions.assertEquals(List.of(4L, 2L, 3L, 1L), ids(catalog.all()));
+        Assertions.assertEquals(List.of(1L), ids(catalog.active(2024, 4)));
+        Assertions.assertEquals(List.of(3L, 1L), ids(catalog.active(2025, 1)));
+        Assertions.assertEquals(List.of(2L, 3L, 1L), ids(catalog.active(2025, 2)));
+        Assertions.assertEquals(List.of(2L, 3L, 1L), ids(catalog.active(2031, 4)));
+    }
+
+    @Test
+    void versionAndEtagOnlyMoveWhenContentChanges() {
+        KeqRepository repository = Mockito.mock(KeqRepository.class);
+        List<Keq> rows = new ArrayList<>(List.of(keq(1, 1, null, null, true)));
+        Mockito.when(repository.findAll()).thenAnswer(inv -> List.copyOf(rows));
+        KeqService service = new KeqService(repository);
+
+        KeqService.Catalog first = service.catalog();
+        Assertions.assertSame(first, service.rebuild());
+
+        rows.add(keq(2, 2, 2026, 1, true));
+        KeqService.Catalog second = service.rebuild();
+        Assertions.assertEquals(first.version() + 1, second.version());
+        Assertions.assertNotEquals(first.etag(), second.etag());
+        Assertions.assertNotEquals(second.etag(), second.etag(2026, 1));
+    }
+}
@@ -0,0 +1,72 @@
+package com.ai.pat.backend.service;
+
+import com.ai.pat.backend.dto.EvaluationDTO;
+import com.ai.pat.backend.model.Evaluation;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class ManagerAnalyticsAggregateTest {
+
+    private final CompetencyDictionary dictionary = new CompetencyDictionary();
+
+    @Test
+    void upsertReplacesAndRemoveSubtractsAContribution() {
+        ManagerAnalyticsAggregate aggregate = new ManagerAnalyticsAggregate(100L, Set.of(1L), dictionary);
+        aggregate.upsert(contribution(1L, "Ann", 4, Map.of("communication", 4)));
+        aggregate.upsert(contribution(2L, "Bob", 2, Map.of("communication", 2)));
+
+        Map<String, Object> payload = aggregate.toPayload();
+        Assertions.assertEquals(2, payload.get("totalEvaluations"));
+        Assertions.assertEquals(3.0, payload.get("averageTeamRating"));
+        Assertions.assertEquals(List.of(Map.of("competency", "Communication", "average", 3.0)),
+                payload.get("competencyAverages"));
+
+        // Same evaluation again: replaced, not counted twice
+        aggregate.upsert(contribution(2L, "Bob", 4, Map.of("communication", 5)));
+        payload = aggregate.toPayload();
+        Assertions.assertEquals(2, payload.get("totalEvaluations"));
+        Assertions.assertEquals(4.0, payload.get("averageTeamRating"));
+        Assertions.assertEquals(List.of(Map.of("competency", "Communication", "average", 4.5)),
+                payload.get("competencyAverages"));
+
+        aggregate.remove(1L);
+        aggregate.remove(1L);
+        payload = aggregate.toPayload();
+        Assertions.assertEquals(1, payload.get("totalEvaluations"));
+        Assertions.assertEquals(1L, payload.get("activeTeamMembers"));
+        Assertions.assertFalse(aggregate.contains(1L));
+
+        aggregate.remove(2L);
+        payload = aggregate.toPayload();
+        Assertions.assertEquals(0, payload.get("totalEvaluations"));
+        Assertions.assertEquals(0.0, payload.get("averageTeamRating"));
+        Assertions.assertEquals(List.of(), payload.get("competencyAverages"));
+        Assertions.assertEquals(List.of(), payload.get("recentActivity"));
+    }
+
+    @Test
+    void visibleWhenAnyProjectIsManaged() {
+        ManagerAnalyticsAggregate aggregate = new ManagerAnalyticsAggregate(100L, Set.of(1L, 2L), dictionary);
+
+        Assertions.assertTrue(aggregate.isVisible(Set.of(3L, 2L)));
+        Assertions.assertFalse(aggregate.isVisible(Set.of(3L)));
+        Assertions.assertFalse(aggregate.isVisible(Set.of()));
+    }
+
+    private ManagerAnalyticsAggregate.Contribution contribution(Long id, String employee, int rating,
+                                                                Map<String, Integer> competencies) {
+        EvaluationDTO dto = new EvaluationDTO();
+        dto.setId(id);
+        dto.setEmployeeName(employee);
+        dto.setOverallRating(rating);
+        dto.setCompetencyRatings(competencies);
+        dto.setStatus(Evaluation.EvaluationStatus.SUBMITTED);
+        dto.setUpdatedAt(LocalDateTime.of(2025, 1, id.intValue(), 12, 0));
+        return ManagerAnalyticsAggregate.Contribution.from(dto, dictionary);
+    }
+}
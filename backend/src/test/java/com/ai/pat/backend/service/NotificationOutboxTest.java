@@ -0,0 +1,40 @@
+package com.ai.pat.backend.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+class NotificationOutboxTest {
+
+    private static NotificationOutbox.Claimed row(long id, String type, Long recipientId, String email) {
+        NotificationSink.Event event = new NotificationSink.Event(id, type, 100L + id, Map.of(), LocalDateTime.now());
+        return new NotificationOutbox.Claimed(event, recipientId, email, 1);
+    }
+
+    @Test
+    void coalescesClaimedRowsPerRecipientInOrder() {
+        List<NotificationSink.Notification> out = NotificationOutbox.coalesce(List.of(
+                row(1, NotificationOutbox.EVALUATION_SUBMITTED, 7L, "mia@corp.com"),
+                row(2, NotificationOutbox.PEER_REVIEW_RECEIVED, null, "sam@corp.com"),
+                row(3, NotificationOutbox.EVALUATION_SUBMITTED, 7L, "mia@corp.com"),
+                row(4, NotificationOutbox.EVALUATION_REVIEWED, 9L, "sam@corp.com")));
+
+        Assertions.assertEquals(2, out.size());
+        Assertions.assertEquals("mia@corp.com", out.get(0).recipientEmail());
+        Assertions.assertEquals(7L, out.get(0).recipientId());
+        Assertions.assertEquals(List.of(1L, 3L), out.get(0).events().stream().map(NotificationSink.Event::id).toList());
+
+        // The recipient id is taken from any row that has one
+        Assertions.assertEquals("sam@corp.com", out.get(1).recipientEmail());
+        Assertions.assertEquals(9L, out.get(1).recipientId());
+        Assertions.assertEquals(List.of(2L, 4L), out.get(1).events().stream().map(NotificationSink.Event::id).toList());
+    }
+
+    @Test
+    void emptyBatchCoalescesToNothing() {
+        Assertions.assertTrue(NotificationOutbox.coalesce(List.of()).isEmpty());
+    }
+}
@@ -0,0 +1,38 @@
+package com.ai.pat.backend.service;
+
+import com.ai.pat.backend.service.PerformanceCubeService.Dimension;
+import com.ai.pat.backend.service.PerformanceCubeService.Granularity;
+import com.ai.pat.backend.service.PerformanceCubeService.Stats;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+class PerformanceCubeServiceTest {
+
+    @Test
+    void statsAreDerivedFromCountSumAndSumOfSquares() {
+        // Ratings 2, 4, 4, 4, 5, 5, 7, 9: mean 5, population deviation 2
+        Stats stats = Stats.of(8, 40, 232);
+        Assertions.assertEquals(8, stats.count());
+        Assertions.assertEquals(5.0, stats.mean());
+        Assertions.assertEquals(2.0, stats.stddev());
+
+        Stats empty = Stats.of(0, 0, 0);
+        Assertions.assertNull(empty.mean());
+        Assertions.assertNull(empty.stddev());
+    }
+
+    @Test
+    void groupByAndPeriodLabels() {
+        Assertions.assertEquals(EnumSet.of(Dimension.DEPARTMENT, Dimension.PERIOD),
+                PerformanceCubeService.parseDimensions(" period, Department,"));
+        Assertions.assertTrue(PerformanceCubeService.parseDimensions(null).isEmpty());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> PerformanceCubeService.parseDimensions("team"));
+
+        Assertions.assertEquals("2025-03", PerformanceCubeService.periodLabel(Granularity.MONTH, 2025, 3));
+        Assertions.assertEquals("2025-Q4", PerformanceCubeService.periodLabel(Granularity.QUARTER, 2025, 4));
+        Assertions.assertEquals("2025", PerformanceCubeService.periodLabel(Granularity.YEAR, 2025, 0));
+        Assertions.assertEquals("unknown", PerformanceCubeService.periodLabel(Granularity.MONTH, 0, 0));
+    }
+}
@@ -0,0 +1,103 @@
+package com.ai.pat.backend.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+class ProjectMembershipGraphTest {
+
+    @Test
+    void answersMembershipQueriesAfterAssignments() {
+        ProjectMembershipGraph graph = new ProjectMembershipGraph();
+        graph.managedProjectsChanged(100L, List.of(1L, 2L));
+        graph.managedProjectsChanged(101L, List.of(3L));
+        graph.userProjectsChanged(10L, List.of(1L));
+        graph.userProjectsChanged(11L, List.of(2L, 3L));
+        graph.userProjectsChanged(12L, List.of(3L));
+        graph.userProjectsChanged(101L, List.of(1L));
+
+        Assertions.assertEquals(List.of(100L, 101L), graph.managersOf(List.of(1L, 3L)));
+        Assertions.assertEquals(List.of(10L, 101L), graph.membersOf(1L));
+        Assertions.assertEquals(List.of(10L), graph.employeesOf(1L));
+        Assertions.assertEquals(List.of(10L, 11L), graph.teamOf(100L));
+        Assertions.assertTrue(graph.canManagerSee(100L, 11L));
+        Assertions.assertFalse(graph.canManagerSee(100L, 12L));
+        Assertions.assertTrue(graph.manages(101L, 3L));
+        Assertions.assertFalse(graph.canManagerSee(999L, 10L));
+        Assertions.assertEquals(List.of(), graph.membersOf(42L));
+    }
+
+    @Test
+    void reassignmentReplacesPreviousEdges() {
+        ProjectMembershipGraph graph = new ProjectMembershipGraph();
+        graph.managedProjectsChanged(100L, List.of(1L));
+        graph.userProjectsChanged(10L, List.of(1L));
+        Assertions.assertTrue(graph.canManagerSee(100L, 10L));
+
+        graph.userProjectsChanged(10L, List.of(2L));
+        Assertions.assertFalse(graph.canManagerSee(100L, 10L));
+        Assertions.assertEquals(List.of(), graph.membersOf(1L));
+
+        graph.managedProjectsChanged(100L, List.of(2L));
+        Assertions.assertTrue(graph.canManagerSee(100L, 10L));
+        Assertions.assertEquals(List.of(), graph.managersOf(List.of(1L)));
+
+        graph.userRemoved(100L);
+        Assertions.assertEquals(List.of(), graph.managersOf(List.of(2L)));
+        Assertions.assertEquals(List.of(10L), graph.employeesOf(2L));
+    }
+
+    @Test
+    void reloadBuildsLargeGraphs() {
+        // 2000 members over 100 projects, one manager per project
+        List<long[]> members = new ArrayList<>();
+        List<long[]> managers = new ArrayList<>();
+        for (long u = 1; u <= 2000; u++) members.add(new long[] {u, 1000 + u % 100});
+        for (long p = 0; p < 100; p++) managers.add(new long[] {5000 + p, 1000 + p});
+        ProjectMembershipGraph graph = new ProjectMembershipGraph(new FakeJdbcTemplate(members, managers));
+
+        graph.reload();
+
+        Assertions.assertEquals(20, graph.membersOf(1007L).size());
+        Assertions.assertEquals(List.of(5007L), graph.managersOf(List.of(1007L)));
+        Assertions.assertTrue(graph.canManagerSee(5007L, 7L));
+        Assertions.assertFalse(graph.canManagerSee(5007L, 8L));
+        Assertions.assertEquals(List.of(1099L), graph.projectsOf(1999L));
+
+        // Incremental edits on top of the loaded graph
+        graph.userProjectsChanged(2001L, List.of(1007L));
+        Assertions.assertEquals(21, graph.membersOf(1007L).size());
+    }
+
+    private static final class FakeJdbcTemplate extends JdbcTemplate {
+        private final List<long[]> members;
+        private final List<long[]> managers;
+
+        FakeJdbcTemplate(List<long[]> members, List<long[]> managers) {
+            this.members = members;
+            this.managers = managers;
+        }
+
+        @Override
+        public void query(String sql, RowCallbackHandler rch) {
+            try {
+                long[][] current = new long[1][];
+                ResultSet rs = Mockito.mock(ResultSet.class);
+                Mockito.when(rs.getLong(Mockito.anyInt())).thenAnswer(inv -> current[0][inv.<Integer>getArgument(0) - 1]);
+                for (long[] row : sql.contains("manager_projects") ? managers : members) {
+                    current[0] = row;
+                    rch.processRow(rs);
+                }
+            } catch (SQLException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.ai.pat.backend.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class SearchServiceTest {
+
+    @Test
+    void likeWildcardsInQueriesAreMatchedLiterally() {
+        Assertions.assertEquals("50\\% of a\\_b", SearchService.escapeLike("50% of a_b"));
+        Assertions.assertEquals("c:\\\\temp", SearchService.escapeLike("c:\\temp"));
+    }
+
+    @Test
+    void extraRowOnlySignalsAnotherPage() {
+        SearchService.Page<Integer> full = SearchService.Page.of(List.of(1, 2, 3), 0, 2);
+        Assertions.assertEquals(List.of(1, 2), full.items());
+        Assertions.assertTrue(full.hasMore());
+
+        SearchService.Page<Integer> last = SearchService.Page.of(List.of(4), 2, 2);
+        Assertions.assertEquals(List.of(4), last.items());
+        Assertions.assertFalse(last.hasMore());
+        Assertions.assertEquals(2, last.page());
+    }
+}
@@ -0,0 +1,60 @@
+package com.ai.pat.backend.service;
+
+import com.ai.pat.backend.util.SentenceSegmenter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+class SentimentEngineTest {
+
+    private final SentimentEngine engine = new SentimentEngine(List.of(
+            "# test lexicon",
+            "good,1",
+            "excellent,2",
+            "issue,-1",
+            "missed deadline,-1.5",
+            "not,NEGATE"
+    ), 3);
+
+    @Test
+    void sumsWeightsOfWholeWordMatches() {
+        SentimentEngine.Score score = engine.score("Excellent work and GOOD communication, one issue.");
+
+        Assertions.assertEquals(3.0, score.positive(), 1e-9);
+        Assertions.assertEquals(1.0, score.negative(), 1e-9);
+        Assertions.assertEquals(3, score.matches());
+    }
+
+    @Test
+    void ignoresTermsInsideOtherWords() {
+        SentimentEngine.Score score = engine.score("Goodness, the tissue notes.");
+
+        Assertions.assertEquals(0, score.matches());
+    }
+
+    @Test
+    void matchesPhrasesAndOverlappingTerms() {
+        SentimentEngine.Score score = engine.score("She missed deadline twice");
+
+        Assertions.assertEquals(1.5, score.negative(), 1e-9);
+    }
+
+    @Test
+    void negatorFlipsTermsWithinWindowUntilClauseEnds() {
+        Assertions.assertEquals(1.0, engine.score("This was not a good sprint").negative(), 1e-9);
+        // Outside the three-word window
+        Assertions.assertEquals(1.0, engine.score("Not that it was ever so good").positive(), 1e-9);
+        // Punctuation ends the negated clause
+        Assertions.assertEquals(1.0, engine.score("Not perfect. Good effort").positive(), 1e-9);
+    }
+
+    @Test
+    void segmenterMatchesRegexSplit() {
+        String text = "First point. Second one!  Third?\nFourth without end";
+        List<String> expected = Arrays.asList(text.split("(?<=[.!?])\\s+"));
+
+        Assertions.assertEquals(expected, SentenceSegmenter.DEFAULT.split(text));
+    }
+}
@@ -0,0 +1,72 @@
+package com.ai.pat.backend.benchmarks;
+
+import com.ai.pat.backend.service.CompetencyDictionary;
+import com.ai.pat.backend.util.CompetencyNormalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Rating-map normalization, by name and into dictionary id vectors. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompetencyNormalizerBenchmark {
+
+    // Number of rating maps normalized per invocation, i.e. evaluations in a listing
+    @Param({"10", "1000", "100000"})
+    public int evaluations;
+
+    private final CompetencyDictionary dictionary = new CompetencyDictionary();
+    private List<Map<String, Integer>> ratingMaps;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(SyntheticData.SEED);
+        ratingMaps = new ArrayList<>(evaluations);
+        for (int i = 0; i < evaluations; i++) {
+            ratingMaps.add(SyntheticData.ratings(random, 8));
+        }
+    }
+
+    @Benchmark
+    public void normalize(Blackhole bh) {
+        for (Map<String, Integer> ratings : ratingMaps) {
+            bh.consume(CompetencyNormalizer.normalize(ratings));
+        }
+    }
+
+    @Benchmark
+    public void canonicalize(Blackhole bh) {
+        for (Map<String, Integer> ratings : ratingMaps) {
+            for (String key : ratings.keySet()) {
+                bh.consume(CompetencyNormalizer.canonicalize(key));
+            }
+        }
+    }
+
+    @Benchmark
+    public void toVector(Blackhole bh) {
+        for (Map<String, Integer> ratings : ratingMaps) {
+            bh.consume(dictionary.toVector(ratings));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.ai.pat.backend.benchmarks;
+
+import com.ai.pat.backend.dto.EvaluationDTO;
+import com.ai.pat.backend.model.Evaluation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Entity to DTO conversion over a synthetic evaluation listing. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationDtoBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int evaluations;
+
+    private List<Evaluation> entities;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        entities = SyntheticData.evaluations(evaluations, Math.max(1, evaluations / 10),
+                SyntheticData.projects(20), 3);
+    }
+
+    @Benchmark
+    public void fromEntity(Blackhole bh) {
+        for (Evaluation e : entities) {
+            bh.consume(EvaluationDTO.fromEntity(e));
+        }
+    }
+}
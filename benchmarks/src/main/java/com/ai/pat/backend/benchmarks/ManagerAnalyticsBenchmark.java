@@ -0,0 +1,86 @@
+package com.ai.pat.backend.benchmarks;
+
+import com.ai.pat.backend.dto.EvaluationDTO;
+import com.ai.pat.backend.model.Evaluation;
+import com.ai.pat.backend.model.Project;
+import com.ai.pat.backend.service.CompetencyDictionary;
+import com.ai.pat.backend.service.ManagerAnalyticsAggregate;
+import com.ai.pat.backend.service.ManagerAnalyticsAggregate.Contribution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * The aggregation behind {@code GET /v1/manager/analytics}: a cold rebuild from the manager's
+ * evaluations, serving the payload from a warm aggregate, and applying a single write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ManagerAnalyticsBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int evaluations;
+
+    private final CompetencyDictionary dictionary = new CompetencyDictionary();
+    private Set<Long> projectIds;
+    private List<Evaluation> entities;
+    private List<Contribution> updates;
+    private ManagerAnalyticsAggregate warm;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Project> projects = SyntheticData.projects(20);
+        projectIds = projects.stream().map(Project::getId).collect(Collectors.toSet());
+        entities = SyntheticData.evaluations(evaluations, Math.max(1, evaluations / 10), projects, 0);
+        warm = rebuild();
+
+        // Re-saves of existing evaluations with a fresh rating, as the incremental path sees them
+        updates = new ArrayList<>();
+        for (int i = 0; i < Math.min(entities.size(), 1024); i++) {
+            EvaluationDTO dto = EvaluationDTO.fromEntity(entities.get(i));
+            dto.setOverallRating(1 + (i % 5));
+            updates.add(Contribution.from(dto, dictionary));
+        }
+    }
+
+    @Benchmark
+    public ManagerAnalyticsAggregate rebuild() {
+        ManagerAnalyticsAggregate aggregate = new ManagerAnalyticsAggregate(1L, projectIds, dictionary);
+        for (Evaluation e : entities) {
+            aggregate.upsert(Contribution.from(EvaluationDTO.fromEntity(e), dictionary));
+        }
+        return aggregate;
+    }
+
+    @Benchmark
+    public Map<String, Object> payload() {
+        return warm.toPayload();
+    }
+
+    @Benchmark
+    public ManagerAnalyticsAggregate incrementalUpsert() {
+        warm.upsert(updates.get(Math.floorMod(next++, updates.size())));
+        return warm;
+    }
+}
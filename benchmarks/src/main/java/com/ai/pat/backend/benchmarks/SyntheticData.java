@@ -0,0 +1,126 @@
+package com.ai.pat.backend.benchmarks;
+
+import com.ai.pat.backend.model.Evaluation;
+import com.ai.pat.backend.model.Project;
+import com.ai.pat.backend.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic fixtures shared by the benchmark suites. A fixed seed keeps runs
+ * comparable across machines and commits.
+ */
+public final class SyntheticData {
+
+    public static final long SEED = 20240501L;
+
+    // Mix of canonical names, snake_case and legacy aliases as they arrive from the frontend
+    public static final String[] COMPETENCY_KEYS = {
+            "technical_skills", "Technical Excellence", "problem_solving", "quality", "time_management",
+            "reliability", "teamwork", "Leadership", "initiative", "adaptability", "communication",
+            "customer_focus"
+    };
+
+    private static final String[] SENTENCES = {
+            "Delivered the reporting module ahead of schedule and helped the team with code reviews.",
+            "Communication with stakeholders was excellent and proactive throughout the sprint.",
+            "There was one missed deadline on the integration work due to unclear requirements.",
+            "Needs to improve estimation accuracy and raise blockers earlier.",
+            "Great collaboration with QA, which reduced the number of regressions significantly!",
+            "Not always responsive on chat during the release week, which caused some delays.",
+            "Mentored two new joiners and documented the onboarding process.",
+            "Is the current workload sustainable? Overtime was frequent this month.",
+            "Strong ownership of production incidents and clear postmortems.",
+            "Test coverage on new features remains low and should be a focus next period."
+    };
+
+    private SyntheticData() {}
+
+    /** Roughly {@code sentences} sentences of review-like prose. */
+    public static String text(int sentences, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder sb = new StringBuilder(sentences * 80);
+        for (int i = 0; i < sentences; i++) {
+            if (i > 0) sb.append(i % 7 == 0 ? "\n\n" : " ");
+            sb.append(SENTENCES[random.nextInt(SENTENCES.length)]);
+        }
+        return sb.toString();
+    }
+
+    public static Map<String, Integer> ratings(SplittableRandom random, int count) {
+        Map<String, Integer> ratings = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            ratings.put(COMPETENCY_KEYS[(i + random.nextInt(COMPETENCY_KEYS.length)) % COMPETENCY_KEYS.length],
+                    1 + random.nextInt(5));
+        }
+        return ratings;
+    }
+
+    public static List<Project> projects(int count) {
+        List<Project> projects = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) {
+            projects.add(Project.builder().id(i).name("Project " + i).build());
+        }
+        return projects;
+    }
+
+    /**
+     * {@code count} evaluations spread over {@code employees} employees and the given projects.
+     * About a third leave the stored employee name blank so {@code EvaluationDTO.fromEntity}
+     * exercises its name derivation fallback.
+     */
+    public static List<Evaluation> evaluations(int count, int employees, List<Project> projects, int textSentences) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<User> users = new ArrayList<>(employees);
+        for (long i = 1; i <= employees; i++) {
+            users.add(User.builder()
+                    .id(i)
+                    .username("employee." + i)
+                    .email("employee." + i + "@example.com")
+                    .firstName(i % 5 == 0 ? null : "First" + i)
+                    .lastName(i % 5 == 0 ? null : "Last" + i)
+                    .department("Dept " + (i % 8))
+                    .build());
+        }
+        User reviewer = User.builder().id(0L).username("manager").firstName("Mia").lastName("Manager").build();
+        Evaluation.EvaluationStatus[] statuses = Evaluation.EvaluationStatus.values();
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+        List<Evaluation> evaluations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User employee = users.get(random.nextInt(users.size()));
+            Evaluation e = new Evaluation();
+            e.setId((long) i + 1);
+            e.setEmployee(employee);
+            e.setReviewer(reviewer);
+            e.setProject(projects.get(random.nextInt(projects.size())));
+            if (i % 3 != 0) {
+                e.setEmployeeName(employee.getFirstName() + " " + employee.getLastName());
+                e.setEmployeeEmail(employee.getEmail());
+            }
+            e.setOverallRating(1 + random.nextInt(5));
+            e.setCompetencyRatings(ratings(random, 8));
+            if (random.nextInt(4) != 0) {
+                e.setManagerRating(1 + random.nextInt(5));
+                e.setManagerCompetencyRatings(ratings(random, 8));
+            }
+            if (textSentences > 0) {
+                e.setAchievements(text(textSentences, i));
+                e.setChallenges(text(textSentences, i + 1L));
+                e.setManagerFeedback(text(textSentences, i + 2L));
+            }
+            e.setStatus(statuses[random.nextInt(statuses.length)]);
+            e.setEvaluationYear(2025);
+            e.setEvaluationMonth(1 + (i % 12));
+            e.setSubmittedAt(base.plusHours(i));
+            e.setUpdatedAt(base.plusHours(i + random.nextInt(48)));
+            evaluations.add(e);
+        }
+        return evaluations;
+    }
+}
@@ -0,0 +1,109 @@
+package com.ai.pat.backend.service;
+
+import com.ai.pat.backend.benchmarks.SyntheticData;
+import com.ai.pat.backend.controller.dto.ai.AnalyzeTextRequest;
+import com.ai.pat.backend.controller.dto.ai.AnalyzeTextResponse;
+import com.ai.pat.backend.controller.dto.ai.EvaluateRequest;
+import com.ai.pat.backend.controller.dto.ai.RecommendationsRequest;
+import com.ai.pat.backend.controller.dto.ai.RecommendationsResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heuristic (no provider key) paths of {@link AiService}. Lives in the service package so it can
+ * reach the package-private {@code naiveSummarize}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AiServiceBenchmark {
+
+    // Sentences per text: a one-line comment vs. a long quarterly write-up
+    @Param({"2", "200"})
+    public int sentences;
+
+    // Number of texts per analyze/evaluate call (peer reviews)
+    @Param({"1", "10"})
+    public int texts;
+
+    private AiService aiService;
+    private AnalyzeTextRequest analyzeRequest;
+    private RecommendationsRequest recommendationsRequest;
+    private EvaluateRequest evaluateRequest;
+    private String summarizeText;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Empty API key: every call stays on the local heuristics and never touches the network
+        AiProviderClient providerClient = new AiProviderClient(new SimpleMeterRegistry(),
+                "http://localhost", "", 1000, 1000, 1, 1, 5, 1000);
+        AiResponseCache responseCache = new AiResponseCache(new SimpleMeterRegistry(), 0, 1, "");
+        SentimentEngine sentimentEngine = new SentimentEngine(new DefaultResourceLoader(),
+                "classpath:sentiment-lexicon.csv", 3);
+        aiService = new AiService(providerClient, responseCache, sentimentEngine);
+
+        List<String> textList = new ArrayList<>(texts);
+        for (int i = 0; i < texts; i++) {
+            textList.add(SyntheticData.text(sentences, SyntheticData.SEED + i));
+        }
+        summarizeText = textList.get(0);
+
+        analyzeRequest = new AnalyzeTextRequest();
+        analyzeRequest.setTexts(textList);
+
+        Map<String, Integer> ratings = SyntheticData.ratings(new SplittableRandom(SyntheticData.SEED), 10);
+        recommendationsRequest = new RecommendationsRequest();
+        recommendationsRequest.setRole("Software Engineer");
+        recommendationsRequest.setCompetencyRatings(ratings);
+        recommendationsRequest.setFeedbackText(summarizeText);
+
+        evaluateRequest = new EvaluateRequest();
+        evaluateRequest.setEmployeeName("Alex Example");
+        evaluateRequest.setRole("Software Engineer");
+        evaluateRequest.setCompetencyRatings(ratings);
+        evaluateRequest.setSelfText(textList.get(0));
+        evaluateRequest.setManagerText(SyntheticData.text(sentences, SyntheticData.SEED - 1));
+        evaluateRequest.setPeerTexts(textList.subList(1, textList.size()));
+    }
+
+    @Benchmark
+    public AnalyzeTextResponse analyzeText() {
+        return aiService.analyzeText(analyzeRequest);
+    }
+
+    @Benchmark
+    public String naiveSummarize() {
+        return AiService.naiveSummarize(summarizeText, 2, 60);
+    }
+
+    @Benchmark
+    public RecommendationsResponse recommendations() {
+        return aiService.recommendations(recommendationsRequest);
+    }
+
+    @Benchmark
+    public Map<String, Object> evaluate() {
+        return aiService.evaluate(evaluateRequest);
+    }
+}
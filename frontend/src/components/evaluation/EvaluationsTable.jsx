@@ -254,7 +254,7 @@ const EvaluationsTable = () => {
                     Submitted Date
                   </th>
                   <th className="px-6 py-3 text-left text-xs font-medium text-gray-500 uppercase tracking-wider border-r border-gray-300">
-                    Key Achievements
+                    Project
                   </th>
                   <th className="px-6 py-3 text-left text-xs font-medium text-gray-500 uppercase tracking-wider">
                     Actions
@@ -307,7 +307,7 @@ const EvaluationsTable = () => {
                   </td>
                   <td className="px-6 py-4 border-r border-gray-200">
                     <div className="text-sm text-gray-900 max-w-xs truncate">
-                      {evaluation.achievements || evaluation.additionalFeedback || evaluation.feedback || 'No achievements provided'}
+                      {evaluation.projectName || 'No project'}
                     </div>
                   </td>
                   <td className="px-6 py-4 whitespace-nowrap text-sm font-medium">
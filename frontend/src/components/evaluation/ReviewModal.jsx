@@ -1,5 +1,5 @@
 import React, { useState } from 'react';
-import { useMutation, useQueryClient } from '@tanstack/react-query';
+import { useMutation, useQuery, useQueryClient } from '@tanstack/react-query';
 import { 
   XMarkIcon, 
   StarIcon,
@@ -19,6 +19,23 @@ const ReviewModal = ({ evaluation, isOpen, onClose }) => {
 
   const queryClient = useQueryClient();
 
+  // The evaluations list only carries summaries; load the full text for the one under review
+  const { data: details } = useQuery({
+    queryKey: ['evaluation', evaluation?.id],
+    queryFn: async () => {
+      const response = await fetch(`http://localhost:8084/api/v1/evaluations/${evaluation.id}`, {
+        headers: {
+          'Authorization': `Bearer ${localStorage.getItem('ai_ppap_auth_token')}`
+        }
+      });
+      if (!response.ok) {
+        throw new Error('Failed to load evaluation');
+      }
+      return response.json();
+    },
+    enabled: isOpen && !!evaluation?.id
+  });
+
   const submitReviewMutation = useMutation({
     mutationFn: async (data) => {
       const response = await fetch(`http://localhost:8084/api/v1/evaluations/${evaluation.id}/review`, {
@@ -120,24 +137,24 @@ const ReviewModal = ({ evaluation, isOpen, onClose }) => {
 
             {/* Key Information */}
             <div className="space-y-3">
-              {evaluation.achievements && (
+              {details?.achievements && (
                 <div>
                   <label className="block text-sm font-medium text-gray-700">Key Achievements</label>
-                  <p className="mt-1 text-sm text-gray-600">{evaluation.achievements}</p>
+                  <p className="mt-1 text-sm text-gray-600">{details.achievements}</p>
                 </div>
               )}
               
-              {evaluation.challenges && (
+              {details?.challenges && (
                 <div>
                   <label className="block text-sm font-medium text-gray-700">Challenges</label>
-                  <p className="mt-1 text-sm text-gray-600">{evaluation.challenges}</p>
+                  <p className="mt-1 text-sm text-gray-600">{details.challenges}</p>
                 </div>
               )}
               
-              {evaluation.nextPeriodGoals && (
+              {details?.nextPeriodGoals && (
                 <div>
                   <label className="block text-sm font-medium text-gray-700">Next Period Goals</label>
-                  <p className="mt-1 text-sm text-gray-600">{evaluation.nextPeriodGoals}</p>
+                  <p className="mt-1 text-sm text-gray-600">{details.nextPeriodGoals}</p>
                 </div>
               )}
             </div>